@@ -2,6 +2,9 @@ package io.github.girisenji.ai.aura;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import io.github.girisenji.ai.aura.config.NativeRuntimeHints;
 
 /**
  * Aura Gateway - Intelligent LLM Gateway with OpenAI-compatible API
@@ -14,6 +17,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Virtual threads for high concurrency
  */
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class AuraApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,55 @@
+package io.github.girisenji.ai.aura.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint (/actuator/auraconfig) showing the active configuration
+ * version and reloading it on POST
+ *
+ * The endpoint is read-only unless management.endpoint.auraconfig.access is
+ * set to unrestricted, since actuator endpoints are not authenticated and a
+ * reload applies whatever the config file currently holds.
+ */
+@Component
+@Endpoint(id = "auraconfig", defaultAccess = Access.READ_ONLY)
+public class AuraConfigEndpoint {
+    
+    private final AuraConfigHolder holder;
+    private final AuraConfigReloader reloader;
+    
+    public AuraConfigEndpoint(AuraConfigHolder holder, AuraConfigReloader reloader) {
+        this.holder = holder;
+        this.reloader = reloader;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> current() {
+        return describe(holder.current());
+    }
+    
+    @WriteOperation
+    public Map<String, Object> reload() {
+        try {
+            return describe(reloader.reload());
+        } catch (IllegalStateException e) {
+            Map<String, Object> result = describe(holder.current());
+            result.put("error", e.getMessage());
+            return result;
+        }
+    }
+    
+    private Map<String, Object> describe(AuraConfigHolder.Snapshot snapshot) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", snapshot.version());
+        result.put("loadedAt", snapshot.loadedAt().toString());
+        result.put("source", snapshot.source());
+        return result;
+    }
+}
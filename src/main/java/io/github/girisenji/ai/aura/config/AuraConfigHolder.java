@@ -0,0 +1,73 @@
+package io.github.girisenji.ai.aura.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current snapshot of the aura.* configuration
+ *
+ * A snapshot is never modified after it is published; a reload binds a
+ * fresh AuraProperties and swaps the reference. Hot-path code reads the
+ * snapshot once per request without locking, so requests already in flight
+ * finish on the configuration they started with.
+ */
+@Component
+public class AuraConfigHolder {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuraConfigHolder.class);
+    
+    private final AtomicReference<Snapshot> current;
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    
+    public AuraConfigHolder(AuraProperties properties) {
+        this.current = new AtomicReference<>(new Snapshot(1, properties, Instant.now(), "startup"));
+    }
+    
+    /**
+     * Immutable view of one configuration generation
+     */
+    public record Snapshot(long version, AuraProperties properties, Instant loadedAt, String source) {
+    }
+    
+    public Snapshot current() {
+        return current.get();
+    }
+    
+    /**
+     * Properties of the current snapshot
+     */
+    public AuraProperties properties() {
+        return current.get().properties();
+    }
+    
+    /**
+     * Swap in a new configuration and notify listeners
+     */
+    public Snapshot publish(AuraProperties properties, String source) {
+        Snapshot next = current.updateAndGet(previous ->
+            new Snapshot(previous.version() + 1, properties, Instant.now(), source));
+        log.info("Published configuration version {} from {}", next.version(), source);
+        for (Consumer<Snapshot> listener : listeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                log.error("Configuration listener failed for version {}", next.version(), e);
+            }
+        }
+        return next;
+    }
+    
+    /**
+     * Register a callback for every snapshot published after this call
+     */
+    public void subscribe(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.girisenji.ai.aura.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Rebinds aura.* at runtime and publishes it to the {@link AuraConfigHolder}
+ *
+ * The optional override file is layered over the application's own
+ * property sources, so it only needs to contain the keys being changed.
+ * The file is polled for modification; the auraconfig actuator endpoint
+ * triggers the same reload on demand. A file that fails to parse or bind
+ * leaves the current snapshot in place.
+ */
+@Component
+public class AuraConfigReloader {
+    
+    private static final Logger log = LoggerFactory.getLogger(AuraConfigReloader.class);
+    
+    private final ConfigurableEnvironment environment;
+    private final AuraConfigHolder holder;
+    private final AuraProperties.ConfigReload config;
+    private final YamlPropertySourceLoader yamlLoader = new YamlPropertySourceLoader();
+    
+    private ScheduledExecutorService watcher;
+    private FileTime lastModified;
+    
+    public AuraConfigReloader(ConfigurableEnvironment environment, AuraConfigHolder holder) {
+        this.environment = environment;
+        this.holder = holder;
+        // The reload settings themselves are fixed at startup
+        this.config = holder.properties().getConfigReload();
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        if (!config.isEnabled() || config.getFile().isBlank()) {
+            return;
+        }
+        
+        Path file = Path.of(config.getFile());
+        if (Files.exists(file)) {
+            reload();
+        }
+        
+        long interval = config.getPollInterval().toMillis();
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aura-config-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(this::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Watching {} for configuration changes every {}", file, config.getPollInterval());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+    
+    /**
+     * Rebind the configuration and publish it if it binds cleanly
+     *
+     * @throws IllegalStateException if the override file cannot be read or bound
+     */
+    public synchronized AuraConfigHolder.Snapshot reload() {
+        MutablePropertySources sources = new MutablePropertySources();
+        String origin = "environment";
+        if (config.isEnabled() && !config.getFile().isBlank()) {
+            Path file = Path.of(config.getFile());
+            try {
+                lastModified = Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+                if (lastModified != null) {
+                    List<PropertySource<?>> loaded = yamlLoader.load("aura-reload", new FileSystemResource(file));
+                    loaded.forEach(sources::addLast);
+                    origin = file.toString();
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Cannot read configuration file " + file, e);
+            }
+        }
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (!ConfigurationPropertySources.isAttachedConfigurationPropertySource(source)) {
+                sources.addLast(source);
+            }
+        }
+        
+        AuraProperties properties;
+        try {
+            Binder binder = new Binder(ConfigurationPropertySources.from(sources),
+                new PropertySourcesPlaceholdersResolver(sources));
+            properties = binder.bindOrCreate("aura", AuraProperties.class);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot bind configuration from " + origin, e);
+        }
+        return holder.publish(properties, origin);
+    }
+    
+    private void reloadIfModified() {
+        try {
+            Path file = Path.of(config.getFile());
+            FileTime modified = Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+            if (modified == null || modified.equals(lastModified)) {
+                return;
+            }
+            reload();
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the last good snapshot; retry when the file changes again
+            log.error("Configuration reload failed, keeping version {}", holder.current().version(), e);
+        }
+    }
+}
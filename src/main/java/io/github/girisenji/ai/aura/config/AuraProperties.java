@@ -1,9 +1,18 @@
 package io.github.girisenji.ai.aura.config;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import io.github.girisenji.ai.aura.model.PriorityClass;
+import io.github.girisenji.ai.aura.model.RoutingTier;
 
 /**
  * Configuration properties for Aura Gateway
@@ -17,6 +26,21 @@ public class AuraProperties {
     private RateLimit rateLimit = new RateLimit();
     private CostTracking costTracking = new CostTracking();
     private Guardrails guardrails = new Guardrails();
+    private PromptCache promptCache = new PromptCache();
+    private Routing routing = new Routing();
+    private Cascade cascade = new Cascade();
+    private Batch batch = new Batch();
+    private Scheduler scheduler = new Scheduler();
+    private Bulkhead bulkhead = new Bulkhead();
+    private Streaming streaming = new Streaming();
+    private ConfigReload configReload = new ConfigReload();
+    private ResponseCache responseCache = new ResponseCache();
+    private Snapshot snapshot = new Snapshot();
+    private Embeddings embeddings = new Embeddings();
+    private ContextWindow contextWindow = new ContextWindow();
+    private Deadline deadline = new Deadline();
+    private Retry retry = new Retry();
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
     
     // Getters and Setters
     public Providers getProviders() {
@@ -59,11 +83,132 @@ public class AuraProperties {
         this.guardrails = guardrails;
     }
     
+    public PromptCache getPromptCache() {
+        return promptCache;
+    }
+    
+    public void setPromptCache(PromptCache promptCache) {
+        this.promptCache = promptCache;
+    }
+    
+    public Routing getRouting() {
+        return routing;
+    }
+    
+    public void setRouting(Routing routing) {
+        this.routing = routing;
+    }
+    
+    public Map<String, Tenant> getTenants() {
+        return tenants;
+    }
+    
+    public void setTenants(Map<String, Tenant> tenants) {
+        this.tenants = tenants;
+    }
+    
+    public Cascade getCascade() {
+        return cascade;
+    }
+    
+    public void setCascade(Cascade cascade) {
+        this.cascade = cascade;
+    }
+    
+    public Batch getBatch() {
+        return batch;
+    }
+    
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+    
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+    
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+    
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+    
+    public void setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+    
+    public Streaming getStreaming() {
+        return streaming;
+    }
+    
+    public void setStreaming(Streaming streaming) {
+        this.streaming = streaming;
+    }
+    
+    public ConfigReload getConfigReload() {
+        return configReload;
+    }
+
+    public void setConfigReload(ConfigReload configReload) {
+        this.configReload = configReload;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Embeddings getEmbeddings() {
+        return embeddings;
+    }
+
+    public void setEmbeddings(Embeddings embeddings) {
+        this.embeddings = embeddings;
+    }
+
+    public ContextWindow getContextWindow() {
+        return contextWindow;
+    }
+
+    public void setContextWindow(ContextWindow contextWindow) {
+        this.contextWindow = contextWindow;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
     public static class Providers {
         private OpenAI openai = new OpenAI();
         private Anthropic anthropic = new Anthropic();
         private Azure azure = new Azure();
         private Ollama ollama = new Ollama();
+        private EndpointHealth endpointHealth = new EndpointHealth();
         
         public OpenAI getOpenai() {
             return openai;
@@ -96,6 +241,17 @@ public class AuraProperties {
         public void setOllama(Ollama ollama) {
             this.ollama = ollama;
         }
+        
+        /**
+         * How pooled endpoints are benched when throttled or failing
+         */
+        public EndpointHealth getEndpointHealth() {
+            return endpointHealth;
+        }
+        
+        public void setEndpointHealth(EndpointHealth endpointHealth) {
+            this.endpointHealth = endpointHealth;
+        }
     }
     
     public static class OpenAI {
@@ -104,6 +260,7 @@ public class AuraProperties {
         private Duration timeout;
         private int maxRetries;
         private Models models = new Models();
+        private List<Endpoint> endpoints = new ArrayList<>();
         
         public String getApiKey() {
             return apiKey;
@@ -129,6 +286,11 @@ public class AuraProperties {
             this.timeout = timeout;
         }
         
+        /**
+         * Unused: chat calls are retried by the gateway's retry policy and
+         * every call makes a single attempt per endpoint. Kept so that
+         * existing configuration still binds.
+         */
         public int getMaxRetries() {
             return maxRetries;
         }
@@ -145,6 +307,17 @@ public class AuraProperties {
             this.models = models;
         }
         
+        /**
+         * Keys and endpoints to spread calls over; empty means apiKey at baseUrl alone
+         */
+        public List<Endpoint> getEndpoints() {
+            return endpoints;
+        }
+        
+        public void setEndpoints(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+        }
+        
         public static class Models {
             private String premium;
             private String balanced;
@@ -182,6 +355,7 @@ public class AuraProperties {
         private Duration timeout;
         private int maxRetries;
         private Models models = new Models();
+        private List<Endpoint> endpoints = new ArrayList<>();
         
         public String getApiKey() {
             return apiKey;
@@ -207,6 +381,10 @@ public class AuraProperties {
             this.timeout = timeout;
         }
         
+        /**
+         * Unused: chat calls are retried by the gateway's retry policy. Kept
+         * so that existing configuration still binds.
+         */
         public int getMaxRetries() {
             return maxRetries;
         }
@@ -223,6 +401,17 @@ public class AuraProperties {
             this.models = models;
         }
         
+        /**
+         * Keys and endpoints to spread calls over; empty means apiKey at baseUrl alone
+         */
+        public List<Endpoint> getEndpoints() {
+            return endpoints;
+        }
+        
+        public void setEndpoints(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+        }
+        
         public static class Models {
             private String premium;
             private String balanced;
@@ -254,6 +443,93 @@ public class AuraProperties {
         }
     }
     
+    /**
+     * One member of a provider's endpoint pool
+     *
+     * A member without its own apiKey or baseUrl uses the provider's.
+     * Weight scales how many concurrent requests the member gets relative
+     * to the others, e.g. for keys on different rate-limit tiers.
+     */
+    public static class Endpoint {
+        private String name;
+        private String apiKey;
+        private String baseUrl;
+        private int weight = 1;
+        
+        /**
+         * Label for logs and metrics, never the key; defaults to the member's position
+         */
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getApiKey() {
+            return apiKey;
+        }
+        
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+        
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+        
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        public int getWeight() {
+            return weight;
+        }
+        
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+    }
+    
+    /**
+     * Benching of pooled endpoints
+     *
+     * A member answering 429 sits out its Retry-After, or throttle-cooldown
+     * without one; a rejected key (401/403), or failure-threshold
+     * consecutive server errors or timeouts, takes it out for
+     * ejection-cooldown.
+     */
+    public static class EndpointHealth {
+        private Duration throttleCooldown = Duration.ofSeconds(10);
+        private int failureThreshold = 3;
+        private Duration ejectionCooldown = Duration.ofSeconds(30);
+        
+        public Duration getThrottleCooldown() {
+            return throttleCooldown;
+        }
+        
+        public void setThrottleCooldown(Duration throttleCooldown) {
+            this.throttleCooldown = throttleCooldown;
+        }
+        
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+        
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+        
+        public Duration getEjectionCooldown() {
+            return ejectionCooldown;
+        }
+        
+        public void setEjectionCooldown(Duration ejectionCooldown) {
+            this.ejectionCooldown = ejectionCooldown;
+        }
+    }
+    
     public static class Azure {
         private String apiKey;
         private String endpoint;
@@ -347,6 +623,7 @@ public class AuraProperties {
     public static class Classifier {
         private String modelPath;
         private Threshold threshold = new Threshold();
+        private long cacheSize = 10_000;
         
         public String getModelPath() {
             return modelPath;
@@ -364,10 +641,22 @@ public class AuraProperties {
             this.threshold = threshold;
         }
         
+        public long getCacheSize() {
+            return cacheSize;
+        }
+        
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+        
+        /**
+         * Confidence the heuristic needs before its answer for a tier is
+         * taken without asking the model
+         */
         public static class Threshold {
-            private double eco;
-            private double balanced;
-            private double premium;
+            private double eco = 0.3;
+            private double balanced = 0.6;
+            private double premium = 0.8;
             
             public double getEco() {
                 return eco;
@@ -490,4 +779,1170 @@ public class AuraProperties {
             }
         }
     }
+    
+    public static class PromptCache {
+        private boolean enabled = true;
+        private int minPrefixTokens = 1024;
+        private int minOccurrences = 2;
+        private int sketchWidth = 4096;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMinPrefixTokens() {
+            return minPrefixTokens;
+        }
+        
+        public void setMinPrefixTokens(int minPrefixTokens) {
+            this.minPrefixTokens = minPrefixTokens;
+        }
+        
+        public int getMinOccurrences() {
+            return minOccurrences;
+        }
+        
+        public void setMinOccurrences(int minOccurrences) {
+            this.minOccurrences = minOccurrences;
+        }
+        
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+        
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+    }
+    
+    public static class Routing {
+        private Map<String, ModelPrice> pricing = new LinkedHashMap<>();
+        private int latencyWindow = 256;
+        private int defaultCompletionTokens = 256;
+        private Map<RoutingTier, List<String>> chains = new EnumMap<>(RoutingTier.class);
+        
+        public Map<String, ModelPrice> getPricing() {
+            return pricing;
+        }
+        
+        public void setPricing(Map<String, ModelPrice> pricing) {
+            this.pricing = pricing;
+        }
+        
+        public int getLatencyWindow() {
+            return latencyWindow;
+        }
+        
+        public void setLatencyWindow(int latencyWindow) {
+            this.latencyWindow = latencyWindow;
+        }
+        
+        public int getDefaultCompletionTokens() {
+            return defaultCompletionTokens;
+        }
+        
+        public void setDefaultCompletionTokens(int defaultCompletionTokens) {
+            this.defaultCompletionTokens = defaultCompletionTokens;
+        }
+        
+        /**
+         * Ordered failover chain per tier; tiers left out use the built-in chain
+         */
+        public Map<RoutingTier, List<String>> getChains() {
+            return chains;
+        }
+        
+        public void setChains(Map<RoutingTier, List<String>> chains) {
+            this.chains = chains;
+        }
+        
+        /**
+         * USD price per 1k tokens for a single model
+         */
+        public static class ModelPrice {
+            private double inputPer1k;
+            private double outputPer1k;
+            
+            public double getInputPer1k() {
+                return inputPer1k;
+            }
+            
+            public void setInputPer1k(double inputPer1k) {
+                this.inputPer1k = inputPer1k;
+            }
+            
+            public double getOutputPer1k() {
+                return outputPer1k;
+            }
+            
+            public void setOutputPer1k(double outputPer1k) {
+                this.outputPer1k = outputPer1k;
+            }
+        }
+    }
+    
+    public static class Tenant {
+        private List<String> apiKeys = new ArrayList<>();
+        private PriorityClass priority = PriorityClass.STANDARD;
+        private int weight = 1;
+        private Slo slo = new Slo();
+        
+        public List<String> getApiKeys() {
+            return apiKeys;
+        }
+        
+        public void setApiKeys(List<String> apiKeys) {
+            this.apiKeys = apiKeys;
+        }
+        
+        public PriorityClass getPriority() {
+            return priority;
+        }
+        
+        public void setPriority(PriorityClass priority) {
+            this.priority = priority;
+        }
+        
+        public int getWeight() {
+            return weight;
+        }
+        
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+        
+        public Slo getSlo() {
+            return slo;
+        }
+        
+        public void setSlo(Slo slo) {
+            this.slo = slo;
+        }
+        
+        /**
+         * Service level objective a tenant is willing to accept
+         */
+        public static class Slo {
+            private Duration maxP95Latency;
+            private Double maxCostPer1kTokens;
+            private RoutingTier minTier;
+            
+            public Duration getMaxP95Latency() {
+                return maxP95Latency;
+            }
+            
+            public void setMaxP95Latency(Duration maxP95Latency) {
+                this.maxP95Latency = maxP95Latency;
+            }
+            
+            public Double getMaxCostPer1kTokens() {
+                return maxCostPer1kTokens;
+            }
+            
+            public void setMaxCostPer1kTokens(Double maxCostPer1kTokens) {
+                this.maxCostPer1kTokens = maxCostPer1kTokens;
+            }
+            
+            public RoutingTier getMinTier() {
+                return minTier;
+            }
+            
+            public void setMinTier(RoutingTier minTier) {
+                this.minTier = minTier;
+            }
+        }
+    }
+    
+    public static class Cascade {
+        private boolean enabled = false;
+        private RoutingTier startTier = RoutingTier.ECO;
+        private double confidenceThreshold = 0.7;
+        private boolean speculative = false;
+        private Duration speculativeDelay = Duration.ofMillis(1500);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public RoutingTier getStartTier() {
+            return startTier;
+        }
+        
+        public void setStartTier(RoutingTier startTier) {
+            this.startTier = startTier;
+        }
+        
+        public double getConfidenceThreshold() {
+            return confidenceThreshold;
+        }
+        
+        public void setConfidenceThreshold(double confidenceThreshold) {
+            this.confidenceThreshold = confidenceThreshold;
+        }
+        
+        public boolean isSpeculative() {
+            return speculative;
+        }
+        
+        public void setSpeculative(boolean speculative) {
+            this.speculative = speculative;
+        }
+        
+        public Duration getSpeculativeDelay() {
+            return speculativeDelay;
+        }
+        
+        public void setSpeculativeDelay(Duration speculativeDelay) {
+            this.speculativeDelay = speculativeDelay;
+        }
+    }
+    
+    public static class Batch {
+        private int maxConcurrency = 64;
+        private int defaultProviderConcurrency = 8;
+        private Map<String, Integer> providerConcurrency = new LinkedHashMap<>();
+        private long tokensPerMinute = 0;
+        private String outputDir = System.getProperty("java.io.tmpdir") + "/aura-batches";
+        private Duration retention = Duration.ofHours(24);
+        
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+        
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+        
+        public int getDefaultProviderConcurrency() {
+            return defaultProviderConcurrency;
+        }
+        
+        public void setDefaultProviderConcurrency(int defaultProviderConcurrency) {
+            this.defaultProviderConcurrency = defaultProviderConcurrency;
+        }
+        
+        public Map<String, Integer> getProviderConcurrency() {
+            return providerConcurrency;
+        }
+        
+        public void setProviderConcurrency(Map<String, Integer> providerConcurrency) {
+            this.providerConcurrency = providerConcurrency;
+        }
+        
+        public long getTokensPerMinute() {
+            return tokensPerMinute;
+        }
+        
+        public void setTokensPerMinute(long tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+        }
+        
+        public String getOutputDir() {
+            return outputDir;
+        }
+        
+        public void setOutputDir(String outputDir) {
+            this.outputDir = outputDir;
+        }
+        
+        /**
+         * How long a finished or cancelled batch and its files are kept before being deleted
+         */
+        public Duration getRetention() {
+            return retention;
+        }
+        
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+    
+    public static class Scheduler {
+        private boolean enabled = true;
+        private int maxConcurrency = 256;
+        private Map<PriorityClass, PriorityClassConfig> classes = defaultClasses();
+        private Sjf sjf = new Sjf();
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+        
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+        
+        public Map<PriorityClass, PriorityClassConfig> getClasses() {
+            return classes;
+        }
+        
+        public void setClasses(Map<PriorityClass, PriorityClassConfig> classes) {
+            this.classes = classes;
+        }
+        
+        public Sjf getSjf() {
+            return sjf;
+        }
+        
+        public void setSjf(Sjf sjf) {
+            this.sjf = sjf;
+        }
+        
+        private static Map<PriorityClass, PriorityClassConfig> defaultClasses() {
+            Map<PriorityClass, PriorityClassConfig> classes = new EnumMap<>(PriorityClass.class);
+            classes.put(PriorityClass.INTERACTIVE, new PriorityClassConfig(8, 1000, Duration.ofSeconds(2)));
+            classes.put(PriorityClass.STANDARD, new PriorityClassConfig(4, 1000, Duration.ofSeconds(10)));
+            classes.put(PriorityClass.BULK, new PriorityClassConfig(1, 10000, Duration.ofMinutes(2)));
+            return classes;
+        }
+        
+        /**
+         * Weight, queue bound and queue-time SLO of one priority class
+         */
+        public static class PriorityClassConfig {
+            private int weight;
+            private int maxQueue;
+            private Duration maxQueueTime;
+            
+            public PriorityClassConfig() {
+            }
+            
+            public PriorityClassConfig(int weight, int maxQueue, Duration maxQueueTime) {
+                this.weight = weight;
+                this.maxQueue = maxQueue;
+                this.maxQueueTime = maxQueueTime;
+            }
+            
+            public int getWeight() {
+                return weight;
+            }
+            
+            public void setWeight(int weight) {
+                this.weight = weight;
+            }
+            
+            public int getMaxQueue() {
+                return maxQueue;
+            }
+            
+            public void setMaxQueue(int maxQueue) {
+                this.maxQueue = maxQueue;
+            }
+            
+            public Duration getMaxQueueTime() {
+                return maxQueueTime;
+            }
+            
+            public void setMaxQueueTime(Duration maxQueueTime) {
+                this.maxQueueTime = maxQueueTime;
+            }
+        }
+        
+        /**
+         * Size-aware ordering by predicted completion length, and token reservations
+         */
+        public static class Sjf {
+            private boolean enabled = true;
+            private int referenceTokens = 256;
+            private double maxCost = 8.0;
+            private long maxInflightTokens = 0;
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            /**
+             * Predicted length that counts as one ordinary request
+             */
+            public int getReferenceTokens() {
+                return referenceTokens;
+            }
+            
+            public void setReferenceTokens(int referenceTokens) {
+                this.referenceTokens = referenceTokens;
+            }
+            
+            /**
+             * Cap on a request's relative size; bounds how many shorter requests can overtake it
+             */
+            public double getMaxCost() {
+                return maxCost;
+            }
+            
+            public void setMaxCost(double maxCost) {
+                this.maxCost = maxCost;
+            }
+            
+            /**
+             * Predicted completion tokens that may be in flight at once (0 for no limit)
+             */
+            public long getMaxInflightTokens() {
+                return maxInflightTokens;
+            }
+            
+            public void setMaxInflightTokens(long maxInflightTokens) {
+                this.maxInflightTokens = maxInflightTokens;
+            }
+        }
+    }
+    
+    public static class Bulkhead {
+        private boolean enabled = true;
+        private Limit defaultProvider = new Limit(64, Duration.ofMillis(100));
+        private Map<String, Limit> providers = new LinkedHashMap<>();
+        private Map<String, Limit> models = new LinkedHashMap<>();
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public Limit getDefaultProvider() {
+            return defaultProvider;
+        }
+        
+        public void setDefaultProvider(Limit defaultProvider) {
+            this.defaultProvider = defaultProvider;
+        }
+        
+        public Map<String, Limit> getProviders() {
+            return providers;
+        }
+        
+        public void setProviders(Map<String, Limit> providers) {
+            this.providers = providers;
+        }
+        
+        public Map<String, Limit> getModels() {
+            return models;
+        }
+        
+        public void setModels(Map<String, Limit> models) {
+            this.models = models;
+        }
+        
+        /**
+         * Concurrent upstream calls allowed and how long to wait for a free slot
+         */
+        public static class Limit {
+            private int maxInFlight;
+            private Duration maxWait = Duration.ZERO;
+            
+            public Limit() {
+            }
+            
+            public Limit(int maxInFlight, Duration maxWait) {
+                this.maxInFlight = maxInFlight;
+                this.maxWait = maxWait;
+            }
+            
+            public int getMaxInFlight() {
+                return maxInFlight;
+            }
+            
+            public void setMaxInFlight(int maxInFlight) {
+                this.maxInFlight = maxInFlight;
+            }
+            
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+            
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+        }
+    }
+    
+    public static class Streaming {
+        private Mode mode = Mode.EMITTER;
+        private Duration timeout = Duration.ofSeconds(60);
+        private Resume resume = new Resume();
+        
+        public Mode getMode() {
+            return mode;
+        }
+        
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+        
+        /**
+         * Longest a streamed response may take from start to [DONE], in either mode
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+        
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+        
+        public Resume getResume() {
+            return resume;
+        }
+        
+        public void setResume(Resume resume) {
+            this.resume = resume;
+        }
+        
+        /**
+         * Resumption of interrupted streams via Last-Event-ID
+         */
+        public static class Resume {
+            private boolean enabled = true;
+            private int bufferSize = 1024;
+            private Duration grace = Duration.ofSeconds(30);
+            private Duration ttl = Duration.ofSeconds(60);
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            /**
+             * Chunks kept per stream for replay, which is also how far generation may run ahead of the slowest client
+             */
+            public int getBufferSize() {
+                return bufferSize;
+            }
+            
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+            
+            public Duration getGrace() {
+                return grace;
+            }
+            
+            public void setGrace(Duration grace) {
+                this.grace = grace;
+            }
+            
+            public Duration getTtl() {
+                return ttl;
+            }
+            
+            public void setTtl(Duration ttl) {
+                this.ttl = ttl;
+            }
+        }
+        
+        /**
+         * How SSE responses are written to the client
+         */
+        public enum Mode {
+            /**
+             * SseEmitter fed by one virtual thread per stream
+             */
+            EMITTER,
+            
+            /**
+             * Flux of server-sent events written by Spring MVC's reactive return value support
+             */
+            REACTIVE
+        }
+    }
+    
+    /**
+     * Runtime reload of the aura.* configuration
+     */
+    public static class ConfigReload {
+        private boolean enabled = true;
+        private String file = "";
+        private Duration pollInterval = Duration.ofSeconds(10);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        /**
+         * YAML file overlaid on the application config and watched for changes; empty to disable watching
+         */
+        public String getFile() {
+            return file;
+        }
+        
+        public void setFile(String file) {
+            this.file = file;
+        }
+        
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+        
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+    
+    /**
+     * Two-level (in-process + Redis) cache for completion responses
+     */
+    public static class ResponseCache {
+        private boolean enabled = true;
+        private double maxTemperature = 0.0;
+        private long maxEntries = 10_000;
+        private Duration ttl = Duration.ofHours(1);
+        private double earlyExpirationBeta = 1.0;
+        private Redis redis = new Redis();
+        private OffHeap offHeap = new OffHeap();
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        /**
+         * Requests sampled above this temperature are never cached
+         */
+        public double getMaxTemperature() {
+            return maxTemperature;
+        }
+        
+        public void setMaxTemperature(double maxTemperature) {
+            this.maxTemperature = maxTemperature;
+        }
+        
+        /**
+         * Maximum entries held in each replica's in-process (L1) cache
+         */
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+        
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+        
+        /**
+         * XFetch beta: above 1 refreshes earlier, below 1 later, 0 disables early refresh
+         */
+        public double getEarlyExpirationBeta() {
+            return earlyExpirationBeta;
+        }
+        
+        public void setEarlyExpirationBeta(double earlyExpirationBeta) {
+            this.earlyExpirationBeta = earlyExpirationBeta;
+        }
+        
+        public Redis getRedis() {
+            return redis;
+        }
+        
+        public void setRedis(Redis redis) {
+            this.redis = redis;
+        }
+        
+        public OffHeap getOffHeap() {
+            return offHeap;
+        }
+        
+        public void setOffHeap(OffHeap offHeap) {
+            this.offHeap = offHeap;
+        }
+        
+        /**
+         * Shared L2 tier; uses the spring.data.redis connection settings
+         */
+        public static class Redis {
+            private boolean enabled = false;
+            private String keyPrefix = "aura:cache:";
+            private String invalidationChannel = "aura:cache:invalidate";
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            public String getKeyPrefix() {
+                return keyPrefix;
+            }
+            
+            public void setKeyPrefix(String keyPrefix) {
+                this.keyPrefix = keyPrefix;
+            }
+            
+            public String getInvalidationChannel() {
+                return invalidationChannel;
+            }
+            
+            public void setInvalidationChannel(String invalidationChannel) {
+                this.invalidationChannel = invalidationChannel;
+            }
+        }
+        
+        /**
+         * Keep the L1 entries encoded in off-heap slabs instead of as heap objects
+         */
+        public static class OffHeap {
+            private boolean enabled = false;
+            private DataSize maxSize = DataSize.ofMegabytes(512);
+            private DataSize slabSize = DataSize.ofMegabytes(1);
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            /**
+             * Native memory reserved for slabs, per cache
+             */
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+            
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+            
+            public DataSize getSlabSize() {
+                return slabSize;
+            }
+            
+            public void setSlabSize(DataSize slabSize) {
+                this.slabSize = slabSize;
+            }
+        }
+    }
+    
+    /**
+     * Periodic on-disk snapshot of caches and routing statistics for warm restarts
+     */
+    public static class Snapshot {
+        private boolean enabled = false;
+        private String file = "data/aura-snapshot.seg";
+        private Duration interval = Duration.ofMinutes(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getFile() {
+            return file;
+        }
+        
+        public void setFile(String file) {
+            this.file = file;
+        }
+        
+        /**
+         * Time between snapshots; a final one is also written on shutdown
+         */
+        public Duration getInterval() {
+            return interval;
+        }
+        
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+    
+    /**
+     * OpenAI-compatible embeddings served by the local ONNX model, or upstream
+     */
+    public static class Embeddings {
+        private boolean enabled = true;
+        private String localModel = "all-MiniLM-L6-v2";
+        private String modelPath;
+        private int dimensions = 384;
+        private String upstreamModel = "text-embedding-3-small";
+        private List<String> upstreamModels = new ArrayList<>(List.of(
+            "text-embedding-3-small", "text-embedding-3-large", "text-embedding-ada-002"));
+        private int maxDimensions = 3072;
+        private int maxInputs = 2048;
+        private int maxBatchSize = 32;
+        private Duration maxBatchDelay = Duration.ofMillis(5);
+        private ResponseCache cache = new ResponseCache();
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        /**
+         * Model name clients use to ask for the local model
+         */
+        public String getLocalModel() {
+            return localModel;
+        }
+        
+        public void setLocalModel(String localModel) {
+            this.localModel = localModel;
+        }
+        
+        /**
+         * ONNX model with its tokenizer.json alongside; defaults to the classifier's model
+         */
+        public String getModelPath() {
+            return modelPath;
+        }
+        
+        public void setModelPath(String modelPath) {
+            this.modelPath = modelPath;
+        }
+        
+        /**
+         * Output size of the local model; other sizes are served upstream
+         */
+        public int getDimensions() {
+            return dimensions;
+        }
+        
+        public void setDimensions(int dimensions) {
+            this.dimensions = dimensions;
+        }
+        
+        /**
+         * OpenAI model used when the local model cannot serve a request
+         */
+        public String getUpstreamModel() {
+            return upstreamModel;
+        }
+        
+        public void setUpstreamModel(String upstreamModel) {
+            this.upstreamModel = upstreamModel;
+        }
+        
+        /**
+         * OpenAI models clients may ask for by name; any other name is rejected
+         */
+        public List<String> getUpstreamModels() {
+            return upstreamModels;
+        }
+        
+        public void setUpstreamModels(List<String> upstreamModels) {
+            this.upstreamModels = upstreamModels;
+        }
+        
+        /**
+         * Largest output size a request may ask for
+         */
+        public int getMaxDimensions() {
+            return maxDimensions;
+        }
+        
+        public void setMaxDimensions(int maxDimensions) {
+            this.maxDimensions = maxDimensions;
+        }
+        
+        public int getMaxInputs() {
+            return maxInputs;
+        }
+        
+        public void setMaxInputs(int maxInputs) {
+            this.maxInputs = maxInputs;
+        }
+        
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+        
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+        
+        /**
+         * How long the first queued input waits for others to share its batch
+         */
+        public Duration getMaxBatchDelay() {
+            return maxBatchDelay;
+        }
+        
+        public void setMaxBatchDelay(Duration maxBatchDelay) {
+            this.maxBatchDelay = maxBatchDelay;
+        }
+        
+        /**
+         * Cache for vectors keyed by model, size and content hash (max-temperature does not apply)
+         */
+        public ResponseCache getCache() {
+            return cache;
+        }
+        
+        public void setCache(ResponseCache cache) {
+            this.cache = cache;
+        }
+    }
+    
+    /**
+     * Fitting conversations into each model's context window before dispatch
+     */
+    public static class ContextWindow {
+        private boolean enabled = true;
+        private Policy policy = Policy.TRUNCATE;
+        private int defaultWindow = 8192;
+        private Map<String, Integer> windows = new LinkedHashMap<>();
+        private int reserveTokens = 1024;
+        private int keepLastMessages = 2;
+        private int summaryBlock = 8;
+        private int summaryMaxTokens = 512;
+        private String overflowModel;
+        private long summaryCacheSize = 10_000;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public Policy getPolicy() {
+            return policy;
+        }
+        
+        public void setPolicy(Policy policy) {
+            this.policy = policy;
+        }
+        
+        /**
+         * Window in tokens for models not matched by {@link #getWindows()}
+         */
+        public int getDefaultWindow() {
+            return defaultWindow;
+        }
+        
+        public void setDefaultWindow(int defaultWindow) {
+            this.defaultWindow = defaultWindow;
+        }
+        
+        /**
+         * Window in tokens by model name prefix; the longest matching prefix wins
+         */
+        public Map<String, Integer> getWindows() {
+            return windows;
+        }
+        
+        public void setWindows(Map<String, Integer> windows) {
+            this.windows = windows;
+        }
+        
+        /**
+         * Tokens kept free for the completion when the request sets no max_tokens
+         */
+        public int getReserveTokens() {
+            return reserveTokens;
+        }
+        
+        public void setReserveTokens(int reserveTokens) {
+            this.reserveTokens = reserveTokens;
+        }
+        
+        /**
+         * Latest messages that are never dropped; a model that cannot hold them is skipped
+         */
+        public int getKeepLastMessages() {
+            return keepLastMessages;
+        }
+        
+        public void setKeepLastMessages(int keepLastMessages) {
+            this.keepLastMessages = keepLastMessages;
+        }
+        
+        /**
+         * Summarised turns are dropped in multiples of this many messages so later turns reuse the summary
+         */
+        public int getSummaryBlock() {
+            return summaryBlock;
+        }
+        
+        public void setSummaryBlock(int summaryBlock) {
+            this.summaryBlock = summaryBlock;
+        }
+        
+        public int getSummaryMaxTokens() {
+            return summaryMaxTokens;
+        }
+        
+        public void setSummaryMaxTokens(int summaryMaxTokens) {
+            this.summaryMaxTokens = summaryMaxTokens;
+        }
+        
+        /**
+         * Large-window model tried when no model in the chain can hold the request
+         */
+        public String getOverflowModel() {
+            return overflowModel;
+        }
+        
+        public void setOverflowModel(String overflowModel) {
+            this.overflowModel = overflowModel;
+        }
+        
+        public long getSummaryCacheSize() {
+            return summaryCacheSize;
+        }
+        
+        public void setSummaryCacheSize(long summaryCacheSize) {
+            this.summaryCacheSize = summaryCacheSize;
+        }
+        
+        /**
+         * What to do with turns that do not fit
+         */
+        public enum Policy {
+            /**
+             * Drop the oldest turns, keeping system messages and the latest turns
+             */
+            TRUNCATE,
+            
+            /**
+             * Replace the oldest turns with a summary written by an ECO model
+             */
+            SUMMARIZE
+        }
+    }
+    
+    /**
+     * End-to-end request deadlines
+     *
+     * A client sets its own budget with the X-Aura-Timeout-Ms header
+     * (capped at max); otherwise the classified tier's default applies.
+     * Tiers without a default, and requests without either, have no
+     * deadline.
+     */
+    public static class Deadline {
+        private Map<RoutingTier, Duration> tiers = new EnumMap<>(RoutingTier.class);
+        private Duration max = Duration.ofMinutes(5);
+        
+        public Map<RoutingTier, Duration> getTiers() {
+            return tiers;
+        }
+        
+        public void setTiers(Map<RoutingTier, Duration> tiers) {
+            this.tiers = tiers;
+        }
+        
+        public Duration getMax() {
+            return max;
+        }
+        
+        public void setMax(Duration max) {
+            this.max = max;
+        }
+    }
+    
+    /**
+     * Gateway-owned retries of failed upstream calls
+     *
+     * Transient failures (timeouts, 408, 429, 5xx) are retried on the same
+     * model with exponential backoff and full jitter, never sooner than a
+     * Retry-After the provider sent; other failures move on to the next
+     * model. Every call beyond a request's first, retry or fallback, spends
+     * a token from a bucket that earns budget-ratio tokens per request, so
+     * retries stay a bounded share of live traffic when an upstream is down.
+     */
+    public static class Retry {
+        private double budgetRatio = 0.2;
+        private int budgetCapacity = 20;
+        private int maxAttemptsPerModel = 2;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        
+        /**
+         * Retry tokens earned per request, i.e. extra upstream calls allowed per call at steady state
+         */
+        public double getBudgetRatio() {
+            return budgetRatio;
+}
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+        
+        /**
+         * Most tokens the bucket holds, which bounds a burst of retries after a quiet period
+         */
+        public int getBudgetCapacity() {
+            return budgetCapacity;
+        }
+        
+        public void setBudgetCapacity(int budgetCapacity) {
+            this.budgetCapacity = budgetCapacity;
+        }
+        
+        /**
+         * Calls to one model, including the first, before failing over to the next
+         */
+        public int getMaxAttemptsPerModel() {
+            return maxAttemptsPerModel;
+        }
+        
+        public void setMaxAttemptsPerModel(int maxAttemptsPerModel) {
+            this.maxAttemptsPerModel = maxAttemptsPerModel;
+        }
+        
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+        
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+        
+        /**
+         * Longest wait before retrying the same model; a longer Retry-After fails over instead
+         */
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+        
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
 }
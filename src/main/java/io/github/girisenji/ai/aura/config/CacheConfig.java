@@ -1,23 +1,48 @@
 package io.github.girisenji.ai.aura.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.service.cache.RemoteCacheTier;
+import io.github.girisenji.ai.aura.service.cache.ResponseCodec;
+import io.github.girisenji.ai.aura.service.cache.TwoLevelCache;
+import io.github.girisenji.ai.aura.service.cache.VectorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Cache configuration
- * 
- * By default, uses Caffeine (in-memory cache) which is perfect for:
- * - Single instance deployments
- * - Development and testing
- * - Low operational overhead
- * 
- * For distributed deployments with multiple instances, switch to Redis
- * by setting spring.cache.type=redis in application.yml
+ *
+ * Spring's cache abstraction uses Caffeine (in-memory) and backs the
+ * smaller caches such as rate limits.
+ *
+ * Completions are cached in a {@link TwoLevelCache}: Caffeine in each
+ * replica, optionally in front of Redis shared by every replica
+ * (aura.response-cache.redis.enabled=true), with entries stored in a
+ * compact binary form and L1 copies invalidated over pub/sub. Embedding
+ * vectors use a second cache of the same kind with its own settings.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
     
-    // Caffeine cache is auto-configured by Spring Boot
-    // Custom cache configurations can be added here if needed
+    @Bean
+    public TwoLevelCache<AuraResponse> completionCache(
+            AuraProperties properties,
+            ObjectProvider<RemoteCacheTier> remoteTier,
+            MeterRegistry meterRegistry) {
+        return new TwoLevelCache<>("completions", properties.getResponseCache(), new ResponseCodec(),
+            remoteTier.getIfAvailable(), meterRegistry);
+    }
+    
+    @Bean
+    public TwoLevelCache<float[]> embeddingCache(
+            AuraProperties properties,
+            ObjectProvider<RemoteCacheTier> remoteTier,
+            MeterRegistry meterRegistry) {
+        return new TwoLevelCache<>("embeddings", properties.getEmbeddings().getCache(), new VectorCodec(),
+            remoteTier.getIfAvailable(), meterRegistry);
+    }
 }
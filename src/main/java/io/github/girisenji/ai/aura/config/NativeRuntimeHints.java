@@ -0,0 +1,33 @@
+package io.github.girisenji.ai.aura.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.BatchStatus;
+import io.github.girisenji.ai.aura.model.ErrorResponse;
+
+/**
+ * Reflection hints for a GraalVM native image
+ *
+ * Spring AOT already covers controller signatures and the AuraProperties
+ * bean, but the model records are also (de)serialized outside of MVC by
+ * the batch and streaming paths, and AuraConfigReloader binds a fresh
+ * AuraProperties at runtime. langchain4j and springdoc ship their own
+ * native-image metadata.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Jackson binding for the records and everything reachable from them
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            AuraRequest.class, AuraResponse.class, BatchStatus.class, ErrorResponse.class);
+
+        // JavaBean binding for every nested AuraProperties section
+        BindableRuntimeHintsRegistrar.forTypes(AuraProperties.class).registerHints(hints, classLoader);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.girisenji.ai.aura.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.github.girisenji.ai.aura.model.BatchStatus;
+import io.github.girisenji.ai.aura.model.ErrorResponse;
+import io.github.girisenji.ai.aura.service.batch.BatchJob;
+import io.github.girisenji.ai.aura.service.batch.BatchService;
+import io.github.girisenji.ai.aura.service.routing.TenantResolver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Batch completions endpoint for offline and bulk workloads
+ */
+@RestController
+@RequestMapping("/v1")
+@Tag(name = "Batches", description = "Bulk chat completions from a JSONL file")
+public class BatchController {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchController.class);
+    
+    private static final String JSONL = "application/jsonl";
+    private static final String NDJSON = "application/x-ndjson";
+    
+    private final BatchService batchService;
+    private final TenantResolver tenantResolver;
+    
+    public BatchController(BatchService batchService, TenantResolver tenantResolver) {
+        this.batchService = batchService;
+        this.tenantResolver = tenantResolver;
+    }
+    
+    /**
+     * POST /v1/batches
+     * Body is JSONL: one chat completion request (or OpenAI batch line) per line
+     */
+    @Operation(
+        summary = "Create batch",
+        description = "Submits a JSONL file of chat completion requests for bulk processing"
+    )
+    @PostMapping(value = "/batches", consumes = {JSONL, NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> createBatch(
+            InputStream body,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try {
+            BatchJob job = batchService.submit(body, tenantResolver.resolve(authorization));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toStatus());
+        } catch (IOException e) {
+            log.error("Failed to accept batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ErrorResponse.providerError("Failed to store batch input"));
+        }
+    }
+    
+    /**
+     * GET /v1/batches/{id}
+     * Poll batch progress
+     */
+    @Operation(summary = "Retrieve batch", description = "Returns the status and request counts of a batch")
+    @GetMapping("/batches/{id}")
+    public ResponseEntity<BatchStatus> getBatch(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return findOwned(id, authorization)
+            .map(job -> ResponseEntity.ok(job.toStatus()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * POST /v1/batches/{id}/cancel
+     */
+    @Operation(summary = "Cancel batch", description = "Stops dispatching the remaining requests of a batch")
+    @PostMapping("/batches/{id}/cancel")
+    public ResponseEntity<BatchStatus> cancelBatch(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return findOwned(id, authorization)
+            .flatMap(job -> batchService.cancel(job.getId()))
+            .map(job -> ResponseEntity.ok(job.toStatus()))
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * GET /v1/batches/{id}/output
+     * Streams the JSONL results written so far (complete once the batch has finished)
+     */
+    @Operation(summary = "Download batch output", description = "Streams the JSONL results of a batch")
+    @GetMapping(value = "/batches/{id}/output", produces = JSONL)
+    public ResponseEntity<StreamingResponseBody> getOutput(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return findOwned(id, authorization)
+            .map(job -> {
+                StreamingResponseBody body = out -> Files.copy(job.getOutputFile(), out);
+                return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(JSONL))
+                    .body(body);
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * The batch, if it belongs to the caller's tenant; other tenants' batches
+     * are reported as missing so their ids cannot be probed
+     */
+    private Optional<BatchJob> findOwned(String id, String authorization) {
+        String tenant = tenantResolver.resolve(authorization).tenant();
+        return batchService.find(id)
+            .filter(job -> Objects.equals(job.getContext().tenant(), tenant));
+    }
+}
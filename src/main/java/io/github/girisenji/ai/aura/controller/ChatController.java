@@ -5,25 +5,37 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
 import io.github.girisenji.ai.aura.model.ErrorResponse;
+import io.github.girisenji.ai.aura.model.RequestContext;
 import io.github.girisenji.ai.aura.service.ChatService;
+import io.github.girisenji.ai.aura.service.routing.BulkheadFullException;
+import io.github.girisenji.ai.aura.service.routing.DeadlineExceededException;
+import io.github.girisenji.ai.aura.service.routing.RetryBudgetExhaustedException;
+import io.github.girisenji.ai.aura.service.routing.TenantResolver;
+import io.github.girisenji.ai.aura.service.scheduling.SchedulerRejectedException;
+import io.github.girisenji.ai.aura.service.streaming.StreamEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
 
 /**
  * OpenAI-compatible chat completion endpoint
@@ -36,10 +48,16 @@ public class ChatController {
     
     private static final Logger log = LoggerFactory.getLogger(ChatController.class);
     
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    
     private final ChatService chatService;
+    private final TenantResolver tenantResolver;
+    private final AuraProperties properties;
     
-    public ChatController(ChatService chatService) {
+    public ChatController(ChatService chatService, TenantResolver tenantResolver, AuraProperties properties) {
         this.chatService = chatService;
+        this.tenantResolver = tenantResolver;
+        this.properties = properties;
     }
     
     /**
@@ -51,22 +69,45 @@ public class ChatController {
         description = "Creates a completion for the chat message. Supports streaming and non-streaming responses."
     )
     @PostMapping("/chat/completions")
-    public ResponseEntity<?> chatCompletions(@Valid @RequestBody AuraRequest request) {
+    public ResponseEntity<?> chatCompletions(
+            @Valid @RequestBody AuraRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestHeader(value = TenantResolver.PRIORITY_HEADER, required = false) String priority,
+            @RequestHeader(value = TenantResolver.TIMEOUT_HEADER, required = false) String timeout,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
         log.info("Received chat completion request - model: {}, stream: {}, messages: {}", 
             request.model(), request.stream(), request.messages().size());
         
         try {
+            RequestContext context = tenantResolver.resolve(authorization, priority, timeout);
+            
             if (request.stream()) {
-                // Return SSE emitter for streaming
-                SseEmitter emitter = chatService.streamChatCompletion(request);
-                return ResponseEntity.ok()
-                    .contentType(MediaType.TEXT_EVENT_STREAM)
-                    .body(emitter);
+                // A reconnecting client resumes its interrupted generation instead of starting a new one
+                Flux<StreamEvent> events = chatService.resumeStream(lastEventId, context)
+                    .orElseGet(() -> chatService.startStream(request, context));
+                return streamResponse(events);
             } else {
                 // Return complete response
-                AuraResponse response = chatService.chatCompletion(request);
+                AuraResponse response = chatService.chatCompletion(request, context);
                 return ResponseEntity.ok(response);
             }
+        } catch (SchedulerRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ErrorResponse.overloaded(e.getMessage()));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.overloaded(e.getMessage()));
+        } catch (RetryBudgetExhaustedException e) {
+            // Upstreams are failing widely; shed the request rather than add to their load
+            log.warn("Request shed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.overloaded(e.getMessage()));
+        } catch (DeadlineExceededException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(ErrorResponse.deadlineExceeded(e.getMessage()));
         } catch (IllegalArgumentException e) {
             log.error("Invalid request: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -78,6 +119,44 @@ public class ChatController {
         }
     }
     
+    /**
+     * GET /v1/streams/{streamId}
+     * Reattach to a streamed completion (EventSource reconnects send Last-Event-ID)
+     */
+    @Operation(
+        summary = "Resume stream",
+        description = "Replays the chunks after Last-Event-ID and continues with the live tail of the generation"
+    )
+    @GetMapping("/streams/{streamId}")
+    public ResponseEntity<?> resumeStream(
+            @PathVariable String streamId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        RequestContext context = tenantResolver.resolve(authorization);
+        String position = lastEventId != null && lastEventId.startsWith(streamId + ":") ? lastEventId : streamId;
+        return chatService.resumeStream(position, context)
+            .<ResponseEntity<?>>map(this::streamResponse)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.invalidRequest("Stream " + streamId + " is no longer resumable")));
+    }
+    
+    /**
+     * Write stream events in the configured streaming mode
+     */
+    private ResponseEntity<?> streamResponse(Flux<StreamEvent> events) {
+        if (properties.getStreaming().getMode() == AuraProperties.Streaming.Mode.REACTIVE) {
+            // Return a Flux of events; MVC writes them with backpressure
+            return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(chatService.toServerSentEvents(events));
+        }
+        // Return SSE emitter for streaming
+        SseEmitter emitter = chatService.toEmitter(events);
+        return ResponseEntity.ok()
+            .contentType(MediaType.TEXT_EVENT_STREAM)
+            .body(emitter);
+    }
+    
     /**
      * GET /v1/models
      * List available models (OpenAI compatibility)
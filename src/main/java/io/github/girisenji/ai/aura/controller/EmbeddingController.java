@@ -0,0 +1,63 @@
+package io.github.girisenji.ai.aura.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.github.girisenji.ai.aura.model.EmbeddingRequest;
+import io.github.girisenji.ai.aura.model.ErrorResponse;
+import io.github.girisenji.ai.aura.service.embedding.EmbeddingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * OpenAI-compatible embeddings endpoint
+ */
+@RestController
+@RequestMapping("/v1")
+@Validated
+@Tag(name = "Embeddings", description = "OpenAI-compatible embeddings API")
+public class EmbeddingController {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingController.class);
+    
+    private final EmbeddingService embeddingService;
+    
+    public EmbeddingController(EmbeddingService embeddingService) {
+        this.embeddingService = embeddingService;
+    }
+    
+    /**
+     * POST /v1/embeddings
+     * Input may be a single string or an array of strings
+     */
+    @Operation(
+        summary = "Create embeddings",
+        description = "Embeds the input with the local model, or upstream for other models and sizes"
+    )
+    @PostMapping("/embeddings")
+    public ResponseEntity<?> embeddings(@Valid @RequestBody EmbeddingRequest request) {
+        try {
+            return ResponseEntity.ok(embeddingService.embed(request));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ErrorResponse.invalidRequest(e.getMessage()));
+        } catch (IllegalStateException e) {
+            log.warn("Embeddings unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ErrorResponse.providerError(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error processing embeddings request", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ErrorResponse.providerError("An error occurred processing your request"));
+        }
+    }
+}
@@ -70,20 +70,31 @@ public record AuraRequest(
      * Extract the full conversation text for classification
      */
     public String getConversationText() {
-        return messages.stream()
-            .map(Message::content)
-            .reduce("", (a, b) -> a + " " + b)
-            .trim();
+        // One presized copy; joining pairwise would copy the whole prefix per message
+        int length = messages.size();
+        for (Message message : messages) {
+            length += message.content() != null ? message.content().length() : 4;
+        }
+        StringBuilder text = new StringBuilder(length);
+        for (Message message : messages) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(message.content());
+        }
+        return text.toString().trim();
     }
     
     /**
      * Get the last user message
      */
     public String getLastUserMessage() {
-        return messages.stream()
-            .filter(m -> "user".equals(m.role()))
-            .reduce((first, second) -> second)
-            .map(Message::content)
-            .orElse("");
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            if (message.roleType() == Role.USER) {
+                return message.content();
+            }
+        }
+        return "";
     }
 }
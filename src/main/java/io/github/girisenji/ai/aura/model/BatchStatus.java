@@ -0,0 +1,40 @@
+package io.github.girisenji.ai.aura.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * OpenAI-compatible batch object
+ */
+public record BatchStatus(
+    @JsonProperty("id")
+    String id,
+    
+    @JsonProperty("object")
+    String object,
+    
+    @JsonProperty("endpoint")
+    String endpoint,
+    
+    @JsonProperty("status")
+    String status,
+    
+    @JsonProperty("created_at")
+    long createdAt,
+    
+    @JsonProperty("completed_at")
+    Long completedAt,
+    
+    @JsonProperty("request_counts")
+    RequestCounts requestCounts
+) {
+    public record RequestCounts(
+        @JsonProperty("total")
+        int total,
+        
+        @JsonProperty("completed")
+        int completed,
+        
+        @JsonProperty("failed")
+        int failed
+    ) {}
+}
@@ -0,0 +1,33 @@
+package io.github.girisenji.ai.aura.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotEmpty;
+
+/**
+ * OpenAI-compatible embeddings request
+ */
+public record EmbeddingRequest(
+    @JsonProperty("model")
+    String model,
+    
+    // A single string or an array of strings
+    @NotEmpty
+    @JsonProperty("input")
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    List<String> input,
+    
+    @JsonProperty("encoding_format")
+    String encodingFormat,
+    
+    @JsonProperty("dimensions")
+    Integer dimensions,
+    
+    @JsonProperty("user")
+    String user
+) {
+    public static final String BASE64 = "base64";
+}
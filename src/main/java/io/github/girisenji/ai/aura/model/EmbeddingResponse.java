@@ -0,0 +1,53 @@
+package io.github.girisenji.ai.aura.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * OpenAI-compatible embeddings response
+ */
+public record EmbeddingResponse(
+    @JsonProperty("object")
+    String object,
+    
+    @JsonProperty("data")
+    List<Embedding> data,
+    
+    @JsonProperty("model")
+    String model,
+    
+    @JsonProperty("usage")
+    Usage usage
+) {
+    public static EmbeddingResponse of(String model, List<Embedding> data, int promptTokens) {
+        return new EmbeddingResponse("list", data, model, new Usage(promptTokens, promptTokens));
+    }
+    
+    /**
+     * One vector, as a float array or a base64 string of little-endian float32 values
+     */
+    public record Embedding(
+        @JsonProperty("object")
+        String object,
+        
+        @JsonProperty("index")
+        int index,
+        
+        @JsonProperty("embedding")
+        Object embedding
+    ) {
+        public Embedding(int index, Object embedding) {
+            this("embedding", index, embedding);
+        }
+    }
+    
+    public record Usage(
+        @JsonProperty("prompt_tokens")
+        int promptTokens,
+        
+        @JsonProperty("total_tokens")
+        int totalTokens
+    ) {
+    }
+}
@@ -35,4 +35,12 @@ public record ErrorResponse(
     public static ErrorResponse providerError(String message) {
         return create(message, "api_error", "provider_error");
     }
+    
+    public static ErrorResponse overloaded(String message) {
+        return create(message, "server_error", "overloaded");
+    }
+    
+    public static ErrorResponse deadlineExceeded(String message) {
+        return create(message, "timeout_error", "deadline_exceeded");
+    }
 }
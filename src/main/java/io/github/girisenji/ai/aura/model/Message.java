@@ -21,8 +21,15 @@ public record Message(
 ) {
     public Message {
         // Compact constructor for validation
-        if (role != null && !role.matches("system|user|assistant|function")) {
+        if (role != null && Role.fromValue(role) == null) {
             throw new IllegalArgumentException("Invalid role: " + role);
         }
     }
+    
+    /**
+     * The role as an enum, or null if the role is missing
+     */
+    public Role roleType() {
+        return Role.fromValue(role);
+    }
 }
@@ -0,0 +1,21 @@
+package io.github.girisenji.ai.aura.model;
+
+/**
+ * Scheduling class of a request, from most to least latency-sensitive
+ */
+public enum PriorityClass {
+    /**
+     * Chat UIs and other user-facing traffic
+     */
+    INTERACTIVE,
+    
+    /**
+     * Default for API callers without a configured class
+     */
+    STANDARD,
+    
+    /**
+     * Batch jobs, evals and other offline work
+     */
+    BULK
+}
@@ -0,0 +1,65 @@
+package io.github.girisenji.ai.aura.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Per-request gateway context resolved from headers and API key
+ *
+ * @param deadline instant by which the request must be answered, or null for none
+ */
+public record RequestContext(
+    String tenant,
+    PriorityClass priority,
+    Instant deadline
+) {
+    public static final String ANONYMOUS_TENANT = "anonymous";
+    
+    public RequestContext {
+        if (tenant == null || tenant.isBlank()) {
+            tenant = ANONYMOUS_TENANT;
+        }
+        if (priority == null) {
+            priority = PriorityClass.STANDARD;
+        }
+    }
+    
+    public RequestContext(String tenant, PriorityClass priority) {
+        this(tenant, priority, null);
+    }
+    
+    public RequestContext(String tenant) {
+        this(tenant, PriorityClass.STANDARD);
+    }
+    
+    /**
+     * Context for callers without a configured API key
+     */
+    public static RequestContext anonymous() {
+        return new RequestContext(ANONYMOUS_TENANT);
+    }
+    
+    public RequestContext withPriority(PriorityClass priority) {
+        return new RequestContext(tenant, priority, deadline);
+    }
+    
+    public RequestContext withDeadline(Instant deadline) {
+        return new RequestContext(tenant, priority, deadline);
+    }
+    
+    /**
+     * Time left until the deadline, zero once it has passed; empty without a deadline
+     */
+    public Optional<Duration> remaining() {
+        if (deadline == null) {
+            return Optional.empty();
+        }
+        Duration left = Duration.between(Instant.now(), deadline);
+        return Optional.of(left.isNegative() ? Duration.ZERO : left);
+    }
+    
+    public boolean isExpired() {
+        return deadline != null && !Instant.now().isBefore(deadline);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.girisenji.ai.aura.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Author of a chat message, with its OpenAI wire name
+ */
+public enum Role {
+    SYSTEM("system"),
+    USER("user"),
+    ASSISTANT("assistant"),
+    FUNCTION("function");
+    
+    private static final Map<String, Role> BY_VALUE = new HashMap<>();
+    
+    static {
+        for (Role role : values()) {
+            BY_VALUE.put(role.value, role);
+        }
+    }
+    
+    private final String value;
+    
+    Role(String value) {
+        this.value = value;
+    }
+    
+    public String value() {
+        return value;
+    }
+    
+    /**
+     * Look up a role by its wire name (case-sensitive), or null if unknown
+     */
+    public static Role fromValue(String value) {
+        return BY_VALUE.get(value);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.girisenji.ai.aura.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -13,9 +14,42 @@ public record Usage(
     int completionTokens,
     
     @JsonProperty("total_tokens")
-    int totalTokens
+    int totalTokens,
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("prompt_tokens_details")
+    PromptTokensDetails promptTokensDetails
 ) {
+    public Usage(int promptTokens, int completionTokens, int totalTokens) {
+        this(promptTokens, completionTokens, totalTokens, null);
+    }
+    
     public Usage(int promptTokens, int completionTokens) {
         this(promptTokens, completionTokens, promptTokens + completionTokens);
     }
+    
+    /**
+     * Prompt tokens served from the provider's prompt cache
+     */
+    public int cachedPromptTokens() {
+        return promptTokensDetails != null ? promptTokensDetails.cachedTokens() : 0;
+    }
+    
+    /**
+     * Prompt tokens billed at the full input rate
+     */
+    public int uncachedPromptTokens() {
+        return promptTokens - cachedPromptTokens();
+    }
+    
+    /**
+     * Breakdown of prompt tokens by provider cache status (OpenAI-compatible)
+     */
+    public record PromptTokensDetails(
+        @JsonProperty("cached_tokens")
+        int cachedTokens,
+        
+        @JsonProperty("cache_creation_tokens")
+        int cacheCreationTokens
+    ) {}
 }
@@ -1,62 +1,133 @@
 package io.github.girisenji.ai.aura.service;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
 import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.RoutingTier;
-import jakarta.annotation.PostConstruct;
+import io.github.girisenji.ai.aura.service.cache.ContentHash;
+import io.github.girisenji.ai.aura.service.embedding.LocalEmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NativeDetector;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
- * DJL-based prompt classifier for intelligent routing
- * 
- * This service loads an ONNX model and classifies prompts into routing tiers
- * based on complexity, intent, and other factors.
+ * Two-stage prompt classifier for intelligent routing
+ *
+ * The first stage is a heuristic over length and a keyword automaton that
+ * returns a tier with a confidence; when the confidence reaches the
+ * configured threshold for that tier the answer is used as is, which is
+ * the case for most requests and costs microseconds. Uncertain prompts
+ * are looked up by hash among earlier model answers and only then sent to
+ * the MiniLM model, which picks the tier whose example prompts are
+ * closest in embedding space. Until the model is loaded, or when it is
+ * missing, the heuristic answer is used.
  */
 @Service
 public class AuraClassifier {
     
     private static final Logger log = LoggerFactory.getLogger(AuraClassifier.class);
     
-    private final AuraProperties properties;
+    private static final int PREMIUM_KEYWORD = 0;
+    private static final int DETAIL_KEYWORD = 1;
+    private static final KeywordAutomaton KEYWORDS = new KeywordAutomaton(Map.of(
+        "code", PREMIUM_KEYWORD,
+        "implement", PREMIUM_KEYWORD,
+        "complex", PREMIUM_KEYWORD,
+        "analyze", PREMIUM_KEYWORD,
+        "refactor", PREMIUM_KEYWORD,
+        "explain", DETAIL_KEYWORD,
+        "how", DETAIL_KEYWORD), 2);
+    
+    private static final Set<String> SMALL_TALK = Set.of(
+        "hi", "hello", "hey", "thanks", "thank you", "ok", "okay", "yes", "no", "bye", "good morning");
+    
+    /** Model input is truncated well beyond what MiniLM attends to anyway */
+    private static final int MAX_MODEL_INPUT = 2_000;
+    
+    /** Example prompts whose mean embedding represents each tier */
+    private static final Map<RoutingTier, List<String>> EXAMPLES = Map.of(
+        RoutingTier.ECO, List.of(
+            "What is the capital of France?",
+            "Translate 'good night' into Spanish",
+            "Give me a synonym for happy",
+            "What time zone is Tokyo in?"),
+        RoutingTier.BALANCED, List.of(
+            "Summarize the main causes of the First World War",
+            "Write a friendly email asking my landlord to fix the heating",
+            "What are the differences between TCP and UDP?",
+            "Suggest a weekly meal plan for a vegetarian"),
+        RoutingTier.PREMIUM, List.of(
+            "Design a distributed rate limiter and discuss its failure modes",
+            "Prove that the square root of two is irrational",
+            "Find the race condition in this multithreaded Java code",
+            "Compare three database indexing strategies for a write-heavy workload"));
     
-    public AuraClassifier(AuraProperties properties) {
-        this.properties = properties;
+    /**
+     * First-stage answer with how sure the heuristic is, between 0 and 1
+     */
+    record Estimate(RoutingTier tier, double confidence) {
     }
     
-    // TODO: Add DJL Model and Predictor fields
-    // private Model model;
-    // private Predictor<String, float[]> predictor;
+    private final AuraConfigHolder config;
+    private final LocalEmbeddingModel embeddingModel;
+    private final Cache<Long, RoutingTier> modelAnswers;
+    private final Map<String, Counter> stageCounters;
+    
+    private volatile Map<RoutingTier, float[]> centroids;
+    
+    public AuraClassifier(AuraConfigHolder config, LocalEmbeddingModel embeddingModel, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.embeddingModel = embeddingModel;
+        this.modelAnswers = Caffeine.newBuilder()
+            .maximumSize(config.properties().getClassifier().getCacheSize())
+            .build();
+        // Thresholds are read per request; the cache is resized in place on reload
+        config.subscribe(snapshot -> modelAnswers.policy().eviction().ifPresent(eviction ->
+            eviction.setMaximum(snapshot.properties().getClassifier().getCacheSize())));
+        this.stageCounters = Map.of(
+            "heuristic", stageCounter(meterRegistry, "heuristic"),
+            "cache", stageCounter(meterRegistry, "cache"),
+            "model", stageCounter(meterRegistry, "model"),
+            "unavailable", stageCounter(meterRegistry, "unavailable"));
+    }
     
-    @PostConstruct
+    /**
+     * Load the classifier model. Called in the background by StartupWarmup
+     * rather than during context refresh; requests that arrive first are
+     * classified by the heuristic.
+     */
     public void initialize() {
         log.info("Initializing AuraClassifier");
         
-        String modelPath = properties.getClassifier().getModelPath();
-        log.info("Loading classifier model from: {}", modelPath);
+        if (NativeDetector.inNativeImage()) {
+            // ONNX Runtime's JNI libraries are not available in a native image
+            log.info("Running as a native image, using the heuristic classifier");
+            return;
+        }
         
-        // TODO: Load ONNX model using DJL
-        // This will be implemented once DJL dependencies are properly configured
-        /*
-        try {
-            Criteria<String, float[]> criteria = Criteria.builder()
-                .setTypes(String.class, float[].class)
-                .optModelPath(Paths.get(modelPath))
-                .optEngine("OnnxRuntime")
-                .build();
-            
-            ZooModel<String, float[]> model = criteria.loadModel();
-            predictor = model.newPredictor();
-            
-            log.info("Classifier model loaded successfully");
-        } catch (Exception e) {
-            log.error("Failed to load classifier model", e);
-            throw new RuntimeException("Failed to initialize classifier", e);
+        embeddingModel.initialize();
+        if (!embeddingModel.isAvailable()) {
+            log.info("AuraClassifier initialized without a model, uncertain prompts use the heuristic");
+            return;
         }
-        */
         
-        log.info("AuraClassifier initialized (using simple heuristic for now)");
+        Map<RoutingTier, float[]> tiers = new EnumMap<>(RoutingTier.class);
+        EXAMPLES.forEach((tier, examples) -> tiers.put(tier, centroid(embeddingModel.embed(examples))));
+        centroids = tiers;
+        log.info("AuraClassifier initialized with model {}", config.properties().getClassifier().getModelPath());
     }
     
     /**
@@ -65,62 +136,144 @@ public class AuraClassifier {
     public RoutingTier classify(AuraRequest request) {
         String prompt = request.getLastUserMessage();
         
-        // Simple heuristic classification (will be replaced with DJL model)
-        return classifyHeuristic(prompt);
+        Estimate estimate = classifyHeuristic(prompt);
+        if (estimate.confidence() >= threshold(estimate.tier())) {
+            stageCounters.get("heuristic").increment();
+            return estimate.tier();
+        }
+        
+        Map<RoutingTier, float[]> tiers = centroids;
+        if (tiers == null) {
+            stageCounters.get("unavailable").increment();
+            return estimate.tier();
+        }
+        
+        long hash = ContentHash.of(prompt);
+        RoutingTier cached = modelAnswers.getIfPresent(hash);
+        if (cached != null) {
+            stageCounters.get("cache").increment();
+            return cached;
+        }
+        
+        try {
+            RoutingTier tier = classifyModel(prompt, tiers);
+            modelAnswers.put(hash, tier);
+            stageCounters.get("model").increment();
+            log.debug("Classified as {} by the model (heuristic said {} at {})",
+                tier, estimate.tier(), estimate.confidence());
+            return tier;
+        } catch (RuntimeException e) {
+            log.warn("Classifier model failed, using the heuristic: {}", e.getMessage());
+            stageCounters.get("unavailable").increment();
+            return estimate.tier();
+        }
     }
     
     /**
-     * Simple heuristic-based classification
-     * This is a placeholder until the DJL model is properly integrated
+     * Heuristic tier with a confidence, from length and keywords only
      */
-    private RoutingTier classifyHeuristic(String prompt) {
+    Estimate classifyHeuristic(String prompt) {
         int length = prompt.length();
         
-        // Very simple rules:
-        // - Short prompts (< 100 chars) -> ECO
-        // - Contains "code", "implement", "complex", "analyze" -> PREMIUM
-        // - Medium length or moderate complexity -> BALANCED
+        // Long prompts are premium whatever they say, so only short ones are scanned
+        if (length > 500) {
+            return new Estimate(RoutingTier.PREMIUM, 0.9);
+        }
         
-        String lowerPrompt = prompt.toLowerCase();
+        int[] hits = KEYWORDS.count(prompt);
         
-        // Check for premium indicators
-        if (lowerPrompt.contains("code") || 
-            lowerPrompt.contains("implement") || 
-            lowerPrompt.contains("complex") ||
-            lowerPrompt.contains("analyze") ||
-            lowerPrompt.contains("refactor") ||
-            length > 500) {
-            log.debug("Classified as PREMIUM (complex task detected)");
-            return RoutingTier.PREMIUM;
+        // One premium keyword is a hint ("code" in "zip code"); several are a pattern
+        if (hits[PREMIUM_KEYWORD] > 0) {
+            return new Estimate(RoutingTier.PREMIUM, Math.min(0.95, 0.5 + 0.15 * hits[PREMIUM_KEYWORD]));
         }
         
-        // Check for eco tier
-        if (length < 100 && !lowerPrompt.contains("explain") && !lowerPrompt.contains("how")) {
-            log.debug("Classified as ECO (simple query)");
-            return RoutingTier.ECO;
+        // Shorter means surer, and greetings and acknowledgements are certain
+        if (length < 100 && hits[DETAIL_KEYWORD] == 0) {
+            double confidence = isSmallTalk(prompt) ? 1.0 : 1.0 - length / 200.0;
+            return new Estimate(RoutingTier.ECO, confidence);
         }
         
-        // Default to balanced
-        log.debug("Classified as BALANCED (moderate complexity)");
-        return RoutingTier.BALANCED;
+        // Asking for an explanation is what balanced models are for; otherwise it is a guess
+        return new Estimate(RoutingTier.BALANCED, hits[DETAIL_KEYWORD] > 0 ? 0.7 : 0.5);
     }
     
     /**
-     * Compute embeddings for a text (for future DJL implementation)
+     * Tier whose example centroid is most similar to the prompt
+     */
+    private RoutingTier classifyModel(String prompt, Map<RoutingTier, float[]> tiers) {
+        float[] embedding = computeEmbeddings(prompt.length() > MAX_MODEL_INPUT
+            ? prompt.substring(0, MAX_MODEL_INPUT)
+            : prompt);
+        RoutingTier best = RoutingTier.BALANCED;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<RoutingTier, float[]> tier : tiers.entrySet()) {
+            double score = dot(embedding, tier.getValue());
+            if (score > bestScore) {
+                bestScore = score;
+                best = tier.getKey();
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Compute a normalized sentence embedding for a text
      */
     private float[] computeEmbeddings(String text) {
-        // TODO: Implement using DJL
-        // return predictor.predict(text);
-        return new float[0];
+        return embeddingModel.embed(List.of(text)).get(0);
+    }
+    
+    private double threshold(RoutingTier tier) {
+        AuraProperties.Classifier.Threshold threshold = config.properties().getClassifier().getThreshold();
+        return switch (tier) {
+            case ECO -> threshold.getEco();
+            case BALANCED -> threshold.getBalanced();
+            case PREMIUM -> threshold.getPremium();
+        };
+    }
+    
+    private static boolean isSmallTalk(String prompt) {
+        if (prompt.length() > 20) {
+            return false;
+        }
+        String normalized = prompt.strip().toLowerCase(Locale.ROOT).replaceAll("[!.?,]+$", "");
+        return SMALL_TALK.contains(normalized);
+    }
+    
+    private static float[] centroid(List<float[]> embeddings) {
+        float[] sum = new float[embeddings.get(0).length];
+        for (float[] embedding : embeddings) {
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += embedding[i];
+            }
+        }
+        double norm = Math.sqrt(dot(sum, sum));
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] /= (float) norm;
+        }
+        return sum;
+    }
+    
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+    
+    private static Counter stageCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("aura.classifier.stage")
+            .description("Classifications by the stage that decided them")
+            .tag("stage", stage)
+            .register(meterRegistry);
     }
     
     /**
      * Close resources on shutdown
      */
     public void destroy() {
+        // The embedding model is a bean of its own and closes itself
         log.info("Shutting down AuraClassifier");
-        // TODO: Close DJL resources
-        // if (predictor != null) predictor.close();
-        // if (model != null) model.close();
     }
 }
@@ -1,16 +1,42 @@
 package io.github.girisenji.ai.aura.service;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
 import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.service.cache.ContentHash;
+import io.github.girisenji.ai.aura.service.cache.TwoLevelCache;
+import io.github.girisenji.ai.aura.service.scheduling.OutputLengthPredictor;
+import io.github.girisenji.ai.aura.service.scheduling.RequestScheduler;
+import io.github.girisenji.ai.aura.service.streaming.StreamEvent;
+import io.github.girisenji.ai.aura.service.streaming.StreamSessionRegistry;
+import io.github.girisenji.ai.aura.service.streaming.StreamUsageRecorder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Main service for handling chat completions
@@ -22,79 +48,275 @@ public class ChatService {
     
     private final AuraClassifier classifier;
     private final DynamicModelRouter router;
+    private final RequestScheduler scheduler;
+    private final OutputLengthPredictor lengthPredictor;
+    private final AuraConfigHolder config;
+    private final StreamUsageRecorder usageRecorder;
+    private final StreamSessionRegistry sessions;
+    private final TwoLevelCache<AuraResponse> completionCache;
+    
+    // Open client streams per streaming mode
+    private final AtomicInteger activeEmitterStreams = new AtomicInteger();
+    private final AtomicInteger activeReactiveStreams = new AtomicInteger();
     
     // Virtual thread executor for async operations
     private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
-    public ChatService(AuraClassifier classifier, DynamicModelRouter router) {
+    public ChatService(
+            AuraClassifier classifier,
+            DynamicModelRouter router,
+            RequestScheduler scheduler,
+            OutputLengthPredictor lengthPredictor,
+            AuraConfigHolder config,
+            StreamUsageRecorder usageRecorder,
+            StreamSessionRegistry sessions,
+            TwoLevelCache<AuraResponse> completionCache,
+            MeterRegistry meterRegistry) {
         this.classifier = classifier;
         this.router = router;
+        this.scheduler = scheduler;
+        this.lengthPredictor = lengthPredictor;
+        this.config = config;
+        this.usageRecorder = usageRecorder;
+        this.sessions = sessions;
+        this.completionCache = completionCache;
+        Gauge.builder("aura.streams.active", activeEmitterStreams, AtomicInteger::get)
+            .tag("mode", "emitter")
+            .register(meterRegistry);
+        Gauge.builder("aura.streams.active", activeReactiveStreams, AtomicInteger::get)
+            .tag("mode", "reactive")
+            .register(meterRegistry);
     }
     
     /**
      * Process a non-streaming chat completion request
      */
     public AuraResponse chatCompletion(AuraRequest request) {
-        log.debug("Processing non-streaming request");
+        return chatCompletion(request, RequestContext.anonymous());
+    }
+    
+    /**
+     * Process a non-streaming chat completion request for a resolved caller
+     */
+    public AuraResponse chatCompletion(AuraRequest request, RequestContext context) {
+        log.debug("Processing non-streaming {} request for tenant {}", context.priority(), context.tenant());
+        
+        // Near-deterministic requests are answered from the cache when the same prompt was seen before
+        if (isCacheable(request)) {
+            return completionCache.get(cacheKey(request, context),
+                () -> complete(request, context),
+                response -> !DynamicModelRouter.isMock(response));
+        }
+        return complete(request, context);
+    }
+    
+    /**
+     * Apply the tier's default deadline, counted from arrival, unless the client set its own
+     */
+    private RequestContext withDeadline(RequestContext context, RoutingTier tier, Instant receivedAt) {
+        if (context.deadline() != null) {
+            return context;
+        }
+        Duration budget = config.properties().getDeadline().getTiers().get(tier);
+        return budget != null ? context.withDeadline(receivedAt.plus(budget)) : context;
+    }
+    
+    private AuraResponse complete(AuraRequest request, RequestContext resolved) {
+        Instant receivedAt = Instant.now();
         
         // Step 1: Classify the prompt
         RoutingTier tier = classifier.classify(request);
         log.info("Classified request as tier: {}", tier);
+        RequestContext context = withDeadline(resolved, tier, receivedAt);
         
-        // Step 2: Route to appropriate model
-        AuraResponse response = router.route(request, tier);
+        // Step 2: Wait for a dispatch slot (shorter predicted outputs first), then route to appropriate model
+        int predictedTokens = lengthPredictor.predict(request, tier, context);
+        AuraResponse response = scheduler.execute(context, predictedTokens, () -> router.route(request, tier, context));
         
+        if (response.usage() != null && !DynamicModelRouter.isMock(response)) {
+            lengthPredictor.record(context, tier, response.usage().completionTokens());
+        }
         return response;
     }
     
+    private boolean isCacheable(AuraRequest request) {
+        AuraProperties.ResponseCache cache = config.properties().getResponseCache();
+        return cache.isEnabled() && request.temperature() <= cache.getMaxTemperature();
+    }
+    
+    /**
+     * Tenant plus a hash of everything that shapes the completion
+     */
+    private static String cacheKey(AuraRequest request, RequestContext context) {
+        long hash = ContentHash.of(request.model());
+        for (Message message : request.messages()) {
+            hash = ContentHash.update(hash, message.role());
+            hash = ContentHash.update(hash, message.content());
+            hash = ContentHash.update(hash, message.name());
+        }
+        hash = ContentHash.update(hash, String.valueOf(request.temperature()));
+        hash = ContentHash.update(hash, String.valueOf(request.topP()));
+        hash = ContentHash.update(hash, String.valueOf(request.maxTokens()));
+        hash = ContentHash.update(hash, String.valueOf(request.frequencyPenalty()));
+        hash = ContentHash.update(hash, String.valueOf(request.presencePenalty()));
+        hash = ContentHash.update(hash, String.valueOf(request.stop()));
+        return context.tenant() + ":" + Long.toHexString(hash);
+    }
+    
     /**
      * Process a streaming chat completion request
      */
     public SseEmitter streamChatCompletion(AuraRequest request) {
-        log.debug("Processing streaming request");
+        return streamChatCompletion(request, RequestContext.anonymous());
+    }
+    
+    /**
+     * Process a streaming chat completion request for a resolved caller
+     */
+    public SseEmitter streamChatCompletion(AuraRequest request, RequestContext context) {
+        return toEmitter(startStream(request, context));
+    }
+    
+    /**
+     * Start a streamed completion and return the caller's view of it
+     *
+     * The upstream is wrapped in a resumable session, so the caller's
+     * subscription can end (disconnect, timeout) without necessarily
+     * ending the generation; see {@link StreamSessionRegistry}.
+     */
+    public Flux<StreamEvent> startStream(AuraRequest request, RequestContext resolved) {
+        log.debug("Processing streaming {} request for tenant {}", resolved.priority(), resolved.tenant());
+        Instant receivedAt = Instant.now();
         
-        SseEmitter emitter = new SseEmitter(60_000L); // 60 second timeout
+        RoutingTier tier = classifier.classify(request);
+        log.info("Classified streaming request as tier: {}", tier);
+        RequestContext context = withDeadline(resolved, tier, receivedAt);
         
-        // Handle completion and errors
-        emitter.onCompletion(() -> log.debug("SSE completed"));
-        emitter.onTimeout(() -> {
-            log.warn("SSE timeout");
-            emitter.complete();
-        });
-        emitter.onError(e -> {
-            log.error("SSE error", e);
-            emitter.completeWithError(e);
-        });
+        // Admit before opening the stream so that shed requests still get a plain HTTP error
+        RequestScheduler.Permit permit = scheduler.acquire(context, lengthPredictor.predict(request, tier, context));
+        
+        // Usage is counted on what the upstream generated, which is what we are billed for
+        StreamUsageRecorder.Tracker usage = usageRecorder.start(request);
+        Flux<String> upstream = router.stream(request, tier, context)
+            .doOnNext(usage::observe)
+            .doFinally(signal -> {
+                usage.finish(switch (signal) {
+                    case ON_COMPLETE -> StreamUsageRecorder.COMPLETED;
+                    case CANCEL -> StreamUsageRecorder.CANCELLED;
+                    default -> StreamUsageRecorder.ERROR;
+                });
+                permit.close();
+                if (signal == SignalType.ON_COMPLETE) {
+                    lengthPredictor.record(context, tier, usage.completionTokens());
+                }
+            });
+        return sessions.open(context, upstream);
+    }
+    
+    /**
+     * Reattach to a stream from the client's Last-Event-ID, if it is still resumable
+     */
+    public Optional<Flux<StreamEvent>> resumeStream(String lastEventId, RequestContext context) {
+        return sessions.resume(lastEventId, context);
+    }
+    
+    /**
+     * Write stream events through an SseEmitter fed by a virtual thread
+     */
+    public SseEmitter toEmitter(Flux<StreamEvent> events) {
+        SseEmitter emitter = new SseEmitter(config.properties().getStreaming().getTimeout().toMillis());
+        
+        // Set once the stream ends on our side or the client goes away, whichever is first
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicBoolean clientGone = new AtomicBoolean();
         
         // Process streaming in virtual thread
-        virtualExecutor.submit(() -> {
-            try {
-                // Step 1: Classify the prompt
-                RoutingTier tier = classifier.classify(request);
-                log.info("Classified streaming request as tier: {}", tier);
-                
-                // Step 2: Stream from appropriate model
-                router.routeStreaming(request, tier, chunk -> {
+        activeEmitterStreams.incrementAndGet();
+        Future<?> task = virtualExecutor.submit(() -> {
+            // Small prefetch so a slow consumer holds back the upstream read
+            try (Stream<StreamEvent> chunks = events.toStream(8)) {
+                chunks.forEach(event -> {
                     try {
-                        emitter.send(SseEmitter.event()
-                            .data(chunk)
-                            .name("message"));
+                        SseEmitter.SseEventBuilder sse = SseEmitter.event()
+                            .data(event.data())
+                            .name("message");
+                        if (event.id() != null) {
+                            sse.id(event.id());
+                        }
+                        emitter.send(sse);
                     } catch (IOException e) {
-                        log.error("Error sending SSE chunk", e);
-                        throw new RuntimeException(e);
+                        // Client went away: unwinding closes our subscription
+                        clientGone.set(true);
+                        throw new UncheckedIOException(e);
                     }
                 });
                 
                 // Send [DONE] marker (OpenAI compatibility)
                 emitter.send(SseEmitter.event().data("[DONE]"));
-                emitter.complete();
+                if (finished.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
                 
             } catch (Exception e) {
-                log.error("Error in streaming", e);
-                emitter.completeWithError(e);
+                if (clientGone.get() || Thread.currentThread().isInterrupted()) {
+                    log.debug("Streaming stopped after client disconnect: {}", e.getMessage());
+                } else {
+                    log.error("Error in streaming", e);
+                    if (finished.compareAndSet(false, true)) {
+                        emitter.completeWithError(e);
+                    }
+                }
+            } finally {
+                activeEmitterStreams.decrementAndGet();
             }
         });
         
+        // Interrupting the task unblocks the chunk iterator, which cancels its subscription
+        Runnable cancelSubscription = () -> {
+            if (finished.compareAndSet(false, true)) {
+                clientGone.set(true);
+                task.cancel(true);
+            }
+        };
+        
+        // Handle completion and errors
+        emitter.onCompletion(() -> {
+            log.debug("SSE completed");
+            cancelSubscription.run();
+        });
+        emitter.onTimeout(() -> {
+            log.warn("SSE timeout");
+            cancelSubscription.run();
+            emitter.complete();
+        });
+        emitter.onError(e -> {
+            log.debug("SSE error: {}", e.getMessage());
+            cancelSubscription.run();
+        });
+        
         return emitter;
     }
+    
+    /**
+     * Stream events as a Flux for Spring MVC's reactive return value support
+     *
+     * MVC writes one event at a time and only requests the next once the
+     * previous write completed. Without resume that demand reaches the
+     * upstream directly; with resume the session reads at most its replay
+     * buffer ahead of the slowest client, so either way a slow client holds
+     * back generation rather than being buffered for. A client disconnect or
+     * timeout cancels the subscription. Like the emitter's, the timeout
+     * bounds the whole response rather than the gap between events.
+     */
+    public Flux<ServerSentEvent<String>> toServerSentEvents(Flux<StreamEvent> events) {
+        Duration timeout = config.properties().getStreaming().getTimeout();
+        return events
+            .map(event -> ServerSentEvent.builder(event.data()).id(event.id()).event("message").build())
+            // Send [DONE] marker (OpenAI compatibility)
+            .concatWith(Mono.just(ServerSentEvent.builder("[DONE]").build()))
+            .takeUntilOther(Mono.delay(timeout).then(Mono.error(() ->
+                new TimeoutException("Stream did not complete within " + timeout))))
+            .doOnSubscribe(s -> activeReactiveStreams.incrementAndGet())
+            .doFinally(signal -> activeReactiveStreams.decrementAndGet());
+    }
 }
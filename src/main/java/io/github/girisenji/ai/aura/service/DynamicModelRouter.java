@@ -1,53 +1,126 @@
 package io.github.girisenji.ai.aura.service;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
 import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.RequestContext;
 import io.github.girisenji.ai.aura.model.RoutingTier;
 import io.github.girisenji.ai.aura.model.Usage;
 import io.github.girisenji.ai.aura.service.provider.LLMProvider;
 import io.github.girisenji.ai.aura.service.provider.OpenAIProvider;
 import io.github.girisenji.ai.aura.service.provider.AnthropicProvider;
+import io.github.girisenji.ai.aura.service.routing.BulkheadFullException;
+import io.github.girisenji.ai.aura.service.routing.Bulkheads;
+import io.github.girisenji.ai.aura.service.routing.ContextWindowManager;
+import io.github.girisenji.ai.aura.service.routing.DeadlineExceededException;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+import io.github.girisenji.ai.aura.service.routing.ResponseVerifier;
+import io.github.girisenji.ai.aura.service.routing.RetryBudgetExhaustedException;
+import io.github.girisenji.ai.aura.service.routing.RetryPolicy;
+import io.github.girisenji.ai.aura.service.routing.RoutingPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Dynamic model router with failover support
  * 
  * Routes requests to appropriate LLM providers based on routing tier
- * and implements waterfall failover strategy.
+ * and implements waterfall failover strategy. The routing table is rebuilt
+ * whenever the configuration is reloaded; each request reads it once, so a
+ * reload never changes the chain of a request that is already being routed.
  */
 @Service
 public class DynamicModelRouter {
     
     private static final Logger log = LoggerFactory.getLogger(DynamicModelRouter.class);
     
-    private final AuraProperties properties;
+    // Marks fallback responses so they are never cached
+    private static final String MOCK_FINGERPRINT = "aura-mock";
+    
+    private final AuraConfigHolder config;
     private final List<LLMProvider> providers;
+    private final RoutingPolicy routingPolicy;
+    private final ModelLatencyTracker latencyTracker;
+    private final ResponseVerifier verifier;
+    private final Bulkheads bulkheads;
+    private final ContextWindowManager contextWindows;
+    private final RetryPolicy retryPolicy;
+    private final MeterRegistry meterRegistry;
+    
+    // Virtual threads for speculative premium calls in cascade mode
+    private final ExecutorService speculativeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    // Virtual threads for provider calls that must end at the request's deadline
+    private final ExecutorService deadlineExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
-    // Model chains for each tier (ordered by preference)
-    private Map<RoutingTier, List<String>> modelChains;
+    // Virtual threads for streaming attempts, which may block on a bulkhead or a summarize call
+    private final Scheduler streamScheduler = Schedulers.fromExecutorService(
+        Executors.newVirtualThreadPerTaskExecutor(), "aura-stream");
+    
+    private volatile RoutingTable table;
     
     public DynamicModelRouter(
-            AuraProperties properties,
+            AuraConfigHolder config,
             OpenAIProvider openAIProvider,
-            AnthropicProvider anthropicProvider) {
-        this.properties = properties;
+            AnthropicProvider anthropicProvider,
+            RoutingPolicy routingPolicy,
+            ModelLatencyTracker latencyTracker,
+            ResponseVerifier verifier,
+            Bulkheads bulkheads,
+            ContextWindowManager contextWindows,
+            RetryPolicy retryPolicy,
+            MeterRegistry meterRegistry) {
+        this.config = config;
         this.providers = List.of(openAIProvider, anthropicProvider);
+        this.routingPolicy = routingPolicy;
+        this.latencyTracker = latencyTracker;
+        this.verifier = verifier;
+        this.bulkheads = bulkheads;
+        this.contextWindows = contextWindows;
+        this.retryPolicy = retryPolicy;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Model chains for each tier (ordered by preference) and the configuration they were built from
+     */
+    private record RoutingTable(AuraProperties properties, Map<RoutingTier, List<String>> modelChains) {
     }
     
     @PostConstruct
     public void initialize() {
         log.info("Initializing DynamicModelRouter");
-        
-        modelChains = new HashMap<>();
+        table = buildTable(config.properties());
+        config.subscribe(snapshot -> table = buildTable(snapshot.properties()));
+    }
+    
+    private RoutingTable buildTable(AuraProperties properties) {
+        Map<RoutingTier, List<String>> modelChains = new EnumMap<>(RoutingTier.class);
         
         // PREMIUM tier: Best models with fallbacks
         String premiumOpenAI = getModelSafe(properties.getProviders().getOpenai().getModels().getPremium(), "gpt-4o");
@@ -76,7 +149,15 @@ public class DynamicModelRouter {
             "mistral-7b"
         ));
         
+        // Explicitly configured chains replace the built-in ones
+        properties.getRouting().getChains().forEach((tier, chain) -> {
+            if (chain != null && !chain.isEmpty()) {
+                modelChains.put(tier, List.copyOf(chain));
+            }
+        });
+        
         log.info("Model chains configured: {}", modelChains);
+        return new RoutingTable(properties, modelChains);
     }
     
     /**
@@ -90,26 +171,24 @@ public class DynamicModelRouter {
      * Route a non-streaming request with failover
      */
     public AuraResponse route(AuraRequest request, RoutingTier tier) {
-        List<String> models = modelChains.get(tier);
+        return route(request, tier, RequestContext.anonymous());
+    }
+    
+    /**
+     * Route a non-streaming request with failover, honouring the tenant's SLO
+     */
+    public AuraResponse route(AuraRequest request, RoutingTier tier, RequestContext context) {
+        retryPolicy.recordRequest();
+        RoutingTable current = table;
+        AuraProperties.Cascade cascade = current.properties().getCascade();
+        if (cascade.isEnabled() && tier.compareTo(cascade.getStartTier()) > 0) {
+            return routeCascade(request, tier, context, cascade, current.modelChains());
+        }
         
-        for (String modelName : models) {
-            try {
-                log.info("Attempting to route to model: {}", modelName);
-                
-                // Find a provider that supports this model
-                for (LLMProvider provider : providers) {
-                    if (provider.isEnabled() && provider.supportsModel(modelName)) {
-                        log.info("Using provider {} for model {}", provider.getClass().getSimpleName(), modelName);
-                        return provider.generate(request, modelName);
-                    }
-                }
-                
-                log.warn("No enabled provider found for model: {}", modelName);
-                
-            } catch (Exception e) {
-                log.warn("Failed to get response from {}: {}", modelName, e.getMessage());
-                // Continue to next model in chain
-            }
+        List<String> models = routingPolicy.order(request, tier, context, current.modelChains());
+        AuraResponse response = tryModels(request, models, context);
+        if (response != null) {
+            return response;
         }
         
         // Fall back to mock response if all providers failed
@@ -118,35 +197,387 @@ public class DynamicModelRouter {
     }
     
     /**
-     * Route a streaming request with failover
+     * Cascade routing: answer from the cheapest tier first and only escalate
+     * when the verifier is not confident in the answer. With speculation on,
+     * the classified tier is started in parallel after a short delay so that
+     * escalated requests do not pay the full sequential latency.
      */
-    public void routeStreaming(AuraRequest request, RoutingTier tier, Consumer<String> chunkConsumer) {
-        List<String> models = modelChains.get(tier);
+    private AuraResponse routeCascade(AuraRequest request, RoutingTier tier, RequestContext context,
+            AuraProperties.Cascade cascade, Map<RoutingTier, List<String>> modelChains) {
+        List<String> finalModels = routingPolicy.order(request, tier, context, modelChains);
+        
+        Future<AuraResponse> speculative = null;
+        if (cascade.isSpeculative()) {
+            Duration delay = cascade.getSpeculativeDelay();
+            speculative = speculativeExecutor.submit(() -> {
+                Thread.sleep(delay.toMillis());
+                return tryModels(request, finalModels, context);
+            });
+        }
         
-        for (String modelName : models) {
+        try {
+            for (int ordinal = cascade.getStartTier().ordinal(); ordinal < tier.ordinal(); ordinal++) {
+                RoutingTier candidateTier = RoutingTier.values()[ordinal];
+                AuraResponse candidate;
+                try {
+                    candidate = tryModels(request, routingPolicy.order(request, candidateTier, context, modelChains),
+                        context);
+                } catch (BulkheadFullException e) {
+                    // Cheaper tier saturated: move on rather than shedding the request
+                    candidate = null;
+                }
+                if (candidate == null) {
+                    continue;
+                }
+                
+                double confidence = verifier.score(request, candidate);
+                if (confidence >= cascade.getConfidenceThreshold()) {
+                    log.info("Cascade accepted {} answer (confidence {}) for {} request", candidateTier, confidence, tier);
+                    cascadeCounter(candidateTier, "accepted").increment();
+                    return candidate;
+                }
+                log.info("Cascade escalating past {} (confidence {} below {})",
+                    candidateTier, confidence, cascade.getConfidenceThreshold());
+                cascadeCounter(candidateTier, "escalated").increment();
+            }
+            
+            AuraResponse response = speculative != null
+                ? awaitSpeculative(speculative, request, finalModels, context)
+                : tryModels(request, finalModels, context);
+            speculative = null;
+            if (response != null) {
+                cascadeCounter(tier, "final").increment();
+                return response;
+            }
+        } finally {
+            if (speculative != null) {
+                // A cheaper answer was accepted: stop the premium call (or prevent it from starting)
+                speculative.cancel(true);
+            }
+        }
+        
+        log.warn("All providers failed for tier: {}, returning mock response", tier);
+        return createMockResponse(request, finalModels.get(0));
+    }
+    
+    private AuraResponse awaitSpeculative(Future<AuraResponse> speculative, AuraRequest request, List<String> models,
+            RequestContext context) {
+        try {
+            Optional<Duration> remaining = context.remaining();
+            return remaining.isPresent()
+                ? speculative.get(remaining.get().toNanos(), TimeUnit.NANOSECONDS)
+                : speculative.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for speculative response", e);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Deadline passed while waiting for the speculative response");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DeadlineExceededException deadline) {
+                throw deadline;
+            }
+            if (e.getCause() instanceof RetryBudgetExhaustedException exhausted) {
+                throw exhausted;
+            }
+            log.warn("Speculative request failed: {}", e.getCause().getMessage());
+            return tryModels(request, models, context);
+        }
+    }
+    
+    private Counter cascadeCounter(RoutingTier tier, String outcome) {
+        return Counter.builder("aura.cascade.decisions")
+            .description("Cascade routing decisions per tier")
+            .tag("tier", tier.name())
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Name of the provider expected to serve this request (the first model in
+     * the chain with an enabled provider), or "mock" if none is configured
+     */
+    public String primaryProvider(AuraRequest request, RoutingTier tier, RequestContext context) {
+        for (String modelName : routingPolicy.order(request, tier, context, table.modelChains())) {
+            LLMProvider provider = providerFor(modelName);
+            if (provider != null) {
+                return provider.name();
+            }
+        }
+        return "mock";
+    }
+    
+    /**
+     * First enabled provider that serves the model, or null
+     */
+    private LLMProvider providerFor(String modelName) {
+        for (LLMProvider provider : providers) {
+            if (provider.isEnabled() && provider.supportsModel(modelName)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Try each model in order and return the first successful response,
+     * or null if every model failed, had no enabled provider or could not
+     * hold the conversation
+     *
+     * A model that fails transiently is called again after a backoff, up
+     * to the retry policy's attempts per model; any other failure moves on
+     * to the next model. Once a call has failed, every further call takes
+     * a token from the retry budget.
+     *
+     * @throws BulkheadFullException if no model answered and at least one was skipped for being full
+     * @throws DeadlineExceededException if the request's deadline passed before a model answered
+     * @throws RetryBudgetExhaustedException if a call failed and the retry budget had no token for the next one
+     * @throws IllegalArgumentException if the gateway found the request invalid, which every model would
+     */
+    private AuraResponse tryModels(AuraRequest request, List<String> models, RequestContext context) {
+        return tryModels(request, models, context, summary -> summarize(summary, context));
+    }
+    
+    /**
+     * @param summarizer writes summaries of older turns for requests that are too long, or null to drop them
+     */
+    private AuraResponse tryModels(AuraRequest request, List<String> models, RequestContext context,
+            Function<AuraRequest, String> summarizer) {
+        boolean saturated = false;
+        boolean failed = false;
+        for (String modelName : contextWindows.candidates(request, models)) {
             try {
-                log.info("Attempting to stream from model: {}", modelName);
+                log.info("Attempting to route to model: {}", modelName);
                 
                 // Find a provider that supports this model
-                for (LLMProvider provider : providers) {
-                    if (provider.isEnabled() && provider.supportsModel(modelName)) {
-                        log.info("Using provider {} for streaming model {}", provider.getClass().getSimpleName(), modelName);
-                        provider.generateStreaming(request, modelName, chunkConsumer);
-                        return;
-                    }
+                LLMProvider provider = providerFor(modelName);
+                if (provider == null) {
+                    log.warn("No enabled provider found for model: {}", modelName);
+                    continue;
                 }
                 
-                log.warn("No enabled provider found for model: {}", modelName);
+                // Trim or summarise before taking a slot, since summarising is itself a model call
+                AuraRequest fitted = contextWindows.fit(request, modelName, summarizer);
+                if (fitted == null) {
+                    continue;
+                }
+                
+                for (int attempt = 1; ; attempt++) {
+                    // Every fallback only gets what is left of the budget, and none start once it is spent
+                    if (context.isExpired()) {
+                        throw new DeadlineExceededException("Deadline passed before " + modelName + " could be tried");
+                    }
+                    
+                    // Overflow to the next model when this provider or model is at capacity
+                    Optional<Bulkheads.Lease> lease = bulkheads.tryAcquire(provider.name(), modelName);
+                    if (lease.isEmpty()) {
+                        log.info("Bulkhead full for {} model {}, overflowing", provider.name(), modelName);
+                        saturated = true;
+                        break;
+                    }
+                    
+                    Optional<Duration> backoff;
+                    try (Bulkheads.Lease held = lease.get()) {
+                        if (failed && !retryPolicy.tryAcquire()) {
+                            throw new RetryBudgetExhaustedException(
+                                "Retry budget spent, not calling " + modelName + " after earlier failures");
+                        }
+                        log.info("Using provider {} for model {}", provider.getClass().getSimpleName(), modelName);
+                        long start = System.nanoTime();
+                        AuraResponse response = generate(provider, fitted, modelName, context);
+                        latencyTracker.record(modelName, Duration.ofNanos(System.nanoTime() - start));
+                        return response;
+                    } catch (DeadlineExceededException | RetryBudgetExhaustedException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        failed = true;
+                        RetryPolicy.Failure failure = retryPolicy.classify(e);
+                        log.warn("Failed to get response from {} ({}): {}", modelName, failure, e.getMessage());
+                        if (failure == RetryPolicy.Failure.REQUEST) {
+                            throw e;
+                        }
+                        backoff = retryPolicy.backoff(e, attempt, context);
+                    }
+                    if (backoff.isEmpty()) {
+                        // Continue to next model in chain
+                        break;
+                    }
+                    // The bulkhead slot is released while waiting
+                    Thread.sleep(backoff.get());
+                }
                 
-            } catch (Exception e) {
-                log.warn("Failed to stream from {}: {}", modelName, e.getMessage());
-                // Continue to next model in chain
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (DeadlineExceededException | RetryBudgetExhaustedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (retryPolicy.classify(e) == RetryPolicy.Failure.REQUEST) {
+                    throw e;
+                }
+                log.warn("Failed to route to {}: {}", modelName, e.getMessage());
             }
         }
+        if (saturated) {
+            throw new BulkheadFullException("All candidate models are at their concurrency limit");
+        }
+        return null;
+    }
+    
+    /**
+     * Call a provider, giving up when the request's deadline passes
+     *
+     * With a deadline the call runs on a virtual thread and the caller
+     * waits only for the remaining budget; at the deadline the call is
+     * interrupted, which aborts the upstream exchange where the client
+     * library honours interrupts.
+     */
+    private AuraResponse generate(LLMProvider provider, AuraRequest request, String modelName, RequestContext context)
+            throws InterruptedException {
+        Optional<Duration> remaining = context.remaining();
+        if (remaining.isEmpty()) {
+            return provider.generate(request, modelName);
+        }
+        Future<AuraResponse> call = deadlineExecutor.submit(() -> provider.generate(request, modelName));
+        try {
+            return call.get(remaining.get().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw new DeadlineExceededException("Deadline passed while waiting for " + modelName);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+    
+    /**
+     * Summary of a conversation from the ECO chain, or null if no model answered
+     */
+    private String summarize(AuraRequest summaryRequest, RequestContext context) {
+        AuraResponse response;
+        try {
+            response = tryModels(summaryRequest, table.modelChains().get(RoutingTier.ECO), context, null);
+        } catch (IllegalArgumentException | RetryBudgetExhaustedException e) {
+            // The summary request is ours, not the client's; without it the turns are dropped instead
+            return null;
+        }
+        return response != null ? response.choices().get(0).message().content() : null;
+    }
+    
+    /**
+     * Route a streaming request with failover
+     */
+    public void routeStreaming(AuraRequest request, RoutingTier tier, Consumer<String> chunkConsumer) {
+        routeStreaming(request, tier, RequestContext.anonymous(), chunkConsumer);
+    }
+    
+    /**
+     * Route a streaming request with failover, honouring the tenant's SLO
+     */
+    public void routeStreaming(AuraRequest request, RoutingTier tier, RequestContext context,
+            Consumer<String> chunkConsumer) {
+        // Small prefetch so a slow consumer holds back the upstream read
+        try (Stream<String> chunks = stream(request, tier, context).toStream(8)) {
+            chunks.forEach(chunkConsumer);
+        }
+    }
+    
+    /**
+     * Stream a response as chunk JSON with failover. Failover only happens
+     * before the first chunk; once output has reached the client, an
+     * upstream error ends the stream. Each attempt holds its bulkhead slot
+     * until the stream completes or the subscriber cancels. With a
+     * deadline, an attempt that has not produced its first chunk by then
+     * is abandoned and no further attempt is started. Retries follow the
+     * same policy and budget as non-streaming requests.
+     */
+    public Flux<String> stream(AuraRequest request, RoutingTier tier, RequestContext context) {
+        retryPolicy.recordRequest();
+        List<String> models = contextWindows.candidates(request,
+            routingPolicy.order(request, tier, context, table.modelChains()));
+        return streamFrom(request, tier, context, models, 0, 1, false, false);
+    }
+    
+    /**
+     * @param attempt calls made to models.get(index) so far, plus one
+     * @param failed whether an earlier attempt failed, so that this one spends retry budget
+     */
+    private Flux<String> streamFrom(AuraRequest request, RoutingTier tier, RequestContext context, List<String> models,
+            int index, int attempt, boolean saturated, boolean failed) {
+        if (context.isExpired()) {
+            return Flux.error(new DeadlineExceededException("Deadline passed before the stream started"));
+        }
+        if (index >= models.size()) {
+            if (saturated) {
+                return Flux.error(new BulkheadFullException("All candidate models are at their concurrency limit"));
+            }
+            // Fall back to mock response
+            log.warn("All providers failed for tier: {}, using mock streaming", tier);
+            return mockStreamingResponse(models.get(0));
+        }
         
-        // Fall back to mock response
-        log.warn("All providers failed for tier: {}, using mock streaming", tier);
-        mockStreamingResponse(request, models.get(0), chunkConsumer);
+        return Flux.defer(() -> {
+            String modelName = models.get(index);
+            log.info("Attempting to stream from model: {}", modelName);
+            
+            // Find a provider that supports this model
+            LLMProvider provider = providerFor(modelName);
+            if (provider == null) {
+                log.warn("No enabled provider found for model: {}", modelName);
+                return streamFrom(request, tier, context, models, index + 1, 1, saturated, failed);
+            }
+            
+            // Summarizing is a blocking completion, hence the attempt subscribes on a virtual thread
+            AuraRequest fitted = contextWindows.fit(request, modelName, summary -> summarize(summary, context));
+            if (fitted == null) {
+                return streamFrom(request, tier, context, models, index + 1, 1, saturated, failed);
+            }
+            
+            Optional<Bulkheads.Lease> lease;
+            try {
+                lease = bulkheads.tryAcquire(provider.name(), modelName);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Flux.error(new IllegalStateException("Interrupted while waiting for a bulkhead slot", e));
+            }
+            if (lease.isEmpty()) {
+                log.info("Bulkhead full for {} model {}, overflowing", provider.name(), modelName);
+                return streamFrom(request, tier, context, models, index + 1, 1, true, failed);
+            }
+            if (failed && !retryPolicy.tryAcquire()) {
+                lease.get().close();
+                return Flux.error(new RetryBudgetExhaustedException(
+                    "Retry budget spent, not streaming from " + modelName + " after earlier failures"));
+            }
+            
+            log.info("Using provider {} for streaming model {}", provider.getClass().getSimpleName(), modelName);
+            AtomicBoolean started = new AtomicBoolean();
+            Flux<String> call = Flux.using(lease::get,
+                held -> provider.stream(fitted, modelName).doOnNext(chunk -> started.set(true)),
+                Bulkheads.Lease::close);
+            Optional<Duration> remaining = context.remaining();
+            if (remaining.isPresent()) {
+                // The first chunk has to arrive within the budget; once output flows the stream runs to its end
+                // Fail over from a virtual thread rather than the timer thread that fired
+                call = call.timeout(Mono.delay(remaining.get()).publishOn(streamScheduler), chunk -> Mono.never());
+            }
+            return call
+                .onErrorResume(e -> !started.get(), e -> {
+                    RetryPolicy.Failure failure = retryPolicy.classify(e);
+                    log.warn("Failed to stream from {} ({}): {}", modelName, failure, e.getMessage());
+                    if (failure == RetryPolicy.Failure.REQUEST) {
+                        return Flux.error(e);
+                    }
+                    Optional<Duration> backoff = retryPolicy.backoff(e, attempt, context);
+                    if (backoff.isPresent()) {
+                        return Mono.delay(backoff.get()).publishOn(streamScheduler).thenMany(Flux.defer(() ->
+                            streamFrom(request, tier, context, models, index, attempt + 1, saturated, true)));
+                    }
+                    // Continue to next model in chain
+                    return streamFrom(request, tier, context, models, index + 1, 1, saturated, true);
+                });
+        }).subscribeOn(streamScheduler);
     }
     
     /**
@@ -158,33 +589,31 @@ public class DynamicModelRouter {
             model
         );
         
-        Usage usage = new Usage(10, 20);
-        return AuraResponse.create(model, content, usage);
+        AuraResponse response = AuraResponse.create(model, content, new Usage(10, 20));
+        return new AuraResponse(response.id(), response.object(), response.created(), response.model(),
+            response.choices(), response.usage(), MOCK_FINGERPRINT);
+    }
+    
+    /**
+     * Whether a response is the no-provider fallback rather than a real completion
+     */
+    public static boolean isMock(AuraResponse response) {
+        return MOCK_FINGERPRINT.equals(response.systemFingerprint());
     }
     
     /**
      * Mock streaming response (fallback)
      */
-    private void mockStreamingResponse(AuraRequest request, String model, Consumer<String> chunkConsumer) {
+    private Flux<String> mockStreamingResponse(String model) {
         String[] words = String.format(
             "This is a mock streaming response from %s. Configure API keys to use real LLM providers.", model
         ).split(" ");
         
-        for (String word : words) {
-            AuraResponse chunk = AuraResponse.streamingChunk(model, word + " ", false);
-            chunkConsumer.accept(serializeChunk(chunk));
-            
-            // Simulate streaming delay
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        
-        // Send final chunk
-        AuraResponse finalChunk = AuraResponse.streamingChunk(model, "", true);
-        chunkConsumer.accept(serializeChunk(finalChunk));
+        // Simulate streaming delay between words, then send the final chunk
+        return Flux.fromArray(words)
+            .delayElements(Duration.ofMillis(50))
+            .map(word -> serializeChunk(AuraResponse.streamingChunk(model, word + " ", false)))
+            .concatWith(Mono.fromSupplier(() -> serializeChunk(AuraResponse.streamingChunk(model, "", true))));
     }
     
     /**
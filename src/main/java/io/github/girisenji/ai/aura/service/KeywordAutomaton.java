@@ -0,0 +1,114 @@
+package io.github.girisenji.ai.aura.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick matcher over ASCII keywords, case-insensitive
+ *
+ * Counts keyword occurrences per category in a single pass over the
+ * text, without lowercasing or copying it, so the cost is one table
+ * lookup per character however many keywords there are. Matches are
+ * substrings, like String.contains.
+ */
+final class KeywordAutomaton {
+    
+    private static final int ALPHABET = 128;
+    
+    private final int categories;
+    private final int[][] next;
+    private final int[][] output;
+    
+    /**
+     * @param keywords lowercase ASCII keyword to category, categories numbered from 0
+     */
+    KeywordAutomaton(Map<String, Integer> keywords, int categories) {
+        this.categories = categories;
+        List<int[]> transitions = new ArrayList<>();
+        List<int[]> outputs = new ArrayList<>();
+        transitions.add(newState());
+        outputs.add(new int[categories]);
+        
+        for (Map.Entry<String, Integer> keyword : keywords.entrySet()) {
+            int state = 0;
+            for (char c : keyword.getKey().toCharArray()) {
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Keyword is not ASCII: " + keyword.getKey());
+                }
+                if (transitions.get(state)[c] < 0) {
+                    transitions.get(state)[c] = transitions.size();
+                    transitions.add(newState());
+                    outputs.add(new int[categories]);
+                }
+                state = transitions.get(state)[c];
+            }
+            outputs.get(state)[keyword.getValue()]++;
+        }
+        
+        // Breadth-first: complete the goto function with failure links and merge
+        // the outputs of each state's longest proper suffix into it
+        int[] fail = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = transitions.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = transitions.get(state);
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = row[c];
+                if (child < 0) {
+                    row[c] = transitions.get(fail[state])[c];
+                    continue;
+                }
+                fail[child] = transitions.get(fail[state])[c];
+                int[] inherited = outputs.get(fail[child]);
+                for (int i = 0; i < categories; i++) {
+                    outputs.get(child)[i] += inherited[i];
+                }
+                queue.add(child);
+            }
+        }
+        this.next = transitions.toArray(int[][]::new);
+        this.output = outputs.toArray(int[][]::new);
+    }
+    
+    /**
+     * Occurrences of keywords in each category, indexed by category
+     */
+    int[] count(CharSequence text) {
+        int[] counts = new int[categories];
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            state = next[state][c];
+            int[] hits = output[state];
+            for (int k = 0; k < categories; k++) {
+                counts[k] += hits[k];
+            }
+        }
+        return counts;
+    }
+    
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
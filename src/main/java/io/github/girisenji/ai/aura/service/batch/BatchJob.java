@@ -0,0 +1,87 @@
+package io.github.girisenji.ai.aura.service.batch;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.girisenji.ai.aura.model.BatchStatus;
+import io.github.girisenji.ai.aura.model.RequestContext;
+
+/**
+ * State of a single batch run
+ */
+public class BatchJob {
+    
+    public enum Status {
+        VALIDATING, IN_PROGRESS, COMPLETED, FAILED, CANCELLING, CANCELLED;
+        
+        String wireName() {
+            return name().toLowerCase();
+        }
+    }
+    
+    private final String id;
+    private final RequestContext context;
+    private final Path inputFile;
+    private final Path outputFile;
+    private final long createdAt = System.currentTimeMillis() / 1000;
+    
+    final AtomicInteger total = new AtomicInteger();
+    final AtomicInteger completed = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+    
+    private volatile Status status = Status.VALIDATING;
+    private volatile Long completedAt;
+    
+    BatchJob(String id, RequestContext context, Path inputFile, Path outputFile) {
+        this.id = id;
+        this.context = context;
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public RequestContext getContext() {
+        return context;
+    }
+    
+    public Path getInputFile() {
+        return inputFile;
+    }
+    
+    public Path getOutputFile() {
+        return outputFile;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    void setStatus(Status status) {
+        this.status = status;
+        if (status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED) {
+            completedAt = System.currentTimeMillis() / 1000;
+        }
+    }
+    
+    boolean isCancelled() {
+        return status == Status.CANCELLING || status == Status.CANCELLED;
+    }
+    
+    /**
+     * Snapshot for progress polling
+     */
+    public BatchStatus toStatus() {
+        return new BatchStatus(
+            id,
+            "batch",
+            "/v1/chat/completions",
+            status.wireName(),
+            createdAt,
+            completedAt,
+            new BatchStatus.RequestCounts(total.get(), completed.get(), failed.get())
+        );
+    }
+}
@@ -0,0 +1,289 @@
+package io.github.girisenji.ai.aura.service.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.PriorityClass;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.service.AuraClassifier;
+import io.github.girisenji.ai.aura.service.DynamicModelRouter;
+import io.github.girisenji.ai.aura.service.routing.BulkheadFullException;
+import io.github.girisenji.ai.aura.service.scheduling.RequestScheduler;
+import io.github.girisenji.ai.aura.service.scheduling.SchedulerRejectedException;
+
+/**
+ * Bulk chat completions from a JSONL file
+ * 
+ * Each line is classified and routed like an interactive request, but
+ * dispatch happens on a dedicated virtual-thread pool bounded by a global
+ * in-flight limit, per-provider concurrency limits and a shared TPM budget,
+ * so batch jobs cannot take over the capacity interactive traffic relies on.
+ * Results are appended to a JSONL output file as they complete. Finished
+ * jobs and their files are kept for the configured retention, then deleted.
+ */
+@Service
+public class BatchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+    
+    private final AuraProperties properties;
+    private final AuraClassifier classifier;
+    private final DynamicModelRouter router;
+    private final RequestScheduler scheduler;
+    private final ObjectMapper objectMapper;
+    
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> providerLimits = new ConcurrentHashMap<>();
+    private final Semaphore inFlight;
+    private final TokenBudget tokenBudget;
+    
+    // Virtual thread executor for batch fan-out
+    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("aura-batch-retention").factory());
+    
+    public BatchService(
+            AuraProperties properties,
+            AuraClassifier classifier,
+            DynamicModelRouter router,
+            RequestScheduler scheduler,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.classifier = classifier;
+        this.router = router;
+        this.scheduler = scheduler;
+        this.objectMapper = objectMapper;
+        this.inFlight = new Semaphore(properties.getBatch().getMaxConcurrency());
+        this.tokenBudget = new TokenBudget(properties.getBatch().getTokensPerMinute());
+    }
+    
+    /**
+     * Spool the JSONL input to disk and start processing it in the background
+     */
+    public BatchJob submit(InputStream jsonl, RequestContext context) throws IOException {
+        String id = "batch_" + UUID.randomUUID().toString().replace("-", "");
+        Path dir = Files.createDirectories(Path.of(properties.getBatch().getOutputDir()));
+        Path input = dir.resolve(id + "-input.jsonl");
+        Path output = dir.resolve(id + "-output.jsonl");
+        Files.copy(jsonl, input, StandardCopyOption.REPLACE_EXISTING);
+        Files.createFile(output);
+        
+        // Batch lines always share capacity with interactive traffic as bulk work
+        BatchJob job = new BatchJob(id, context.withPriority(PriorityClass.BULK), input, output);
+        jobs.put(id, job);
+        virtualExecutor.submit(() -> run(job));
+        
+        log.info("Accepted batch {} for tenant {}", id, context.tenant());
+        return job;
+    }
+    
+    public Optional<BatchJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+    
+    /**
+     * Stop dispatching new lines; requests already in flight still complete
+     */
+    public Optional<BatchJob> cancel(String id) {
+        BatchJob job = jobs.get(id);
+        if (job != null && (job.getStatus() == BatchJob.Status.VALIDATING
+                || job.getStatus() == BatchJob.Status.IN_PROGRESS)) {
+            job.setStatus(BatchJob.Status.CANCELLING);
+        }
+        return Optional.ofNullable(job);
+    }
+    
+    private void run(BatchJob job) {
+        try (BufferedReader reader = Files.newBufferedReader(job.getInputFile(), StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(job.getOutputFile(), StandardCharsets.UTF_8)) {
+            
+            job.setStatus(BatchJob.Status.IN_PROGRESS);
+            Phaser pending = new Phaser(1);
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null && !job.isCancelled()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                lineNumber++;
+                job.total.incrementAndGet();
+                
+                // Bound the number of in-flight lines before spawning work
+                inFlight.acquire();
+                pending.register();
+                String requestLine = line;
+                String fallbackId = "request-" + lineNumber;
+                virtualExecutor.submit(() -> {
+                    try {
+                        process(job, requestLine, fallbackId, writer);
+                    } finally {
+                        inFlight.release();
+                        pending.arriveAndDeregister();
+                    }
+                });
+            }
+            
+            // Wait for the lines of this job still in flight
+            pending.arriveAndAwaitAdvance();
+            
+            job.setStatus(job.isCancelled() ? BatchJob.Status.CANCELLED : BatchJob.Status.COMPLETED);
+            log.info("Batch {} finished: {} completed, {} failed", job.getId(), job.completed.get(), job.failed.get());
+            
+        } catch (Exception e) {
+            log.error("Batch {} failed", job.getId(), e);
+            job.setStatus(BatchJob.Status.FAILED);
+        } finally {
+            timer.schedule(() -> expire(job), properties.getBatch().getRetention().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Forget a finished job and delete its spooled input and output
+     */
+    private void expire(BatchJob job) {
+        try {
+            Files.deleteIfExists(job.getInputFile());
+            Files.deleteIfExists(job.getOutputFile());
+            log.debug("Expired batch {}", job.getId());
+        } catch (IOException e) {
+            log.warn("Failed to delete files of expired batch {}: {}", job.getId(), e.getMessage());
+        }
+        jobs.remove(job.getId());
+    }
+    
+    /**
+     * Route through the shared scheduler, backing off instead of failing when bulk work is shed or upstreams are saturated
+     */
+    private AuraResponse routeWhenAdmitted(AuraRequest request, RoutingTier tier, BatchJob job)
+            throws InterruptedException {
+        while (true) {
+            try {
+                return scheduler.execute(job.getContext(), () -> router.route(request, tier, job.getContext()));
+            } catch (SchedulerRejectedException e) {
+                if (job.isCancelled()) {
+                    throw e;
+                }
+                Thread.sleep(e.getRetryAfterSeconds() * 1000);
+            } catch (BulkheadFullException e) {
+                if (job.isCancelled()) {
+                    throw e;
+                }
+                Thread.sleep(1000);
+            }
+        }
+    }
+    
+    private void process(BatchJob job, String line, String fallbackId, BufferedWriter writer) {
+        String customId = fallbackId;
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.hasNonNull("custom_id")) {
+                customId = node.get("custom_id").asText();
+            }
+            // Accept both OpenAI batch lines ({custom_id, body}) and bare requests
+            JsonNode body = node.has("body") ? node.get("body") : node;
+            AuraRequest request = objectMapper.treeToValue(body, AuraRequest.class);
+            
+            RoutingTier tier = classifier.classify(request);
+            String provider = router.primaryProvider(request, tier, job.getContext());
+            Semaphore providerLimit = providerLimits.computeIfAbsent(provider, p ->
+                new Semaphore(properties.getBatch().getProviderConcurrency()
+                    .getOrDefault(p, properties.getBatch().getDefaultProviderConcurrency())));
+            
+            int estimated = estimateTokens(request);
+            tokenBudget.acquire(estimated);
+            // A line that fails spent nothing, so its whole reservation goes back
+            int used = 0;
+            AuraResponse response;
+            try {
+                providerLimit.acquire();
+                try {
+                    response = routeWhenAdmitted(request, tier, job);
+                } finally {
+                    providerLimit.release();
+                }
+                used = response.usage() != null ? response.usage().totalTokens() : estimated;
+            } finally {
+                tokenBudget.settle(estimated, used);
+            }
+            
+            result.put("id", "batch_req_" + UUID.randomUUID().toString().replace("-", ""));
+            result.put("custom_id", customId);
+            result.put("response", Map.of("status_code", 200, "body", response));
+            result.put("error", null);
+            job.completed.incrementAndGet();
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = errorLine(customId, "Batch request interrupted");
+            job.failed.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Batch {} line {} failed: {}", job.getId(), customId, e.getMessage());
+            result = errorLine(customId, e.getMessage());
+            job.failed.incrementAndGet();
+        }
+        
+        write(writer, result);
+    }
+    
+    private Map<String, Object> errorLine(String customId, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", "batch_req_" + UUID.randomUUID().toString().replace("-", ""));
+        result.put("custom_id", customId);
+        result.put("response", null);
+        result.put("error", Map.of("code", "batch_request_failed", "message", String.valueOf(message)));
+        return result;
+    }
+    
+    private void write(BufferedWriter writer, Map<String, Object> result) {
+        try {
+            String json = objectMapper.writeValueAsString(result);
+            synchronized (writer) {
+                writer.write(json);
+                writer.newLine();
+                // Flush per line so progress is visible to readers of the output file
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.error("Failed to write batch result", e);
+        }
+    }
+    
+    private int estimateTokens(AuraRequest request) {
+        // Rough approximation: 1 token ≈ 4 characters
+        int prompt = request.messages().stream().mapToInt(m -> m.content().length() / 4).sum();
+        int completion = request.maxTokens() != null
+            ? request.maxTokens()
+            : properties.getRouting().getDefaultCompletionTokens();
+        return prompt + completion;
+    }
+}
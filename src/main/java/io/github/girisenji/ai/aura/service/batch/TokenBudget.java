@@ -0,0 +1,62 @@
+package io.github.girisenji.ai.aura.service.batch;
+
+/**
+ * Tokens-per-minute budget shared by all batch work
+ * 
+ * A token bucket that refills continuously at the configured rate. Callers
+ * reserve their estimated token count before dispatch and settle the
+ * difference once the real usage is known; overdrafts are paid back by
+ * later callers waiting longer.
+ */
+public class TokenBudget {
+    
+    private final long tokensPerMinute;
+    private double available;
+    private long lastRefill;
+    
+    public TokenBudget(long tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+        this.available = tokensPerMinute;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    /**
+     * Block until the estimated tokens fit in the budget
+     */
+    public void acquire(int tokens) throws InterruptedException {
+        if (tokensPerMinute <= 0) {
+            return;
+        }
+        // A single request larger than the whole budget waits for a full bucket
+        double needed = Math.min(tokens, tokensPerMinute);
+        while (true) {
+            long waitMillis;
+            synchronized (this) {
+                refill();
+                if (available >= needed) {
+                    available -= tokens;
+                    return;
+                }
+                waitMillis = (long) Math.ceil((needed - available) * 60_000 / tokensPerMinute);
+            }
+            Thread.sleep(Math.max(1, waitMillis));
+        }
+    }
+    
+    /**
+     * Correct a reservation once the actual token usage is known
+     */
+    public synchronized void settle(int reserved, int actual) {
+        if (tokensPerMinute <= 0) {
+            return;
+        }
+        refill();
+        available = Math.min(tokensPerMinute, available + reserved - actual);
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(tokensPerMinute, available + (now - lastRefill) * tokensPerMinute / 60e9);
+        lastRefill = now;
+    }
+}
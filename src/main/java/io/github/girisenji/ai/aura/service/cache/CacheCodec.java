@@ -0,0 +1,25 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary serialization of cached values for the shared (L2) tier
+ */
+public interface CacheCodec<V> {
+    
+    byte[] encode(V value);
+    
+    /**
+     * Read a value from the buffer's position up to its limit
+     *
+     * The buffer may be a slice of a larger heap, direct or mapped buffer;
+     * implementations read from it in place rather than copying it first.
+     *
+     * @throws IllegalArgumentException if the bytes are not a value this codec wrote
+     */
+    V decode(ByteBuffer buffer);
+    
+    default V decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+}
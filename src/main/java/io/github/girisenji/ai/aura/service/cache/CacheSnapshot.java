@@ -0,0 +1,265 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory-mapped snapshot file of (section, key, value) records
+ *
+ * The file is a header followed by records appended in order, each one
+ * framed as body length, CRC32C of the body, then the body: section and
+ * key as length-prefixed UTF-8 and the value bytes. A new snapshot is
+ * written to a temporary file and renamed over the old one, so a reader
+ * only ever sees a complete file.
+ *
+ * Opening maps the file and scans the record headers to index keys by
+ * offset; values are not touched until asked for, and their checksum is
+ * verified then. A record that fails its checksum is dropped as if it
+ * were absent, and a torn tail ends the scan.
+ */
+public final class CacheSnapshot {
+    
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshot.class);
+    
+    private static final long MAGIC = 0x415552415f534e50L; // "AURA_SNP"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 12;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    
+    private static final CacheSnapshot EMPTY = new CacheSnapshot(MemorySegment.NULL, Map.of());
+    
+    private final MemorySegment mapped;
+    // Section -> key -> record offset
+    private final Map<String, Map<String, Long>> index;
+    
+    private CacheSnapshot(MemorySegment mapped, Map<String, Map<String, Long>> index) {
+        this.mapped = mapped;
+        this.index = index;
+    }
+    
+    public static CacheSnapshot empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Map a snapshot file, or return an empty snapshot if there is none
+     *
+     * @throws IOException if the file exists but is not a snapshot in this version
+     */
+    public static CacheSnapshot open(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return EMPTY;
+        }
+        MemorySegment mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping outlives the channel and is released once the snapshot is unreachable
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+        }
+        if (mapped.byteSize() < FILE_HEADER_BYTES || mapped.get(LONG, 0) != MAGIC) {
+            throw new IOException("Not a snapshot file: " + file);
+        }
+        int version = mapped.get(INT, 8);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        }
+        
+        Map<String, Map<String, Long>> index = new ConcurrentHashMap<>();
+        long offset = FILE_HEADER_BYTES;
+        long size = mapped.byteSize();
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            int length = mapped.get(INT, offset);
+            long body = offset + RECORD_HEADER_BYTES;
+            if (length < 8 || body + length > size) {
+                log.warn("Snapshot {} ends with a torn record at offset {}", file, offset);
+                break;
+            }
+            int sectionLength = mapped.get(INT, body);
+            int keyLength = sectionLength >= 0 && 8L + sectionLength <= length
+                ? mapped.get(INT, body + 4 + sectionLength)
+                : -1;
+            if (keyLength < 0 || 8L + sectionLength + keyLength > length) {
+                log.warn("Snapshot {} has a malformed record at offset {}", file, offset);
+                break;
+            }
+            String section = string(mapped, body + 4, sectionLength);
+            String key = string(mapped, body + 8 + sectionLength, keyLength);
+            index.computeIfAbsent(section, s -> new ConcurrentHashMap<>()).put(key, offset);
+            offset = body + length;
+        }
+        return new CacheSnapshot(mapped, index);
+    }
+    
+    /**
+     * Remove an entry and return a copy of its value, or null if absent or corrupt
+     */
+    public byte[] take(String section, String key) {
+        Map<String, Long> keys = index.get(section);
+        Long offset = keys == null ? null : keys.remove(key);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer value = value(offset);
+        if (value == null) {
+            return null;
+        }
+        byte[] copy = new byte[value.remaining()];
+        value.get(copy);
+        return copy;
+    }
+    
+    public void remove(String section, String key) {
+        Map<String, Long> keys = index.get(section);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+    
+    /**
+     * Visit every remaining, intact entry of a section with a read-only view of its value
+     */
+    public void forEach(String section, BiConsumer<String, ByteBuffer> action) {
+        Map<String, Long> keys = index.get(section);
+        if (keys == null) {
+            return;
+        }
+        keys.forEach((key, offset) -> {
+            ByteBuffer value = value(offset);
+            if (value != null) {
+                action.accept(key, value);
+            }
+        });
+    }
+    
+    /**
+     * Remaining entries in a section
+     */
+    public int size(String section) {
+        Map<String, Long> keys = index.get(section);
+        return keys == null ? 0 : keys.size();
+    }
+    
+    /**
+     * Start writing a new snapshot; it replaces the file only on {@link Writer#commit()}
+     */
+    public static Writer create(Path file) throws IOException {
+        return new Writer(file);
+    }
+    
+    private ByteBuffer value(long offset) {
+        int length = mapped.get(INT, offset);
+        int checksum = mapped.get(INT, offset + 4);
+        ByteBuffer body = mapped.asSlice(offset + RECORD_HEADER_BYTES, length).asByteBuffer().asReadOnlyBuffer();
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            log.warn("Dropping snapshot record at offset {}: checksum mismatch", offset);
+            return null;
+        }
+        int sectionLength = body.getInt(0);
+        int keyLength = body.getInt(4 + sectionLength);
+        return body.position(8 + sectionLength + keyLength).slice();
+    }
+    
+    private static String string(MemorySegment segment, long offset, int length) {
+        return new String(segment.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Appends records to a temporary file next to the target
+     */
+    public static final class Writer implements Closeable {
+        
+        private final Path file;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private int records;
+        
+        private Writer(Path file) throws IOException {
+            this.file = file;
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+        }
+        
+        public void append(String section, String key, byte[] value) {
+            append(section, key, ByteBuffer.wrap(value));
+        }
+        
+        /**
+         * Append the buffer's remaining bytes as the value; the buffer's position is not changed
+         */
+        public void append(String section, String key, ByteBuffer value) {
+            byte[] sectionBytes = section.getBytes(StandardCharsets.UTF_8);
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer body = ByteBuffer.allocate(8 + sectionBytes.length + keyBytes.length + value.remaining())
+                .putInt(sectionBytes.length)
+                .put(sectionBytes)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .put(value.duplicate())
+                .flip();
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            try {
+                out.writeInt(body.remaining());
+                out.writeInt((int) crc.getValue());
+                out.write(body.array(), 0, body.remaining());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            records++;
+        }
+        
+        public int records() {
+            return records;
+        }
+        
+        /**
+         * Flush to disk and atomically replace the snapshot file
+         */
+        public void commit() throws IOException {
+            out.flush();
+            channel.force(true);
+            out.close();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        
+        /**
+         * Discard the temporary file unless it was committed
+         */
+        @Override
+        public void close() throws IOException {
+            out.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
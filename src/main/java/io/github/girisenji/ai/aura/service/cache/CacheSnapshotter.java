@@ -0,0 +1,129 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically snapshots caches and latency statistics to disk for warm restarts
+ *
+ * On startup the previous snapshot is mapped, not read: each cache
+ * serves its entries straight from the file on first access, so a new
+ * replica has a hit rate within seconds of boot, and the latency
+ * windows are seeded so routing does not start from no data. Snapshots
+ * are then rewritten on an interval and once more on shutdown.
+ */
+@Component
+public class CacheSnapshotter {
+    
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotter.class);
+    
+    private static final String LATENCY_SECTION = "latency";
+    
+    private final AuraProperties.Snapshot config;
+    private final List<TwoLevelCache<?>> caches;
+    private final ModelLatencyTracker latencyTracker;
+    
+    private ScheduledExecutorService writer;
+    
+    public CacheSnapshotter(
+            AuraProperties properties,
+            List<TwoLevelCache<?>> caches,
+            ModelLatencyTracker latencyTracker) {
+        this.config = properties.getSnapshot();
+        this.caches = caches;
+        this.latencyTracker = latencyTracker;
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        
+        restore();
+        
+        long interval = config.getInterval().toMillis();
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aura-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::writeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdownNow();
+        writeQuietly();
+    }
+    
+    /**
+     * Map the snapshot file and hand it to the caches and the latency tracker
+     */
+    public void restore() {
+        Path file = Path.of(config.getFile());
+        CacheSnapshot snapshot;
+        try {
+            snapshot = CacheSnapshot.open(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {}: {}", file, e.getMessage());
+            return;
+        }
+        snapshot.forEach(LATENCY_SECTION, (model, value) -> {
+            long[] nanos = new long[value.remaining() / Long.BYTES];
+            value.asLongBuffer().get(nanos);
+            latencyTracker.restore(model, nanos);
+        });
+        for (TwoLevelCache<?> cache : caches) {
+            cache.restoreFrom(snapshot);
+        }
+    }
+    
+    /**
+     * Write a new snapshot and atomically replace the previous one
+     */
+    public synchronized void write() throws IOException {
+        long start = System.nanoTime();
+        Path file = Path.of(config.getFile());
+        try (CacheSnapshot.Writer out = CacheSnapshot.create(file)) {
+            for (TwoLevelCache<?> cache : caches) {
+                cache.writeTo(out);
+            }
+            latencyTracker.samples().forEach((model, nanos) -> {
+                ByteBuffer value = ByteBuffer.allocate(nanos.length * Long.BYTES);
+                value.asLongBuffer().put(nanos);
+                out.append(LATENCY_SECTION, model, value);
+            });
+            out.commit();
+            log.info("Wrote {} snapshot records to {} in {} ms", out.records(), file,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+    }
+    
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            // The previous snapshot stays in place
+            log.error("Cannot write snapshot to {}", config.getFile(), e);
+        }
+    }
+}
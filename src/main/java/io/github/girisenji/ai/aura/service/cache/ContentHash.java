@@ -0,0 +1,39 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+/**
+ * 64-bit FNV-1a hashing of prompt text
+ *
+ * Cheap enough to run on every request and stable across JVMs, which
+ * makes it usable as a cache or sketch key shared between replicas.
+ */
+public final class ContentHash {
+    
+    public static final long SEED = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    
+    private ContentHash() {
+    }
+    
+    /**
+     * Hash a single string
+     */
+    public static long of(CharSequence text) {
+        return update(SEED, text);
+    }
+    
+    /**
+     * Fold a string into a running hash
+     */
+    public static long update(long hash, CharSequence text) {
+        if (text == null) {
+            return (hash ^ 0xff) * PRIME;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xff)) * PRIME;
+            hash = (hash ^ (c >>> 8)) * PRIME;
+        }
+        // Separator so that ("ab", "c") and ("a", "bc") hash differently
+        return (hash ^ 0x1f) * PRIME;
+    }
+}
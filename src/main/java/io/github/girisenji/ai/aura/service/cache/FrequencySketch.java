@@ -0,0 +1,70 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+/**
+ * Count-min sketch for estimating how often a 64-bit key has been seen
+ *
+ * Counters are halved once the number of increments reaches the sample
+ * size, so estimates reflect recent traffic rather than all-time totals.
+ */
+public class FrequencySketch {
+    
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+    
+    private final int[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+    
+    public FrequencySketch(int width) {
+        int size = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.table = new int[size * DEPTH];
+        this.mask = size - 1;
+        this.sampleSize = size * 10;
+    }
+    
+    /**
+     * Record one occurrence of the key and return its updated estimate
+     */
+    public synchronized int increment(long key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(key, row);
+            table[index]++;
+            estimate = Math.min(estimate, table[index]);
+        }
+        if (++additions >= sampleSize) {
+            reset();
+        }
+        return estimate;
+    }
+    
+    /**
+     * Estimated number of recent occurrences of the key
+     */
+    public synchronized int frequency(long key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table[indexOf(key, row)]);
+        }
+        return estimate;
+    }
+    
+    private int indexOf(long key, int row) {
+        long hash = (key ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        hash ^= hash >>> 32;
+        return row * (mask + 1) + ((int) hash & mask);
+    }
+    
+    /**
+     * Age all counters so that stale prefixes lose their standing
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Byte store in native memory, outside the garbage-collected heap
+ *
+ * Values live in fixed-size slots carved out of slabs allocated from a
+ * shared Arena, one set of slabs per power-of-two size class (256 B to
+ * 256 KiB); larger values are not stored. Only the key index is on the
+ * heap, so a multi-GB store adds almost nothing to GC work.
+ *
+ * Slabs are allocated on demand until the byte budget is spent, after
+ * which a full size class evicts with CLOCK: a sweep clears each slot's
+ * reference bit and reuses the first slot that was not read since the
+ * last pass. Slabs are never moved between size classes.
+ *
+ * Readers get a read-only view of the slot itself, valid only inside the
+ * callback, so a value can be decoded or written to a channel without
+ * first copying it onto the heap.
+ */
+public class OffHeapSlabStore implements AutoCloseable {
+    
+    private static final int MIN_SLOT_BYTES = 256;
+    private static final int MAX_SLOT_BYTES = 256 * 1024;
+    
+    private final Arena arena = Arena.ofShared();
+    private final SizeClass[] classes;
+    private final Map<String, Slot> index = new ConcurrentHashMap<>();
+    private final long maxBytes;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final Counter evictions;
+    
+    public OffHeapSlabStore(String name, long maxBytes, long slabBytes, MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        int count = Integer.numberOfTrailingZeros(MAX_SLOT_BYTES / MIN_SLOT_BYTES) + 1;
+        this.classes = new SizeClass[count];
+        for (int i = 0; i < count; i++) {
+            int slotBytes = MIN_SLOT_BYTES << i;
+            classes[i] = new SizeClass(slotBytes, (int) Math.max(1, slabBytes / slotBytes));
+        }
+        this.evictions = Counter.builder("aura.cache.offheap.evictions")
+            .tag("cache", name)
+            .register(meterRegistry);
+        Gauge.builder("aura.cache.offheap.bytes", allocatedBytes, AtomicLong::get)
+            .description("Native memory allocated for cache slabs")
+            .baseUnit("bytes")
+            .tag("cache", name)
+            .register(meterRegistry);
+        Gauge.builder("aura.cache.offheap.entries", index, Map::size)
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Where a value lives; generation tells a live slot from a reused one
+     */
+    private record Slot(SizeClass sizeClass, int slot, int generation, int length) {
+    }
+    
+    /**
+     * Store a value, replacing any previous one for the key
+     *
+     * @return false if the value is too large, or its size class has no
+     *     slab and the budget is spent
+     */
+    public boolean put(String key, byte[] value) {
+        SizeClass sizeClass = classFor(value.length);
+        Slot slot = sizeClass == null ? null : sizeClass.store(key, value);
+        Slot previous = slot == null ? index.remove(key) : index.put(key, slot);
+        if (previous != null) {
+            previous.sizeClass().release(previous);
+        }
+        return slot != null;
+    }
+    
+    /**
+     * Apply the reader to a read-only view of the stored bytes, or return null if absent
+     *
+     * The view must not escape the reader: the slot may be reused as soon
+     * as it returns.
+     */
+    public <T> T read(String key, Function<ByteBuffer, T> reader) {
+        Slot slot = index.get(key);
+        return slot == null ? null : slot.sizeClass().read(slot, reader);
+    }
+    
+    /**
+     * Visit every entry with the same short-lived view {@link #read} provides
+     */
+    public void forEach(BiConsumer<String, ByteBuffer> action) {
+        index.forEach((key, slot) -> slot.sizeClass().read(slot, view -> {
+            action.accept(key, view);
+            return null;
+        }));
+    }
+    
+    public void remove(String key) {
+        Slot slot = index.remove(key);
+        if (slot != null) {
+            slot.sizeClass().release(slot);
+        }
+    }
+    
+    public int size() {
+        return index.size();
+    }
+    
+    public long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+    
+    /**
+     * Free every slab; the store must not be used afterwards
+     */
+    @Override
+    public void close() {
+        index.clear();
+        arena.close();
+    }
+    
+    private SizeClass classFor(int length) {
+        if (length > MAX_SLOT_BYTES) {
+            return null;
+        }
+        int slotBytes = Math.max(MIN_SLOT_BYTES, Integer.highestOneBit(Math.max(1, length - 1)) << 1);
+        return classes[Integer.numberOfTrailingZeros(slotBytes / MIN_SLOT_BYTES)];
+    }
+    
+    /**
+     * Slabs of equal-sized slots with their own CLOCK hand
+     *
+     * Writers (store, release, eviction) hold the write lock; readers hold
+     * the read lock so a slot cannot be overwritten while it is being read.
+     */
+    private final class SizeClass {
+        
+        private final int slotBytes;
+        private final int slotsPerSlab;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<MemorySegment> slabs = new ArrayList<>();
+        private String[] keys = new String[0];
+        private int[] generations = new int[0];
+        // Benign races: a lost reference bit only makes eviction slightly less accurate
+        private boolean[] referenced = new boolean[0];
+        private int[] free = new int[0];
+        private int freeCount;
+        private int hand;
+        
+        SizeClass(int slotBytes, int slotsPerSlab) {
+            this.slotBytes = slotBytes;
+            this.slotsPerSlab = slotsPerSlab;
+        }
+        
+        Slot store(String key, byte[] value) {
+            lock.writeLock().lock();
+            try {
+                int slot = allocate();
+                if (slot < 0) {
+                    return null;
+                }
+                MemorySegment.copy(value, 0, segment(slot), ValueLayout.JAVA_BYTE, 0, value.length);
+                keys[slot] = key;
+                referenced[slot] = true;
+                return new Slot(this, slot, generations[slot], value.length);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        <T> T read(Slot slot, Function<ByteBuffer, T> reader) {
+            lock.readLock().lock();
+            try {
+                if (generations[slot.slot()] != slot.generation()) {
+                    return null;
+                }
+                referenced[slot.slot()] = true;
+                ByteBuffer view = segment(slot.slot()).asSlice(0, slot.length()).asByteBuffer().asReadOnlyBuffer();
+                return reader.apply(view);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        void release(Slot slot) {
+            lock.writeLock().lock();
+            try {
+                if (generations[slot.slot()] == slot.generation()) {
+                    free(slot.slot());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        private int allocate() {
+            if (freeCount == 0 && !grow() && !evict()) {
+                return -1;
+            }
+            return free[--freeCount];
+        }
+        
+        private boolean grow() {
+            long slabBytes = (long) slotBytes * slotsPerSlab;
+            if (allocatedBytes.addAndGet(slabBytes) > maxBytes) {
+                allocatedBytes.addAndGet(-slabBytes);
+                return false;
+            }
+            slabs.add(arena.allocate(slabBytes, 64));
+            int total = slabs.size() * slotsPerSlab;
+            keys = Arrays.copyOf(keys, total);
+            generations = Arrays.copyOf(generations, total);
+            referenced = Arrays.copyOf(referenced, total);
+            free = Arrays.copyOf(free, total);
+            for (int slot = total - 1; slot >= total - slotsPerSlab; slot--) {
+                free[freeCount++] = slot;
+            }
+            return true;
+        }
+        
+        /**
+         * CLOCK sweep: give referenced slots a second chance, evict the first that is not
+         */
+        private boolean evict() {
+            int total = keys.length;
+            for (int step = 0; step < 2 * total; step++) {
+                int slot = hand;
+                hand = (hand + 1) % total;
+                if (keys[slot] == null) {
+                    continue;
+                }
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                    continue;
+                }
+                int generation = generations[slot];
+                index.computeIfPresent(keys[slot], (key, current) ->
+                    current.sizeClass() == this && current.slot() == slot && current.generation() == generation
+                        ? null
+                        : current);
+                free(slot);
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+        
+        private void free(int slot) {
+            keys[slot] = null;
+            referenced[slot] = false;
+            generations[slot]++;
+            free[freeCount++] = slot;
+        }
+        
+        private MemorySegment segment(int slot) {
+            return slabs.get(slot / slotsPerSlab).asSlice((long) (slot % slotsPerSlab) * slotBytes, slotBytes);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.Message;
+
+/**
+ * Decides where to place provider prompt-cache breakpoints
+ *
+ * The stable prefix of a conversation is its run of leading system
+ * messages. Each prefix hash is counted in a frequency sketch, and a
+ * breakpoint is only recommended once the same prefix has been seen often
+ * enough to pay back the cache write premium charged by the provider.
+ */
+@Component
+public class PromptCacheAdvisor {
+    
+    private static final Logger log = LoggerFactory.getLogger(PromptCacheAdvisor.class);
+    
+    private final AuraConfigHolder config;
+    private final FrequencySketch sketch;
+    
+    public PromptCacheAdvisor(AuraConfigHolder config) {
+        this.config = config;
+        // Sketch width is fixed at startup so that reloads keep the learned frequencies
+        this.sketch = new FrequencySketch(config.properties().getPromptCache().getSketchWidth());
+    }
+    
+    /**
+     * Cache hint for a single request
+     */
+    public record CacheHint(boolean breakpoint, int prefixMessages, int prefixTokens) {
+        static final CacheHint NONE = new CacheHint(false, 0, 0);
+    }
+    
+    /**
+     * Record the request's stable prefix and advise whether to mark it cacheable
+     */
+    public CacheHint advise(List<Message> messages) {
+        AuraProperties.PromptCache settings = config.properties().getPromptCache();
+        if (!settings.isEnabled()) {
+            return CacheHint.NONE;
+        }
+        
+        int prefixMessages = 0;
+        int prefixChars = 0;
+        long hash = ContentHash.SEED;
+        for (Message message : messages) {
+            if (!"system".equals(message.role())) {
+                break;
+            }
+            prefixMessages++;
+            prefixChars += message.content().length();
+            hash = ContentHash.update(hash, message.content());
+        }
+        
+        // Rough approximation: 1 token ≈ 4 characters
+        int prefixTokens = prefixChars / 4;
+        if (prefixMessages == 0 || prefixTokens < settings.getMinPrefixTokens()) {
+            return CacheHint.NONE;
+        }
+        
+        int seen = sketch.increment(hash);
+        boolean breakpoint = seen >= settings.getMinOccurrences();
+        if (breakpoint) {
+            log.debug("Marking cache breakpoint after {} system messages (~{} tokens, seen {} times)",
+                prefixMessages, prefixTokens, seen);
+        }
+        return new CacheHint(breakpoint, prefixMessages, prefixTokens);
+    }
+}
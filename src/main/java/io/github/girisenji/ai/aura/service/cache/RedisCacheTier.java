@@ -0,0 +1,117 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+
+/**
+ * Redis-backed shared cache tier
+ *
+ * Values are stored as raw bytes under a prefixed key with a server-side
+ * TTL, and invalidations go over a pub/sub channel. Redis being slow or
+ * down degrades the cache to per-replica L1 only: every failure is logged
+ * and treated as a miss.
+ */
+@Component
+@ConditionalOnProperty(prefix = "aura.response-cache.redis", name = "enabled", havingValue = "true")
+public class RedisCacheTier implements RemoteCacheTier, SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheTier.class);
+    
+    private final RedisConnectionFactory connectionFactory;
+    private final String keyPrefix;
+    private final String channel;
+    private final RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    
+    public RedisCacheTier(RedisConnectionFactory connectionFactory, AuraProperties properties) {
+        AuraProperties.ResponseCache.Redis config = properties.getResponseCache().getRedis();
+        this.connectionFactory = connectionFactory;
+        this.keyPrefix = config.getKeyPrefix();
+        this.channel = config.getInvalidationChannel();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            listeners.forEach(listener -> listener.accept(body));
+        }, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+    }
+    
+    @Override
+    public byte[] get(String key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.stringCommands().get(key(key));
+        } catch (RuntimeException e) {
+            log.warn("Redis cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    @Override
+    public void set(String key, byte[] value, Duration ttl) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(key(key), value, Expiration.from(ttl),
+                RedisStringCommands.SetOption.upsert());
+        } catch (RuntimeException e) {
+            log.warn("Redis cache write failed: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void delete(String key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(key(key));
+        } catch (RuntimeException e) {
+            log.warn("Redis cache delete failed: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void publishInvalidation(String message) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.publish(channel.getBytes(StandardCharsets.UTF_8), message.getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.warn("Redis cache invalidation publish failed: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void start() {
+        listenerContainer.start();
+    }
+    
+    @Override
+    public void stop() {
+        listenerContainer.stop();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return listenerContainer.isRunning();
+    }
+    
+    private byte[] key(String key) {
+        return (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+    }
+}
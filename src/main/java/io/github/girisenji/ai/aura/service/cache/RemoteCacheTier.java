@@ -0,0 +1,32 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Shared second-level cache tier with an invalidation broadcast
+ *
+ * Implementations must not throw: an unavailable tier behaves like an
+ * empty one, so the cache degrades to L1-only rather than failing requests.
+ */
+public interface RemoteCacheTier {
+    
+    /**
+     * Stored bytes for the key, or null
+     */
+    byte[] get(String key);
+    
+    void set(String key, byte[] value, Duration ttl);
+    
+    void delete(String key);
+    
+    /**
+     * Tell every replica (including this one) to drop its local copy of the key
+     */
+    void publishInvalidation(String message);
+    
+    /**
+     * Register a listener for invalidation messages from any replica
+     */
+    void onInvalidation(Consumer<String> listener);
+}
@@ -0,0 +1,115 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Choice;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Usage;
+
+/**
+ * Compact binary encoding of a completion response
+ *
+ * A version byte, then the fields in record order as varints and
+ * deduplicated strings (see {@link WireWriter}). Roles, finish reasons and
+ * the usual model names come from a fixed dictionary, so an entry is
+ * little more than its content. Changing the layout or the dictionary
+ * needs a new version; entries in any other version are rejected and the
+ * cache treats them as misses.
+ */
+public class ResponseCodec implements CacheCodec<AuraResponse> {
+    
+    static final int VERSION = 1;
+    
+    // Part of version 1: append-only within a version, never reorder
+    static final List<String> DICTIONARY = List.of(
+        "system", "user", "assistant",
+        "chat.completion", "chat.completion.chunk",
+        "stop", "length", "content_filter", "tool_calls",
+        "gpt-4o", "gpt-4o-mini", "gpt-4-turbo", "gpt-3.5-turbo",
+        "claude-3-5-sonnet-20241022", "claude-3-sonnet-20240229", "claude-3-haiku-20240307");
+    
+    @Override
+    public byte[] encode(AuraResponse response) {
+        WireWriter out = new WireWriter(128, DICTIONARY);
+        out.writeByte(VERSION);
+        out.writeString(response.id());
+        out.writeString(response.object());
+        out.writeLong(response.created());
+        out.writeString(response.model());
+        out.writeInt(response.choices().size());
+        for (Choice choice : response.choices()) {
+            out.writeInt(choice.index());
+            writeMessage(out, choice.message());
+            out.writeString(choice.finishReason());
+            writeMessage(out, choice.delta());
+        }
+        writeUsage(out, response.usage());
+        out.writeString(response.systemFingerprint());
+        return out.toByteArray();
+    }
+    
+    @Override
+    public AuraResponse decode(ByteBuffer buffer) {
+        WireReader in = new WireReader(buffer, DICTIONARY);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported cached response version " + version);
+        }
+        String id = in.readString();
+        String object = in.readString();
+        long created = in.readLong();
+        String model = in.readString();
+        int count = in.readInt();
+        List<Choice> choices = new ArrayList<>(Math.min(count, 16));
+        for (int i = 0; i < count; i++) {
+            choices.add(new Choice(in.readInt(), readMessage(in), in.readString(), readMessage(in)));
+        }
+        Usage usage = readUsage(in);
+        return new AuraResponse(id, object, created, model, choices, usage, in.readString());
+    }
+    
+    private static void writeMessage(WireWriter out, Message message) {
+        out.writeBoolean(message != null);
+        if (message != null) {
+            out.writeString(message.role());
+            out.writeString(message.content());
+            out.writeString(message.name());
+        }
+    }
+    
+    private static Message readMessage(WireReader in) {
+        return in.readBoolean() ? new Message(in.readString(), in.readString(), in.readString()) : null;
+    }
+    
+    private static void writeUsage(WireWriter out, Usage usage) {
+        out.writeBoolean(usage != null);
+        if (usage == null) {
+            return;
+        }
+        out.writeInt(usage.promptTokens());
+        out.writeInt(usage.completionTokens());
+        out.writeInt(usage.totalTokens());
+        Usage.PromptTokensDetails details = usage.promptTokensDetails();
+        out.writeBoolean(details != null);
+        if (details != null) {
+            out.writeInt(details.cachedTokens());
+            out.writeInt(details.cacheCreationTokens());
+        }
+    }
+    
+    private static Usage readUsage(WireReader in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int prompt = in.readInt();
+        int completion = in.readInt();
+        int total = in.readInt();
+        Usage.PromptTokensDetails details = in.readBoolean()
+            ? new Usage.PromptTokensDetails(in.readInt(), in.readInt())
+            : null;
+        return new Usage(prompt, completion, total, details);
+    }
+}
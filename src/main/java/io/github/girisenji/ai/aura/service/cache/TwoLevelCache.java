@@ -0,0 +1,345 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process Caffeine cache (L1) in front of an optional shared tier (L2)
+ *
+ * Reads go L1, then L2, then the loader; concurrent misses for one key on
+ * a replica share a single load. Entries carry how long they took to
+ * compute, and each read refreshes early with a probability that rises as
+ * expiry approaches (XFetch), so a hot key is recomputed by one caller
+ * shortly before it expires instead of by every replica at once after.
+ * Writes and invalidations are broadcast so other replicas drop their L1
+ * copy and pick up the new value from L2.
+ *
+ * L1 holds decoded values in Caffeine, or with off-heap enabled the
+ * encoded entries in an {@link OffHeapSlabStore}, decoded in place on
+ * every hit.
+ */
+public class TwoLevelCache<V> implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCache.class);
+    
+    // Expiry (8 bytes) and compute time (8 bytes) in front of the codec payload
+    private static final int HEADER_BYTES = 16;
+    
+    private final String name;
+    private final CacheCodec<V> codec;
+    private final RemoteCacheTier remote;
+    private final Duration ttl;
+    private final double beta;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<String, Entry<V>> local;
+    private final OffHeapSlabStore offHeap;
+    private volatile CacheSnapshot snapshot = CacheSnapshot.empty();
+    private final Map<String, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter earlyRefreshes;
+    
+    /**
+     * @param remote shared tier, or null for an L1-only cache
+     */
+    public TwoLevelCache(String name, AuraProperties.ResponseCache config, CacheCodec<V> codec,
+            RemoteCacheTier remote, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.codec = codec;
+        this.remote = remote;
+        this.ttl = config.getTtl();
+        this.beta = config.getEarlyExpirationBeta();
+        this.meterRegistry = meterRegistry;
+        AuraProperties.ResponseCache.OffHeap offHeapConfig = config.getOffHeap();
+        if (offHeapConfig.isEnabled()) {
+            this.local = null;
+            this.offHeap = new OffHeapSlabStore(name, offHeapConfig.getMaxSize().toBytes(),
+                offHeapConfig.getSlabSize().toBytes(), meterRegistry);
+        } else {
+            this.local = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                // Timed from each write, so an entry refreshed early gets a fresh deadline
+                .expireAfter(Expiry.<String, Entry<V>>writing((key, entry) ->
+                    Duration.ofMillis(Math.max(0, entry.expiresAtMillis() - System.currentTimeMillis()))))
+                .build();
+            this.offHeap = null;
+        }
+        this.earlyRefreshes = Counter.builder("aura.cache.early_refresh")
+            .description("Entries recomputed before expiry by probabilistic early expiration")
+            .tag("cache", name)
+            .register(meterRegistry);
+        if (remote != null) {
+            remote.onInvalidation(this::onInvalidation);
+        }
+    }
+    
+    /**
+     * A cached value with the time it took to compute
+     */
+    record Entry<V>(V value, long computeMillis, long expiresAtMillis) {
+    }
+    
+    /**
+     * Cached value for the key, loading (and caching it, if accepted) on a miss
+     */
+    public V get(String key, Supplier<V> loader, Predicate<V> cacheable) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = readLocal(key, now);
+        if (entry != null) {
+            if (!shouldRefresh(entry, now)) {
+                record("l1", "hit");
+                return entry.value();
+            }
+        } else {
+            record("l1", "miss");
+            entry = readShared(key, now);
+            if (entry != null && !shouldRefresh(entry, now)) {
+                return entry.value();
+            }
+        }
+        if (entry != null) {
+            earlyRefreshes.increment();
+        }
+        
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            // Another caller is already loading: serve the still-valid value, or wait for theirs
+            return entry != null ? entry.value() : await(inFlight);
+        }
+        try {
+            long start = System.nanoTime();
+            V value = loader.get();
+            long computeMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            if (value != null && cacheable.test(value)) {
+                put(key, value, computeMillis);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+    
+    /**
+     * Drop the key from every replica and from the shared tier
+     */
+    public void invalidate(String key) {
+        invalidateLocal(key);
+        if (remote != null) {
+            remote.delete(remoteKey(key));
+            remote.publishInvalidation(invalidationMessage(key));
+        }
+    }
+    
+    /**
+     * XFetch: refresh when now - computeTime * beta * ln(rand) passes expiry
+     */
+    private boolean shouldRefresh(Entry<V> entry, long now) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        double headStart = entry.computeMillis() * beta * -Math.log(random);
+        return now + headStart >= entry.expiresAtMillis();
+    }
+    
+    private void put(String key, V value, long computeMillis) {
+        Entry<V> entry = new Entry<>(value, computeMillis, System.currentTimeMillis() + ttl.toMillis());
+        byte[] stored = remote != null || offHeap != null ? frame(entry) : null;
+        writeLocal(key, entry, stored);
+        if (remote == null) {
+            return;
+        }
+        try {
+            remote.set(remoteKey(key), stored, ttl);
+            remote.publishInvalidation(invalidationMessage(key));
+        } catch (RuntimeException e) {
+            log.warn("Cannot write {} entry to the shared tier: {}", name, e.getMessage());
+        }
+    }
+    
+    /**
+     * Entry from the startup snapshot or the shared tier, promoted to L1
+     */
+    private Entry<V> readShared(String key, long now) {
+        String level = "snapshot";
+        byte[] stored = snapshot.take(name, key);
+        Entry<V> entry = stored == null ? null : unframe(ByteBuffer.wrap(stored), now);
+        if (entry == null && remote != null) {
+            level = "l2";
+            stored = remote.get(remoteKey(key));
+            entry = stored == null ? null : unframe(ByteBuffer.wrap(stored), now);
+        }
+        if (entry == null) {
+            if (remote != null) {
+                record("l2", "miss");
+            }
+            return null;
+        }
+        writeLocal(key, entry, stored);
+        record(level, "hit");
+        return entry;
+    }
+    
+    private Entry<V> readLocal(String key, long now) {
+        if (offHeap == null) {
+            return local.getIfPresent(key);
+        }
+        Entry<V> entry = offHeap.read(key, buffer -> unframe(buffer, now));
+        if (entry == null) {
+            // Expired or unreadable: free the slot now rather than waiting for eviction
+            offHeap.remove(key);
+        }
+        return entry;
+    }
+    
+    /**
+     * @param stored the framed entry, required when L1 is off-heap
+     */
+    private void writeLocal(String key, Entry<V> entry, byte[] stored) {
+        snapshot.remove(name, key);
+        if (offHeap == null) {
+            local.put(key, entry);
+        } else {
+            offHeap.put(key, stored);
+        }
+    }
+    
+    private void invalidateLocal(String key) {
+        snapshot.remove(name, key);
+        if (offHeap == null) {
+            local.invalidate(key);
+        } else {
+            offHeap.remove(key);
+        }
+    }
+    
+    private byte[] frame(Entry<V> entry) {
+        byte[] payload = codec.encode(entry.value());
+        return ByteBuffer.allocate(HEADER_BYTES + payload.length)
+            .putLong(entry.expiresAtMillis())
+            .putLong(entry.computeMillis())
+            .put(payload)
+            .array();
+    }
+    
+    /**
+     * Decode a framed entry from the buffer's position, or null if it is expired or unreadable
+     */
+    private Entry<V> unframe(ByteBuffer buffer, long now) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        long expiresAt = buffer.getLong();
+        long computeMillis = buffer.getLong();
+        if (expiresAt <= now) {
+            return null;
+        }
+        try {
+            return new Entry<>(codec.decode(buffer), computeMillis, expiresAt);
+        } catch (IllegalArgumentException e) {
+            log.warn("Discarding unreadable {} entry: {}", name, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void onInvalidation(String message) {
+        // Format: <node id> <cache name>:<key>; a replica ignores its own writes
+        int space = message.indexOf(' ');
+        String prefix = name + ":";
+        if (space < 0 || message.startsWith(nodeId + " ") || !message.startsWith(prefix, space + 1)) {
+            return;
+        }
+        invalidateLocal(message.substring(space + 1 + prefix.length()));
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * Serve entries from a snapshot until they are read (and promoted to L1), replaced or expire
+     */
+    public void restoreFrom(CacheSnapshot snapshot) {
+        this.snapshot = snapshot;
+        log.info("Restored {} {} entries from snapshot", snapshot.size(name), name);
+    }
+    
+    /**
+     * Append every live L1 entry, and every snapshot entry not yet read back, to a new snapshot
+     */
+    public void writeTo(CacheSnapshot.Writer writer) {
+        long now = System.currentTimeMillis();
+        if (offHeap == null) {
+            local.asMap().forEach((key, entry) -> writer.append(name, key, frame(entry)));
+        } else {
+            offHeap.forEach((key, stored) -> {
+                if (stored.getLong(0) > now) {
+                    writer.append(name, key, stored);
+                }
+            });
+        }
+        snapshot.forEach(name, (key, stored) -> {
+            if (stored.getLong(0) > now) {
+                writer.append(name, key, stored);
+            }
+        });
+    }
+    
+    /**
+     * Release off-heap memory, if any
+     */
+    @Override
+    public void close() {
+        if (offHeap != null) {
+            offHeap.close();
+        }
+    }
+    
+    private String remoteKey(String key) {
+        return name + ":" + key;
+    }
+    
+    private String invalidationMessage(String key) {
+        return nodeId + " " + name + ":" + key;
+    }
+    
+    private V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private void record(String level, String result) {
+        Counter.builder("aura.cache.requests")
+            .tag("cache", name)
+            .tag("level", level)
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
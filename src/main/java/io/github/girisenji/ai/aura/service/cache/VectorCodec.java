@@ -0,0 +1,34 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Binary encoding of an embedding vector
+ *
+ * A version byte, the dimension as a varint, then raw little-endian
+ * float32 values: 4 bytes per dimension against roughly 10 as JSON text.
+ */
+public class VectorCodec implements CacheCodec<float[]> {
+    
+    static final int VERSION = 1;
+    
+    @Override
+    public byte[] encode(float[] vector) {
+        WireWriter out = new WireWriter(8 + vector.length * Float.BYTES, List.of());
+        out.writeByte(VERSION);
+        out.writeInt(vector.length);
+        out.writeFloats(vector);
+        return out.toByteArray();
+    }
+    
+    @Override
+    public float[] decode(ByteBuffer buffer) {
+        WireReader in = new WireReader(buffer, List.of());
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported cached vector version " + version);
+        }
+        return in.readFloats(in.readInt());
+    }
+}
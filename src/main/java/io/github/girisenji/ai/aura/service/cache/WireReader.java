@@ -0,0 +1,103 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@link WireWriter} format in place from a ByteBuffer
+ *
+ * Only string contents and float arrays are copied out; a heap buffer's
+ * string bytes are decoded straight from its backing array. Reading past
+ * the end or an unknown string reference is an IllegalArgumentException.
+ */
+final class WireReader {
+    
+    private final ByteBuffer buffer;
+    private final List<String> strings;
+    
+    WireReader(ByteBuffer buffer, List<String> dictionary) {
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.strings = new ArrayList<>(dictionary);
+    }
+    
+    int readByte() {
+        try {
+            return buffer.get() & 0xff;
+        } catch (BufferUnderflowException e) {
+            throw truncated();
+        }
+    }
+    
+    int readInt() {
+        long value = readLong();
+        if (value >>> 32 != 0) {
+            throw new IllegalArgumentException("Varint does not fit in an int");
+        }
+        return (int) value;
+    }
+    
+    long readLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+    
+    boolean readBoolean() {
+        return readByte() != 0;
+    }
+    
+    String readString() {
+        int tag = readInt();
+        if (tag == 0) {
+            return null;
+        }
+        if ((tag & 1) == 1) {
+            int index = tag >>> 1;
+            if (index >= strings.size()) {
+                throw new IllegalArgumentException("Unknown string reference " + index);
+            }
+            return strings.get(index);
+        }
+        int length = (tag >>> 1) - 1;
+        if (length > buffer.remaining()) {
+            throw truncated();
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            value = new String(utf8, StandardCharsets.UTF_8);
+        }
+        if (value.length() <= WireWriter.MAX_INTERNED_LENGTH) {
+            strings.add(value);
+        }
+        return value;
+    }
+    
+    float[] readFloats(int count) {
+        if (count < 0 || (long) count * Float.BYTES > buffer.remaining()) {
+            throw truncated();
+        }
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + count * Float.BYTES);
+        return values;
+    }
+    
+    private static IllegalArgumentException truncated() {
+        return new IllegalArgumentException("Truncated cache entry");
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growable buffer for the cache wire format
+ *
+ * Integers are unsigned LEB128 varints. Strings are written once and then
+ * referenced by index: the table starts with a fixed dictionary agreed by
+ * both sides, and every short string written inline is appended to it, so
+ * repeated roles and model names cost one or two bytes.
+ *
+ * String tags: 0 is null, odd is a table reference (index = tag >>> 1),
+ * even is an inline string of (tag >>> 1) - 1 UTF-8 bytes.
+ */
+final class WireWriter {
+    
+    /**
+     * Longest string (in chars) that is added to the table; longer ones are content and do not repeat
+     */
+    static final int MAX_INTERNED_LENGTH = 64;
+    
+    private byte[] bytes;
+    private int size;
+    private final Map<String, Integer> strings;
+    
+    WireWriter(int capacity, List<String> dictionary) {
+        this.bytes = new byte[capacity];
+        this.strings = new HashMap<>();
+        for (String entry : dictionary) {
+            strings.putIfAbsent(entry, strings.size());
+        }
+    }
+    
+    void writeByte(int value) {
+        ensure(1);
+        bytes[size++] = (byte) value;
+    }
+    
+    /**
+     * Unsigned varint; negative values round-trip but take five bytes
+     */
+    void writeInt(int value) {
+        writeLong(Integer.toUnsignedLong(value));
+    }
+    
+    void writeLong(long value) {
+        ensure(10);
+        while ((value & ~0x7fL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+    
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+    
+    void writeString(String value) {
+        if (value == null) {
+            writeInt(0);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeInt((index << 1) | 1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeInt((utf8.length + 1) << 1);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+        if (value.length() <= MAX_INTERNED_LENGTH) {
+            strings.put(value, strings.size());
+        }
+    }
+    
+    /**
+     * Raw little-endian floats, the layout vector math expects
+     */
+    void writeFloats(float[] values) {
+        ensure(values.length * Float.BYTES);
+        ByteBuffer.wrap(bytes, size, values.length * Float.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .asFloatBuffer()
+            .put(values);
+        size += values.length * Float.BYTES;
+    }
+    
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+    
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
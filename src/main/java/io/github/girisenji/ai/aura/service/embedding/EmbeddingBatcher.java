@@ -0,0 +1,136 @@
+package io.github.girisenji.ai.aura.service.embedding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Groups concurrent single-text embedding calls into batched model calls
+ *
+ * A dispatcher thread takes the first queued text, then keeps collecting
+ * until the batch is full or the first text has waited maxDelay, and
+ * runs the whole batch at once, one model call per requested output size.
+ * Under load batches fill immediately; when idle a lone caller waits at
+ * most maxDelay. The dispatcher is a virtual thread, so idle batchers cost
+ * no platform threads.
+ */
+public class EmbeddingBatcher implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingBatcher.class);
+    
+    private final String name;
+    private final BiFunction<Integer, List<String>, List<float[]>> model;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizes;
+    private final Thread dispatcher;
+    
+    /**
+     * @param model embeds a batch, returning one vector per input in order
+     */
+    public EmbeddingBatcher(String name, Function<List<String>, List<float[]>> model, int maxBatchSize,
+            Duration maxDelay, MeterRegistry meterRegistry) {
+        this(name, (dimensions, texts) -> model.apply(texts), maxBatchSize, maxDelay, meterRegistry);
+    }
+    
+    /**
+     * @param model embeds a batch at the given output size (null for the model default),
+     *              returning one vector per input in order
+     */
+    public EmbeddingBatcher(String name, BiFunction<Integer, List<String>, List<float[]>> model, int maxBatchSize,
+            Duration maxDelay, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.model = model;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batchSizes = DistributionSummary.builder("aura.embeddings.batch.size")
+            .description("Inputs per embedding model call")
+            .tag("model", name)
+            .register(meterRegistry);
+        this.dispatcher = Thread.ofVirtual().name("aura-embeddings-" + name).start(this::dispatch);
+    }
+    
+    private record Pending(String text, Integer dimensions, CompletableFuture<float[]> result) {
+    }
+    
+    /**
+     * Queue a text for the next batch
+     */
+    public CompletableFuture<float[]> submit(String text) {
+        return submit(text, null);
+    }
+    
+    /**
+     * Queue a text for the next batch, to be embedded at the given output size
+     */
+    public CompletableFuture<float[]> submit(String text, Integer dimensions) {
+        CompletableFuture<float[]> result = new CompletableFuture<>();
+        queue.add(new Pending(text, dimensions, result));
+        return result;
+    }
+    
+    @Override
+    public void close() {
+        dispatcher.interrupt();
+    }
+    
+    private void dispatch() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                // Requests for different output sizes share the wait but not the model call
+                Map<Integer, List<Pending>> bySize = new LinkedHashMap<>();
+                for (Pending pending : batch) {
+                    bySize.computeIfAbsent(pending.dimensions(), size -> new ArrayList<>()).add(pending);
+                }
+                bySize.forEach(this::run);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException closed = new IllegalStateException("Embedding batcher " + name + " is closed");
+            batch.forEach(pending -> pending.result().completeExceptionally(closed));
+            queue.forEach(pending -> pending.result().completeExceptionally(closed));
+        }
+    }
+    
+    private void run(Integer dimensions, List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<float[]> vectors = model.apply(dimensions, batch.stream().map(Pending::text).toList());
+            if (vectors.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " vectors, got " + vectors.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(vectors.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Embedding batch of {} on {} failed: {}", batch.size(), name, e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.girisenji.ai.aura.service.embedding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.stereotype.Service;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.EmbeddingRequest;
+import io.github.girisenji.ai.aura.model.EmbeddingResponse;
+import io.github.girisenji.ai.aura.service.cache.ContentHash;
+import io.github.girisenji.ai.aura.service.cache.TwoLevelCache;
+import io.github.girisenji.ai.aura.service.provider.OpenAIProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * OpenAI-compatible embeddings, served locally where possible
+ *
+ * Requests for the local model (or no model) at its native size run on
+ * the in-process ONNX model; other models and sizes, or every request
+ * when the local model is missing, go to OpenAI. Each input is looked up
+ * in the embedding cache on its own, and the misses from all concurrent
+ * callers are grouped into shared batches per target model. Only the local
+ * model and the configured upstream models are accepted, so the number of
+ * batchers stays fixed.
+ */
+@Service
+public class EmbeddingService {
+    
+    private final AuraProperties.Embeddings config;
+    private final LocalEmbeddingModel localModel;
+    private final OpenAIProvider openai;
+    private final TwoLevelCache<float[]> cache;
+    private final MeterRegistry meterRegistry;
+    // One per model: requests for other sizes share the model's batcher
+    private final Map<Target, EmbeddingBatcher> batchers = new ConcurrentHashMap<>();
+    
+    public EmbeddingService(
+            AuraProperties properties,
+            LocalEmbeddingModel localModel,
+            OpenAIProvider openai,
+            TwoLevelCache<float[]> embeddingCache,
+            MeterRegistry meterRegistry) {
+        this.config = properties.getEmbeddings();
+        this.localModel = localModel;
+        this.openai = openai;
+        this.cache = embeddingCache;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Model that serves a request; dimensions is null for the model default
+     */
+    record Target(boolean local, String model, Integer dimensions) {
+    }
+    
+    public EmbeddingResponse embed(EmbeddingRequest request) {
+        if (!config.isEnabled()) {
+            throw new IllegalStateException("Embeddings are disabled");
+        }
+        validate(request);
+        
+        Target target = route(request);
+        EmbeddingBatcher batcher = batchers.computeIfAbsent(
+            new Target(target.local(), target.model(), null), this::newBatcher);
+        List<String> inputs = request.input();
+        List<float[]> vectors = new ArrayList<>(inputs.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<float[]>> results = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                if (!config.getCache().isEnabled()) {
+                    results.add(batcher.submit(input, target.dimensions()));
+                    continue;
+                }
+                String key = target.model() + ":" + target.dimensions() + ":" + Long.toHexString(ContentHash.of(input));
+                results.add(CompletableFuture.supplyAsync(
+                    () -> cache.get(key, () -> batcher.submit(input, target.dimensions()).join(), vector -> true),
+                    executor));
+            }
+            for (CompletableFuture<float[]> result : results) {
+                vectors.add(result.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        
+        boolean base64 = EmbeddingRequest.BASE64.equals(request.encodingFormat());
+        List<EmbeddingResponse.Embedding> data = new ArrayList<>(vectors.size());
+        int promptTokens = 0;
+        for (int i = 0; i < vectors.size(); i++) {
+            data.add(new EmbeddingResponse.Embedding(i, base64 ? toBase64(vectors.get(i)) : vectors.get(i)));
+            // Rough approximation: 1 token ≈ 4 characters
+            promptTokens += inputs.get(i).length() / 4;
+        }
+        return EmbeddingResponse.of(target.model(), data, promptTokens);
+    }
+    
+    /**
+     * Local when the request fits the local model and it is loaded, otherwise upstream
+     */
+    Target route(EmbeddingRequest request) {
+        boolean wantsLocal = request.model() == null || request.model().equals(config.getLocalModel());
+        boolean nativeSize = request.dimensions() == null || request.dimensions() == config.getDimensions();
+        if (wantsLocal && nativeSize && localModel.isAvailable()) {
+            return new Target(true, config.getLocalModel(), null);
+        }
+        String model = wantsLocal ? config.getUpstreamModel() : request.model();
+        Integer dimensions = wantsLocal && request.dimensions() == null ? config.getDimensions() : request.dimensions();
+        return new Target(false, model, dimensions);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        batchers.values().forEach(EmbeddingBatcher::close);
+    }
+    
+    private void validate(EmbeddingRequest request) {
+        List<String> inputs = request.input();
+        if (inputs == null || inputs.isEmpty()) {
+            throw new IllegalArgumentException("input must not be empty");
+        }
+        if (inputs.size() > config.getMaxInputs()) {
+            throw new IllegalArgumentException("input must have at most " + config.getMaxInputs() + " items");
+        }
+        for (String input : inputs) {
+            if (input == null || input.isEmpty()) {
+                throw new IllegalArgumentException("input must not contain empty strings");
+            }
+        }
+        if (request.dimensions() != null
+                && (request.dimensions() <= 0 || request.dimensions() > config.getMaxDimensions())) {
+            throw new IllegalArgumentException("dimensions must be between 1 and " + config.getMaxDimensions());
+        }
+        if (request.model() != null && !request.model().equals(config.getLocalModel())
+                && !request.model().equals(config.getUpstreamModel())
+                && !config.getUpstreamModels().contains(request.model())) {
+            throw new IllegalArgumentException("model " + request.model() + " is not available for embeddings");
+        }
+        if (request.encodingFormat() != null && !request.encodingFormat().equals("float")
+                && !request.encodingFormat().equals(EmbeddingRequest.BASE64)) {
+            throw new IllegalArgumentException("encoding_format must be float or base64");
+        }
+    }
+    
+    private EmbeddingBatcher newBatcher(Target target) {
+        if (target.local()) {
+            return new EmbeddingBatcher(target.model(), localModel::embed,
+                config.getMaxBatchSize(), config.getMaxBatchDelay(), meterRegistry);
+        }
+        return new EmbeddingBatcher(target.model(),
+            (dimensions, texts) -> openai.embed(texts, target.model(), dimensions),
+            config.getMaxBatchSize(), config.getMaxBatchDelay(), meterRegistry);
+    }
+    
+    /**
+     * Little-endian float32 values, as OpenAI returns for encoding_format=base64
+     */
+    private static String toBase64(float[] vector) {
+        ByteBuffer bytes = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asFloatBuffer().put(vector);
+        return Base64.getEncoder().encodeToString(bytes.array());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.girisenji.ai.aura.service.embedding;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import ai.djl.huggingface.translator.TextEmbeddingTranslatorFactory;
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ZooModel;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sentence embeddings from the MiniLM ONNX model via DJL
+ *
+ * Uses the classifier's model unless aura.embeddings.model-path is set.
+ * Loaded by StartupWarmup in the background, or by the first request if
+ * that comes sooner. When the model file is missing, or in a native
+ * image where ONNX Runtime is unavailable, the model reports itself
+ * unavailable and requests go upstream instead.
+ */
+@Component
+public class LocalEmbeddingModel {
+    
+    private static final Logger log = LoggerFactory.getLogger(LocalEmbeddingModel.class);
+    
+    private final AuraProperties.Embeddings config;
+    private final String classifierModelPath;
+    
+    private volatile boolean loaded;
+    private ZooModel<String, float[]> model;
+    private Predictor<String, float[]> predictor;
+    
+    public LocalEmbeddingModel(AuraProperties properties) {
+        this.config = properties.getEmbeddings();
+        this.classifierModelPath = properties.getClassifier().getModelPath();
+    }
+    
+    /**
+     * Load the model if it is present; safe to call more than once
+     */
+    public synchronized void initialize() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        String configured = config.getModelPath() != null ? config.getModelPath() : classifierModelPath;
+        Path path = configured == null ? null : Path.of(configured);
+        if (NativeDetector.inNativeImage() || path == null || !Files.exists(path)) {
+            log.info("Local embedding model not available at {}, embeddings will be served upstream", path);
+            return;
+        }
+        try {
+            Criteria<String, float[]> criteria = Criteria.builder()
+                .setTypes(String.class, float[].class)
+                .optModelPath(path)
+                .optEngine("OnnxRuntime")
+                .optTranslatorFactory(new TextEmbeddingTranslatorFactory())
+                .optArgument("pooling", "mean")
+                .optArgument("normalize", "true")
+                .build();
+            model = criteria.loadModel();
+            predictor = model.newPredictor();
+            log.info("Loaded local embedding model {} from {}", config.getLocalModel(), path);
+        } catch (Exception e) {
+            log.error("Failed to load local embedding model from {}", path, e);
+        }
+    }
+    
+    public boolean isAvailable() {
+        if (!loaded) {
+            initialize();
+        }
+        return predictor != null;
+    }
+    
+    /**
+     * Embed a batch in one forward pass; only called from the batcher thread
+     */
+    public synchronized List<float[]> embed(List<String> texts) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Local embedding model is not available");
+        }
+        try {
+            return predictor.batchPredict(texts);
+        } catch (Exception e) {
+            throw new IllegalStateException("Local embedding failed: " + e.getMessage(), e);
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void close() {
+        if (predictor != null) {
+            predictor.close();
+            model.close();
+        }
+    }
+}
@@ -1,27 +1,44 @@
 package io.github.girisenji.ai.aura.service.provider;
 
+import java.net.http.HttpRequest;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
 import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Choice;
 import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Role;
 import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.cache.PromptCacheAdvisor;
+import io.github.girisenji.ai.aura.service.cache.PromptCacheAdvisor.CacheHint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.anthropic.AnthropicChatModel;
+import dev.langchain4j.model.anthropic.AnthropicTokenUsage;
+import dev.langchain4j.model.anthropic.internal.client.AnthropicHttpException;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
 
 /**
  * Anthropic provider implementation using LangChain4j
@@ -31,53 +48,90 @@ public class AnthropicProvider implements LLMProvider {
     
     private static final Logger log = LoggerFactory.getLogger(AnthropicProvider.class);
     
-    private final AuraProperties properties;
-    private ChatLanguageModel chatModel;
-    private boolean enabled = false;
+    private static final String PROMPT_CACHING_BETA = "prompt-caching-2024-07-31";
+    private static final String ANTHROPIC_VERSION = "2023-06-01";
+    private static final int DEFAULT_MAX_TOKENS = 1024;
+    
+    private final AuraConfigHolder config;
+    private final PromptCacheAdvisor cacheAdvisor;
+    private final MeterRegistry meterRegistry;
+    
+    // Settings and the clients built from them, swapped as a unit when the configuration is reloaded
+    private volatile Clients clients = new Clients(new AuraProperties.Anthropic(), EndpointPool.empty("anthropic"));
     
-    public AnthropicProvider(AuraProperties properties) {
-        this.properties = properties;
+    public AnthropicProvider(AuraConfigHolder config, PromptCacheAdvisor cacheAdvisor, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.cacheAdvisor = cacheAdvisor;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Settings and the pool of keys and endpoints they configure
+     */
+    private record Clients(AuraProperties.Anthropic settings, EndpointPool<Map<String, ChatLanguageModel>> pool) {
+        boolean enabled() {
+            return !pool.isEmpty();
+        }
     }
     
     @PostConstruct
     public void initialize() {
-        String apiKey = properties.getProviders().getAnthropic().getApiKey();
+        clients = connect(config.properties().getProviders());
+        config.subscribe(snapshot -> clients = connect(snapshot.properties().getProviders()));
+    }
+    
+    private Clients connect(AuraProperties.Providers providers) {
+        AuraProperties.Anthropic settings = providers.getAnthropic();
+        // One client per model, plus a variant with a cache breakpoint on the system prompt, for each member
+        EndpointPool<Map<String, ChatLanguageModel>> pool = new EndpointPool<>(name(), settings.getApiKey(),
+            settings.getBaseUrl(), settings.getEndpoints(), providers.getEndpointHealth(), meterRegistry,
+            ConcurrentHashMap::new);
         
-        if (apiKey == null || apiKey.isEmpty() || apiKey.startsWith("${")) {
+        if (pool.isEmpty()) {
             log.warn("Anthropic API key not configured. Anthropic provider disabled.");
-            return;
+        } else if (pool.members().size() > 1) {
+            log.info("Anthropic calls spread over {} endpoints", pool.members().size());
         }
         
+        // Clients are built on first use, or ahead of traffic by warmUp()
+        return new Clients(settings, pool);
+    }
+    
+    @Override
+    public void warmUp() {
+        Clients current = clients;
+        if (!current.enabled()) {
+            return;
+        }
         try {
-            chatModel = AnthropicChatModel.builder()
-                .apiKey(apiKey)
-                .modelName(properties.getProviders().getAnthropic().getModels().getBalanced())
-                .timeout(properties.getProviders().getAnthropic().getTimeout())
-                .maxRetries(properties.getProviders().getAnthropic().getMaxRetries())
-                .logRequests(true)
-                .logResponses(true)
-                .build();
-            
-            enabled = true;
+            for (EndpointPool.Member<Map<String, ChatLanguageModel>> member : current.pool().members()) {
+                chatModel(current, member, current.settings().getModels().getBalanced(), false);
+            }
             log.info("Anthropic provider initialized successfully");
         } catch (Exception e) {
             log.error("Failed to initialize Anthropic provider", e);
         }
     }
     
+    @Override
+    public String name() {
+        return "anthropic";
+    }
+    
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return clients.enabled();
     }
     
     @Override
     public boolean supportsModel(String modelName) {
-        return enabled && modelName.startsWith("claude-");
+        return clients.enabled() && modelName.startsWith("claude-");
     }
     
     @Override
     public AuraResponse generate(AuraRequest request, String modelName) {
-        if (!enabled) {
+        Clients current = clients;
+        if (!current.enabled()) {
             throw new IllegalStateException("Anthropic provider is not enabled");
         }
         
@@ -85,35 +139,161 @@ public class AnthropicProvider implements LLMProvider {
             // Convert messages
             List<ChatMessage> messages = convertMessages(request.messages());
             
-            // Call Anthropic
-            Response<AiMessage> response = chatModel.generate(messages);
+            // Mark the system prompt as a cache breakpoint once it has proven to be reused
+            CacheHint hint = cacheAdvisor.advise(request.messages());
+            
+            // Call Anthropic with the least loaded key
+            Response<AiMessage> response = current.pool().call(member -> {
+                try {
+                    return chatModel(current, member, modelName, hint.breakpoint()).generate(messages);
+                } catch (RuntimeException e) {
+                    throw withStatus(e);
+                }
+            });
             
             // Convert response
             String content = response.content().text();
-            Usage usage = new Usage(
-                estimateTokens(request.messages()),
-                estimateTokens(content),
-                estimateTokens(request.messages()) + estimateTokens(content)
-            );
+            Usage usage = toUsage(response.tokenUsage(), request.messages(), content);
             
             return AuraResponse.create(modelName, content, usage);
             
+        } catch (ProviderHttpException e) {
+            log.error("Error calling Anthropic", e);
+            throw e;
         } catch (Exception e) {
             log.error("Error calling Anthropic", e);
             throw new RuntimeException("Failed to generate response from Anthropic: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * The HTTP status of a client error, kept so the pool and the router can
+     * tell throttling and outages from bad requests
+     */
+    private static RuntimeException withStatus(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AnthropicHttpException http && http.statusCode() != null) {
+                return new ProviderHttpException(http.statusCode(), http.getMessage(), null, e);
+            }
+        }
+        return e;
+    }
+    
     @Override
-    public void generateStreaming(AuraRequest request, String modelName, Consumer<String> chunkConsumer) {
-        if (!enabled) {
-            throw new IllegalStateException("Anthropic provider is not enabled");
+    public Flux<String> stream(AuraRequest request, String modelName) {
+        Clients current = clients;
+        if (!current.enabled()) {
+            return Flux.error(new IllegalStateException("Anthropic provider is not enabled"));
         }
         
-        // TODO: Implement streaming
-        AuraResponse response = generate(request, modelName);
-        String json = serializeResponse(response);
-        chunkConsumer.accept(json);
+        AuraProperties.Anthropic settings = current.settings();
+        CacheHint hint = cacheAdvisor.advise(request.messages());
+        Map<String, Object> body = streamingBody(request, modelName, hint.breakpoint());
+        
+        // Translate Messages API events into OpenAI chat.completion.chunk events
+        return current.pool().stream(member -> {
+            HttpRequest.Builder builder = SseStreams.post(member.baseUrl() + "/v1/messages", body, settings.getTimeout())
+                .header("x-api-key", member.apiKey())
+                .header("anthropic-version", ANTHROPIC_VERSION);
+            if (hint.breakpoint()) {
+                builder.header("anthropic-beta", PROMPT_CACHING_BETA);
+            }
+            StreamTranslator translator = new StreamTranslator(modelName);
+            return SseStreams.dataEvents(builder.build()).<String>handle((data, sink) -> {
+                String chunk = translator.translate(data);
+                if (chunk != null) {
+                    sink.next(chunk);
+                }
+            });
+        });
+    }
+    
+    /**
+     * Messages API request body; system messages become the top-level system prompt
+     */
+    private Map<String, Object> streamingBody(AuraRequest request, String modelName, boolean cacheSystemPrompt) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", modelName);
+        body.put("max_tokens", request.maxTokens() != null ? request.maxTokens() : DEFAULT_MAX_TOKENS);
+        
+        String system = request.messages().stream()
+            .filter(m -> m.roleType() == Role.SYSTEM)
+            .map(Message::content)
+            .collect(Collectors.joining("\n\n"));
+        if (!system.isEmpty()) {
+            body.put("system", cacheSystemPrompt
+                ? List.of(Map.of("type", "text", "text", system, "cache_control", Map.of("type", "ephemeral")))
+                : system);
+        }
+        body.put("messages", request.messages().stream()
+            .filter(m -> m.roleType() == Role.USER || m.roleType() == Role.ASSISTANT)
+            .map(m -> Map.of("role", m.role(), "content", m.content()))
+            .toList());
+        // Anthropic accepts temperatures in [0, 1]
+        body.put("temperature", Math.min(1.0, request.temperature()));
+        if (request.stop() != null && !request.stop().isEmpty()) {
+            body.put("stop_sequences", request.stop());
+        }
+        body.put("stream", true);
+        return body;
+    }
+    
+    /**
+     * Get or build the client for a model, optionally caching the system prompt
+     */
+    private ChatLanguageModel chatModel(Clients clients, EndpointPool.Member<Map<String, ChatLanguageModel>> member,
+            String modelName, boolean cacheSystemPrompt) {
+        String key = cacheSystemPrompt ? modelName + "#cached" : modelName;
+        return member.clients().computeIfAbsent(key, k -> {
+            AuraProperties.Anthropic settings = clients.settings();
+            AnthropicChatModel.AnthropicChatModelBuilder builder = AnthropicChatModel.builder()
+                .apiKey(member.apiKey())
+                .modelName(modelName)
+                .timeout(settings.getTimeout())
+                // langchain4j counts attempts: one call, retries are the router's decision
+                .maxRetries(1)
+                .logRequests(true)
+                .logResponses(true);
+            if (member.baseUrl() != null) {
+                // The client's base URL includes the API version, unlike the configured one
+                builder.baseUrl(member.baseUrl() + "/v1/");
+            }
+            if (cacheSystemPrompt) {
+                builder.beta(PROMPT_CACHING_BETA).cacheSystemMessages(true);
+            }
+            return builder.build();
+        });
+    }
+    
+    /**
+     * Convert provider token usage, splitting out prompt-cache reads and writes.
+     * Anthropic reports cached tokens separately from input_tokens, so the
+     * prompt total is the sum of all three.
+     */
+    private Usage toUsage(TokenUsage tokenUsage, List<Message> messages, String content) {
+        if (tokenUsage == null || tokenUsage.inputTokenCount() == null) {
+            int promptTokens = estimateTokens(messages);
+            int completionTokens = estimateTokens(content);
+            return new Usage(promptTokens, completionTokens, promptTokens + completionTokens);
+        }
+        
+        int cacheRead = 0;
+        int cacheCreation = 0;
+        if (tokenUsage instanceof AnthropicTokenUsage anthropicUsage) {
+            cacheRead = valueOrZero(anthropicUsage.cacheReadInputTokens());
+            cacheCreation = valueOrZero(anthropicUsage.cacheCreationInputTokens());
+        }
+        
+        int promptTokens = tokenUsage.inputTokenCount() + cacheRead + cacheCreation;
+        int completionTokens = valueOrZero(tokenUsage.outputTokenCount());
+        Usage.PromptTokensDetails details = (cacheRead > 0 || cacheCreation > 0)
+            ? new Usage.PromptTokensDetails(cacheRead, cacheCreation)
+            : null;
+        return new Usage(promptTokens, completionTokens, promptTokens + completionTokens, details);
+    }
+    
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
     }
     
     /**
@@ -123,18 +303,11 @@ public class AnthropicProvider implements LLMProvider {
         List<ChatMessage> converted = new ArrayList<>();
         
         for (Message msg : messages) {
-            switch (msg.role().toLowerCase()) {
-                case "system":
-                    converted.add(new SystemMessage(msg.content()));
-                    break;
-                case "user":
-                    converted.add(new UserMessage(msg.content()));
-                    break;
-                case "assistant":
-                    converted.add(new AiMessage(msg.content()));
-                    break;
-                default:
-                    log.warn("Unknown message role: {}", msg.role());
+            switch (msg.roleType()) {
+                case SYSTEM -> converted.add(new SystemMessage(msg.content()));
+                case USER -> converted.add(new UserMessage(msg.content()));
+                case ASSISTANT -> converted.add(new AiMessage(msg.content()));
+                default -> log.warn("Unsupported message role: {}", msg.role());
             }
         }
         
@@ -151,10 +324,78 @@ public class AnthropicProvider implements LLMProvider {
         return text.length() / 4;
     }
     
-    private String serializeResponse(AuraResponse response) {
-        return String.format(
-            "{\"id\":\"%s\",\"object\":\"%s\",\"created\":%d,\"model\":\"%s\"}",
-            response.id(), response.object(), response.created(), response.model()
-        );
+    /**
+     * Per-stream state for converting Anthropic stream events to OpenAI chunks
+     */
+    private class StreamTranslator {
+        
+        private final String id = "chatcmpl-" + System.currentTimeMillis();
+        private final long created = System.currentTimeMillis() / 1000;
+        private final String modelName;
+        private int inputTokens;
+        private int cacheRead;
+        private int cacheCreation;
+        private int outputTokens;
+        private String finishReason = "stop";
+        
+        StreamTranslator(String modelName) {
+            this.modelName = modelName;
+        }
+        
+        /**
+         * Chunk JSON for one event, or null if the event produces no output
+         */
+        String translate(String data) {
+            JsonNode event;
+            try {
+                event = SseStreams.JSON.readTree(data);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Malformed Anthropic stream event", e);
+            }
+            
+            switch (event.path("type").asText()) {
+                case "message_start" -> {
+                    JsonNode usage = event.path("message").path("usage");
+                    inputTokens = usage.path("input_tokens").asInt();
+                    cacheRead = usage.path("cache_read_input_tokens").asInt();
+                    cacheCreation = usage.path("cache_creation_input_tokens").asInt();
+                    return null;
+                }
+                case "content_block_delta" -> {
+                    String text = event.path("delta").path("text").asText("");
+                    return text.isEmpty() ? null : chunk(text, null, null);
+                }
+                case "message_delta" -> {
+                    finishReason = switch (event.path("delta").path("stop_reason").asText("")) {
+                        case "max_tokens" -> "length";
+                        default -> "stop";
+                    };
+                    outputTokens = event.path("usage").path("output_tokens").asInt(outputTokens);
+                    return null;
+                }
+                case "message_stop" -> {
+                    int promptTokens = inputTokens + cacheRead + cacheCreation;
+                    Usage.PromptTokensDetails details = (cacheRead > 0 || cacheCreation > 0)
+                        ? new Usage.PromptTokensDetails(cacheRead, cacheCreation)
+                        : null;
+                    return chunk("", finishReason,
+                        new Usage(promptTokens, outputTokens, promptTokens + outputTokens, details));
+                }
+                case "error" -> {
+                    JsonNode error = event.path("error");
+                    int status = "overloaded_error".equals(error.path("type").asText()) ? 529 : 500;
+                    throw new ProviderHttpException(status, error.path("message").asText());
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+        
+        private String chunk(String content, String finish, Usage usage) {
+            Choice choice = Choice.streaming(0, new Message("assistant", content, null), finish);
+            return SseStreams.toJson(new AuraResponse(
+                id, "chat.completion.chunk", created, modelName, List.of(choice), usage, null));
+        }
     }
 }
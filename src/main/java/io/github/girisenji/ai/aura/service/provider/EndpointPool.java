@@ -0,0 +1,278 @@
+package io.github.girisenji.ai.aura.service.provider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * Keys and endpoints one provider spreads its calls over
+ *
+ * Each call goes to the member with the fewest requests in flight for its
+ * weight, skipping members that are benched. A member that is throttled
+ * (429) or whose key is rejected (401/403) is benched and the call moves
+ * to another member at once, so a pool of keys scales past one account's
+ * rate limits without the router seeing the throttling. Server errors and
+ * timeouts are passed on, and enough of them in a row bench the member.
+ * When every member is benched the one that recovers soonest is tried
+ * anyway rather than failing the call outright.
+ *
+ * @param <C> clients built for each member
+ */
+final class EndpointPool<C> {
+    
+    private static final Logger log = LoggerFactory.getLogger(EndpointPool.class);
+    
+    /**
+     * One key at one endpoint, with the clients built for it
+     */
+    static final class Member<C> {
+        private final String name;
+        private final String apiKey;
+        private final String baseUrl;
+        private final int weight;
+        private final C clients;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        // System.nanoTime() until which the member sits out
+        private volatile long benchedUntil = System.nanoTime();
+        
+        private Member(String name, String apiKey, String baseUrl, int weight, C clients) {
+            this.name = name;
+            this.apiKey = apiKey;
+            this.baseUrl = baseUrl;
+            this.weight = Math.max(1, weight);
+            this.clients = clients;
+        }
+        
+        String name() {
+            return name;
+        }
+        
+        String apiKey() {
+            return apiKey;
+        }
+        
+        String baseUrl() {
+            return baseUrl;
+        }
+        
+        C clients() {
+            return clients;
+        }
+        
+        int outstanding() {
+            return outstanding.get();
+        }
+        
+        boolean isBenched(long now) {
+            return benchedUntil - now > 0;
+        }
+    }
+    
+    private final String provider;
+    private final List<Member<C>> members;
+    private final AuraProperties.EndpointHealth health;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger cursor = new AtomicInteger();
+    
+    /**
+     * Pool of the configured endpoints, or of the provider's own key and
+     * URL when none are configured; members without a usable key are left out
+     */
+    EndpointPool(String provider, String apiKey, String baseUrl, List<AuraProperties.Endpoint> endpoints,
+            AuraProperties.EndpointHealth health, MeterRegistry meterRegistry, Supplier<C> clients) {
+        this.provider = provider;
+        this.health = health;
+        this.meterRegistry = meterRegistry;
+        List<Member<C>> pool = new ArrayList<>();
+        if (endpoints == null || endpoints.isEmpty()) {
+            if (isUsable(apiKey)) {
+                pool.add(new Member<>("0", apiKey, baseUrl, 1, clients.get()));
+            }
+        } else {
+            for (int i = 0; i < endpoints.size(); i++) {
+                AuraProperties.Endpoint endpoint = endpoints.get(i);
+                String key = endpoint.getApiKey() != null ? endpoint.getApiKey() : apiKey;
+                if (!isUsable(key)) {
+                    continue;
+                }
+                pool.add(new Member<>(endpoint.getName() != null ? endpoint.getName() : String.valueOf(i), key,
+                    endpoint.getBaseUrl() != null ? endpoint.getBaseUrl() : baseUrl, endpoint.getWeight(),
+                    clients.get()));
+            }
+        }
+        this.members = List.copyOf(pool);
+    }
+    
+    /**
+     * Pool without members, for a provider that has not been configured yet
+     */
+    static <C> EndpointPool<C> empty(String provider) {
+        return new EndpointPool<>(provider, null, null, List.of(), new AuraProperties.EndpointHealth(), null, () -> null);
+    }
+    
+    private static boolean isUsable(String apiKey) {
+        return apiKey != null && !apiKey.isEmpty() && !apiKey.startsWith("${");
+    }
+    
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+    
+    List<Member<C>> members() {
+        return members;
+    }
+    
+    /**
+     * Make a call on the least loaded member, moving to another member if it is throttled
+     */
+    <R> R call(Function<Member<C>, R> call) {
+        List<Member<C>> tried = new ArrayList<>(1);
+        Member<C> member = select(tried, true);
+        while (true) {
+            Member<C> current = member;
+            current.outstanding.incrementAndGet();
+            try {
+                R result = call.apply(current);
+                current.failures.set(0);
+                return result;
+            } catch (RuntimeException e) {
+                if (!recordFailure(current, e)) {
+                    throw e;
+                }
+                tried.add(current);
+                member = select(tried, false);
+                if (member == null) {
+                    throw e;
+                }
+                log.info("{} endpoint {} unavailable, moving to {}", provider, current.name, member.name);
+            } finally {
+                current.outstanding.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Stream from the least loaded member, moving to another member if it is
+     * throttled before the first chunk. The member counts as busy until the
+     * stream ends or is cancelled.
+     */
+    Flux<String> stream(Function<Member<C>, Flux<String>> call) {
+        return Flux.defer(() -> streamFrom(select(List.of(), true), new ArrayList<>(1), call));
+    }
+    
+    private Flux<String> streamFrom(Member<C> member, List<Member<C>> tried, Function<Member<C>, Flux<String>> call) {
+        AtomicBoolean started = new AtomicBoolean();
+        return Flux.using(
+                () -> {
+                    member.outstanding.incrementAndGet();
+                    return member;
+                },
+                held -> call.apply(held).doOnNext(chunk -> started.set(true)),
+                held -> held.outstanding.decrementAndGet())
+            .doOnComplete(() -> member.failures.set(0))
+            .onErrorResume(e -> {
+                if (!recordFailure(member, e) || started.get()) {
+                    return Flux.error(e);
+                }
+                tried.add(member);
+                Member<C> next = select(tried, false);
+                if (next == null) {
+                    return Flux.error(e);
+                }
+                log.info("{} endpoint {} unavailable, moving to {}", provider, member.name, next.name);
+                return streamFrom(next, tried, call);
+            });
+    }
+    
+    /**
+     * Member with the fewest requests in flight for its weight, starting the
+     * scan at a rotating position so ties are shared out
+     *
+     * @param allowBenched whether to fall back to the benched member that recovers soonest
+     * @return the member, or null if none is left
+     */
+    Member<C> select(List<Member<C>> exclude, boolean allowBenched) {
+        long now = System.nanoTime();
+        int size = members.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        Member<C> best = null;
+        double bestLoad = Double.MAX_VALUE;
+        Member<C> soonest = null;
+        for (int i = 0; i < size; i++) {
+            Member<C> member = members.get((start + i) % size);
+            if (exclude.contains(member)) {
+                continue;
+            }
+            if (member.isBenched(now)) {
+                if (soonest == null || member.benchedUntil - soonest.benchedUntil < 0) {
+                    soonest = member;
+                }
+                continue;
+            }
+            double load = (double) member.outstanding.get() / member.weight;
+            if (load < bestLoad) {
+                best = member;
+                bestLoad = load;
+            }
+        }
+        return best != null ? best : allowBenched ? soonest : null;
+    }
+    
+    /**
+     * Update the member's health after a failed call
+     *
+     * @return true if another member should be tried, because this one is throttled or its key was rejected
+     */
+    private boolean recordFailure(Member<C> member, Throwable error) {
+        ProviderHttpException http = httpError(error);
+        int status = http != null ? http.getStatusCode() : -1;
+        if (status == 429) {
+            bench(member, http.getRetryAfter().orElse(health.getThrottleCooldown()), "throttled");
+            return true;
+        }
+        if (status == 401 || status == 403) {
+            bench(member, health.getEjectionCooldown(), "rejected");
+            return true;
+        }
+        // Server errors and failures without a response count against the member; bad requests do not
+        if ((status < 0 || status >= 500) && member.failures.incrementAndGet() >= health.getFailureThreshold()) {
+            member.failures.set(0);
+            bench(member, health.getEjectionCooldown(), "failing");
+        }
+        return false;
+    }
+    
+    private void bench(Member<C> member, Duration duration, String reason) {
+        member.benchedUntil = System.nanoTime() + duration.toNanos();
+        log.warn("Benching {} endpoint {} for {} ({})", provider, member.name, duration, reason);
+        Counter.builder("aura.provider.endpoint.benched")
+            .description("Times a pooled provider endpoint was taken out of rotation")
+            .tag("provider", provider)
+            .tag("endpoint", member.name)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+    
+    private static ProviderHttpException httpError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProviderHttpException http) {
+                return http;
+            }
+        }
+        return null;
+    }
+}
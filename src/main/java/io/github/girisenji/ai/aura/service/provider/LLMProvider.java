@@ -1,15 +1,22 @@
 package io.github.girisenji.ai.aura.service.provider;
 
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
+import reactor.core.publisher.Flux;
 
 /**
  * Interface for LLM providers
  */
 public interface LLMProvider {
     
+    /**
+     * Short provider name used in configuration and metrics (e.g. "openai")
+     */
+    String name();
+    
     /**
      * Check if this provider is enabled and configured
      */
@@ -20,13 +27,32 @@ public interface LLMProvider {
      */
     boolean supportsModel(String modelName);
     
+    /**
+     * Build clients and load classes ahead of the first request; called once
+     * in the background after startup
+     */
+    default void warmUp() {
+    }
+    
     /**
      * Generate a non-streaming response
      */
     AuraResponse generate(AuraRequest request, String modelName);
     
     /**
-     * Generate a streaming response
+     * Stream a response as OpenAI-compatible chunk JSON, one element per SSE event.
+     * The upstream request is only sent on subscription, is read no faster than
+     * the subscriber requests, and is aborted when the subscription is cancelled.
+     */
+    Flux<String> stream(AuraRequest request, String modelName);
+    
+    /**
+     * Generate a streaming response, blocking the calling thread until it ends
      */
-    void generateStreaming(AuraRequest request, String modelName, Consumer<String> chunkConsumer);
+    default void generateStreaming(AuraRequest request, String modelName, Consumer<String> chunkConsumer) {
+        // Small prefetch so a slow consumer holds back the upstream read
+        try (Stream<String> chunks = stream(request, modelName).toStream(8)) {
+            chunks.forEach(chunkConsumer);
+        }
+    }
 }
@@ -1,27 +1,37 @@
 package io.github.girisenji.ai.aura.service.provider;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
 import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
 import io.github.girisenji.ai.aura.model.Message;
 import io.github.girisenji.ai.aura.model.Usage;
 
+import dev.ai4j.openai4j.OpenAiHttpException;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
 import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
 
 /**
  * OpenAI provider implementation using LangChain4j
@@ -31,53 +41,91 @@ public class OpenAIProvider implements LLMProvider {
     
     private static final Logger log = LoggerFactory.getLogger(OpenAIProvider.class);
     
-    private final AuraProperties properties;
-    private ChatLanguageModel chatModel;
-    private boolean enabled = false;
+    private final AuraConfigHolder config;
+    private final MeterRegistry meterRegistry;
     
-    public OpenAIProvider(AuraProperties properties) {
-        this.properties = properties;
+    // Settings and the clients built from them, swapped as a unit when the configuration is reloaded
+    private volatile Clients clients = new Clients(new AuraProperties.OpenAI(), EndpointPool.empty("openai"));
+    
+    public OpenAIProvider(AuraConfigHolder config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Settings and the pool of keys and endpoints they configure
+     */
+    private record Clients(AuraProperties.OpenAI settings, EndpointPool<ModelClients> pool) {
+        boolean enabled() {
+            return !pool.isEmpty();
+        }
+    }
+    
+    /**
+     * One client per model so that routing decisions pick the model actually called
+     */
+    private record ModelClients(Map<String, ChatLanguageModel> chatModels, Map<String, EmbeddingModel> embeddingModels) {
+        ModelClients() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
     }
     
     @PostConstruct
     public void initialize() {
-        String apiKey = properties.getProviders().getOpenai().getApiKey();
+        clients = connect(config.properties().getProviders());
+        config.subscribe(snapshot -> clients = connect(snapshot.properties().getProviders()));
+    }
+    
+    private Clients connect(AuraProperties.Providers providers) {
+        AuraProperties.OpenAI settings = providers.getOpenai();
+        EndpointPool<ModelClients> pool = new EndpointPool<>(name(), settings.getApiKey(), settings.getBaseUrl(),
+            settings.getEndpoints(), providers.getEndpointHealth(), meterRegistry, ModelClients::new);
         
-        if (apiKey == null || apiKey.isEmpty() || apiKey.startsWith("${")) {
+        if (pool.isEmpty()) {
             log.warn("OpenAI API key not configured. OpenAI provider disabled.");
-            return;
+        } else if (pool.members().size() > 1) {
+            log.info("OpenAI calls spread over {} endpoints", pool.members().size());
         }
         
+        // Clients are built on first use, or ahead of traffic by warmUp()
+        return new Clients(settings, pool);
+    }
+    
+    @Override
+    public void warmUp() {
+        Clients current = clients;
+        if (!current.enabled()) {
+            return;
+        }
         try {
-            chatModel = OpenAiChatModel.builder()
-                .apiKey(apiKey)
-                .modelName(properties.getProviders().getOpenai().getModels().getBalanced())
-                .timeout(properties.getProviders().getOpenai().getTimeout())
-                .maxRetries(properties.getProviders().getOpenai().getMaxRetries())
-                .logRequests(true)
-                .logResponses(true)
-                .build();
-            
-            enabled = true;
+            for (EndpointPool.Member<ModelClients> member : current.pool().members()) {
+                chatModel(current, member, current.settings().getModels().getBalanced());
+            }
             log.info("OpenAI provider initialized successfully");
         } catch (Exception e) {
             log.error("Failed to initialize OpenAI provider", e);
         }
     }
     
+    @Override
+    public String name() {
+        return "openai";
+    }
+    
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return clients.enabled();
     }
     
     @Override
     public boolean supportsModel(String modelName) {
-        return enabled && (modelName.startsWith("gpt-") || modelName.equals("o1"));
+        return clients.enabled() && (modelName.startsWith("gpt-") || modelName.equals("o1"));
     }
     
     @Override
     public AuraResponse generate(AuraRequest request, String modelName) {
-        if (!enabled) {
+        Clients current = clients;
+        if (!current.enabled()) {
             throw new IllegalStateException("OpenAI provider is not enabled");
         }
         
@@ -85,8 +133,14 @@ public class OpenAIProvider implements LLMProvider {
             // Convert messages
             List<ChatMessage> messages = convertMessages(request.messages());
             
-            // Call OpenAI
-            Response<AiMessage> response = chatModel.generate(messages);
+            // Call OpenAI with the least loaded key
+            Response<AiMessage> response = current.pool().call(member -> {
+                try {
+                    return chatModel(current, member, modelName).generate(messages);
+                } catch (RuntimeException e) {
+                    throw withStatus(e);
+                }
+            });
             
             // Convert response
             String content = response.content().text();
@@ -98,23 +152,123 @@ public class OpenAIProvider implements LLMProvider {
             
             return AuraResponse.create(modelName, content, usage);
             
+        } catch (ProviderHttpException e) {
+            log.error("Error calling OpenAI", e);
+            throw e;
         } catch (Exception e) {
             log.error("Error calling OpenAI", e);
             throw new RuntimeException("Failed to generate response from OpenAI: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * The HTTP status of a client error, kept so the pool and the router can
+     * tell throttling and outages from bad requests
+     */
+    private static RuntimeException withStatus(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OpenAiHttpException http) {
+                return new ProviderHttpException(http.code(), http.getMessage(), null, e);
+            }
+        }
+        return e;
+    }
+    
     @Override
-    public void generateStreaming(AuraRequest request, String modelName, Consumer<String> chunkConsumer) {
-        if (!enabled) {
+    public Flux<String> stream(AuraRequest request, String modelName) {
+        Clients current = clients;
+        if (!current.enabled()) {
+            return Flux.error(new IllegalStateException("OpenAI provider is not enabled"));
+        }
+        
+        AuraProperties.OpenAI settings = current.settings();
+        Map<String, Object> body = streamingBody(request, modelName);
+        
+        // OpenAI already emits chat.completion.chunk events; forward them as-is
+        return current.pool().stream(member -> SseStreams.dataEvents(
+                SseStreams.post(member.baseUrl() + "/chat/completions", body, settings.getTimeout())
+                    .header("Authorization", "Bearer " + member.apiKey())
+                    .build()))
+            .doOnSubscribe(s -> log.debug("Opening OpenAI stream for model {}", modelName));
+    }
+    
+    /**
+     * Embed a batch of texts with an OpenAI embedding model
+     *
+     * @param dimensions output size for models that support shortening, or null for the model default
+     */
+    public List<float[]> embed(List<String> texts, String modelName, Integer dimensions) {
+        Clients current = clients;
+        if (!current.enabled()) {
             throw new IllegalStateException("OpenAI provider is not enabled");
         }
         
-        // TODO: Implement streaming with LangChain4j streaming API
-        // For now, fall back to non-streaming
-        AuraResponse response = generate(request, modelName);
-        String json = serializeResponse(response);
-        chunkConsumer.accept(json);
+        List<TextSegment> segments = texts.stream().map(TextSegment::from).toList();
+        Response<List<Embedding>> response = current.pool().call(member -> {
+            try {
+                return embeddingModel(current, member, modelName, dimensions).embedAll(segments);
+            } catch (RuntimeException e) {
+                throw withStatus(e);
+            }
+        });
+        return response.content().stream().map(Embedding::vector).toList();
+    }
+    
+    /**
+     * Chat completions request body with streaming and final usage reporting enabled
+     */
+    private Map<String, Object> streamingBody(AuraRequest request, String modelName) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", modelName);
+        body.put("messages", request.messages().stream()
+            .map(m -> Map.of("role", m.role(), "content", m.content()))
+            .toList());
+        body.put("stream", true);
+        body.put("stream_options", Map.of("include_usage", true));
+        body.put("temperature", request.temperature());
+        body.put("top_p", request.topP());
+        if (request.maxTokens() != null) {
+            body.put("max_tokens", request.maxTokens());
+        }
+        if (request.stop() != null && !request.stop().isEmpty()) {
+            body.put("stop", request.stop());
+        }
+        return body;
+    }
+    
+    /**
+     * Get or build the client for a model
+     */
+    private ChatLanguageModel chatModel(Clients clients, EndpointPool.Member<ModelClients> member, String modelName) {
+        return member.clients().chatModels().computeIfAbsent(modelName, name -> {
+            AuraProperties.OpenAI settings = clients.settings();
+            return OpenAiChatModel.builder()
+                .apiKey(member.apiKey())
+                .baseUrl(member.baseUrl())
+                .modelName(name)
+                .timeout(settings.getTimeout())
+                // langchain4j counts attempts: one call, retries are the router's decision
+                .maxRetries(1)
+                .logRequests(true)
+                .logResponses(true)
+                .build();
+        });
+    }
+    
+    private EmbeddingModel embeddingModel(Clients clients, EndpointPool.Member<ModelClients> member, String modelName,
+            Integer dimensions) {
+        return member.clients().embeddingModels().computeIfAbsent(modelName + ":" + dimensions, key -> {
+            AuraProperties.OpenAI settings = clients.settings();
+            return OpenAiEmbeddingModel.builder()
+                .apiKey(member.apiKey())
+                .baseUrl(member.baseUrl())
+                .modelName(modelName)
+                .dimensions(dimensions)
+                .timeout(settings.getTimeout())
+                // One attempt here too: the endpoint pool already moves a throttled call to another key
+                .maxRetries(1)
+                .build();
+        });
     }
     
     /**
@@ -124,18 +278,11 @@ public class OpenAIProvider implements LLMProvider {
         List<ChatMessage> converted = new ArrayList<>();
         
         for (Message msg : messages) {
-            switch (msg.role().toLowerCase()) {
-                case "system":
-                    converted.add(new SystemMessage(msg.content()));
-                    break;
-                case "user":
-                    converted.add(new UserMessage(msg.content()));
-                    break;
-                case "assistant":
-                    converted.add(new AiMessage(msg.content()));
-                    break;
-                default:
-                    log.warn("Unknown message role: {}", msg.role());
+            switch (msg.roleType()) {
+                case SYSTEM -> converted.add(new SystemMessage(msg.content()));
+                case USER -> converted.add(new UserMessage(msg.content()));
+                case ASSISTANT -> converted.add(new AiMessage(msg.content()));
+                default -> log.warn("Unsupported message role: {}", msg.role());
             }
         }
         
@@ -155,15 +302,4 @@ public class OpenAIProvider implements LLMProvider {
         // Rough approximation: 1 token ≈ 4 characters
         return text.length() / 4;
     }
-    
-    /**
-     * Serialize response to JSON
-     */
-    private String serializeResponse(AuraResponse response) {
-        // TODO: Use proper JSON serialization
-        return String.format(
-            "{\"id\":\"%s\",\"object\":\"%s\",\"created\":%d,\"model\":\"%s\"}",
-            response.id(), response.object(), response.created(), response.model()
-        );
-    }
 }
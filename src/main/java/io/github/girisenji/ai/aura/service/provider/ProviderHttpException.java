@@ -0,0 +1,38 @@
+package io.github.girisenji.ai.aura.service.provider;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Non-2xx response from a provider's HTTP API
+ */
+public class ProviderHttpException extends RuntimeException {
+    
+    private final int statusCode;
+    private final Duration retryAfter;
+    
+    public ProviderHttpException(int statusCode, String message) {
+        this(statusCode, message, null, null);
+    }
+    
+    /**
+     * @param retryAfter how long the provider asked us to wait, or null if it did not say
+     * @param cause the client library's exception, or null
+     */
+    public ProviderHttpException(int statusCode, String message, Duration retryAfter, Throwable cause) {
+        super("Provider returned HTTP " + statusCode + ": " + message, cause);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+    
+    public int getStatusCode() {
+        return statusCode;
+    }
+    
+    /**
+     * Delay from the response's Retry-After header, when there was one
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.girisenji.ai.aura.service.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server-sent event streaming from provider HTTP APIs
+ *
+ * The response body is consumed as a {@code Flow.Publisher} and adapted to
+ * a Flux, so downstream demand propagates to the upstream socket (nothing
+ * is read faster than the client consumes it) and cancelling the
+ * subscription aborts the HTTP exchange.
+ */
+final class SseStreams {
+    
+    static final ObjectMapper JSON = new ObjectMapper();
+    
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+    
+    private SseStreams() {
+    }
+    
+    /**
+     * JSON POST that asks for an event stream
+     */
+    static HttpRequest.Builder post(String uri, Object body, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+            .header("Content-Type", "application/json")
+            .header("Accept", "text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(toJson(body)));
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        return builder;
+    }
+    
+    /**
+     * Payloads of the {@code data:} lines of the response, ending at {@code [DONE]} or end of body
+     */
+    static Flux<String> dataEvents(HttpRequest request) {
+        return Mono.fromFuture(() -> CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofPublisher()), false)
+            .flatMapMany(response -> {
+                Flux<List<ByteBuffer>> body = JdkFlowAdapter.flowPublisherToFlux(response.body());
+                if (response.statusCode() / 100 != 2) {
+                    return lines(body)
+                        .collectList()
+                        .flatMapMany(lines -> Flux.error(
+                            new ProviderHttpException(response.statusCode(), String.join("\n", lines),
+                                retryAfter(response.headers()), null)));
+                }
+                return lines(body);
+            })
+            .<String>handle((line, sink) -> {
+                if (!line.startsWith(DATA_PREFIX)) {
+                    // event:, id:, retry: and comment lines carry nothing we forward
+                    return;
+                }
+                String data = line.substring(DATA_PREFIX.length()).trim();
+                if (DONE.equals(data)) {
+                    sink.complete();
+                } else if (!data.isEmpty()) {
+                    sink.next(data);
+                }
+            });
+    }
+    
+    /**
+     * Delay asked for by a Retry-After header, in seconds or as an HTTP date, or null
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.firstValue("Retry-After").orElse(null);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so it should be a date
+        }
+        try {
+            Instant until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration delay = Duration.between(Instant.now(), until);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+    
+    /**
+     * Split a byte stream into UTF-8 lines without copying whole buffers into strings
+     */
+    private static Flux<String> lines(Flux<List<ByteBuffer>> body) {
+        return Flux.defer(() -> {
+            LineDecoder decoder = new LineDecoder();
+            return body.concatMapIterable(decoder::decode)
+                .concatWith(Mono.fromSupplier(decoder::remainder).filter(line -> !line.isEmpty()));
+        });
+    }
+    
+    private static class LineDecoder {
+        
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(256);
+        
+        List<String> decode(List<ByteBuffer> buffers) {
+            List<String> lines = new ArrayList<>();
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        lines.add(remainder());
+                    } else {
+                        pending.write(b);
+                    }
+                }
+            }
+            return lines;
+        }
+        
+        String remainder() {
+            String line = pending.toString(StandardCharsets.UTF_8);
+            pending.reset();
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+    }
+}
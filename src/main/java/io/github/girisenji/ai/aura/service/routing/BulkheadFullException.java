@@ -0,0 +1,11 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+/**
+ * Thrown when every candidate model for a request is at its concurrency limit
+ */
+public class BulkheadFullException extends RuntimeException {
+    
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
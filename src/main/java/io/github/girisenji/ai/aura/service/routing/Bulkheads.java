@@ -0,0 +1,208 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-provider and per-model concurrency limits for upstream calls
+ *
+ * Virtual threads make it cheap to have thousands of requests in flight,
+ * but provider quotas are not. A call must hold a slot in both its
+ * provider's and its model's bulkhead; when either is full after the
+ * configured wait, the router overflows to the next model in the chain.
+ * A configuration reload resizes existing compartments in place, so calls
+ * already holding a slot are still counted against the new limit.
+ */
+@Component
+public class Bulkheads {
+    
+    private final AuraConfigHolder config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+    
+    public Bulkheads(AuraConfigHolder config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        config.subscribe(snapshot -> reconfigure(snapshot.properties().getBulkhead()));
+    }
+    
+    /**
+     * Try to reserve a slot for a call to the given provider and model
+     *
+     * @return the lease to close when the call finishes, or empty if either bulkhead is full
+     */
+    public Optional<Lease> tryAcquire(String provider, String model) throws InterruptedException {
+        AuraProperties.Bulkhead bulkhead = config.properties().getBulkhead();
+        if (!bulkhead.isEnabled()) {
+            return Optional.of(Lease.NONE);
+        }
+        
+        Compartment providerCompartment = compartment("provider", provider, providerLimit(bulkhead, provider));
+        Compartment modelCompartment = compartment("model", model, bulkhead.getModels().get(model));
+        
+        if (providerCompartment != null && !providerCompartment.tryAcquire()) {
+            return Optional.empty();
+        }
+        if (modelCompartment != null && !modelCompartment.tryAcquire()) {
+            if (providerCompartment != null) {
+                providerCompartment.release();
+            }
+            return Optional.empty();
+        }
+        return Optional.of(new Lease(providerCompartment, modelCompartment));
+    }
+    
+    private static AuraProperties.Bulkhead.Limit providerLimit(AuraProperties.Bulkhead bulkhead, String provider) {
+        return bulkhead.getProviders().getOrDefault(provider, bulkhead.getDefaultProvider());
+    }
+    
+    private Compartment compartment(String kind, String name, AuraProperties.Bulkhead.Limit limit) {
+        if (limit == null || limit.getMaxInFlight() <= 0) {
+            return null;
+        }
+        return compartments.computeIfAbsent(kind + ":" + name, key -> {
+            Compartment compartment = new Compartment(limit.getMaxInFlight(), limit.getMaxWait(),
+                Counter.builder("aura.bulkhead.rejected")
+                    .tag("kind", kind)
+                    .tag("name", name)
+                    .register(meterRegistry));
+            compartment.meters = List.of(
+                compartment.rejected,
+                Gauge.builder("aura.bulkhead.in_flight", compartment, Compartment::inFlight)
+                    .tag("kind", kind)
+                    .tag("name", name)
+                    .register(meterRegistry),
+                Gauge.builder("aura.bulkhead.utilization", compartment, c -> (double) c.inFlight() / c.maxInFlight)
+                    .tag("kind", kind)
+                    .tag("name", name)
+                    .register(meterRegistry));
+            return compartment;
+        });
+    }
+    
+    /**
+     * Apply reloaded limits to the compartments created so far
+     */
+    private void reconfigure(AuraProperties.Bulkhead bulkhead) {
+        compartments.forEach((key, compartment) -> {
+            String name = key.substring(key.indexOf(':') + 1);
+            AuraProperties.Bulkhead.Limit limit = key.startsWith("provider:")
+                ? providerLimit(bulkhead, name)
+                : bulkhead.getModels().get(name);
+            if (limit == null || limit.getMaxInFlight() <= 0) {
+                // Unlimited now: leases already issued still release into the detached compartment
+                compartments.remove(key);
+                compartment.meters.forEach(meterRegistry::remove);
+            } else {
+                compartment.resize(limit.getMaxInFlight(), limit.getMaxWait());
+            }
+        });
+    }
+    
+    private static class Compartment {
+        
+        private final ResizableSemaphore slots;
+        private final Counter rejected;
+        private volatile int maxInFlight;
+        private volatile Duration maxWait;
+        private List<Meter> meters = List.of();
+        
+        Compartment(int maxInFlight, Duration maxWait, Counter rejected) {
+            this.slots = new ResizableSemaphore(maxInFlight);
+            this.maxInFlight = maxInFlight;
+            this.maxWait = maxWait;
+            this.rejected = rejected;
+        }
+        
+        boolean tryAcquire() throws InterruptedException {
+            Duration wait = maxWait;
+            boolean acquired = wait.isZero()
+                ? slots.tryAcquire()
+                : slots.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejected.increment();
+            }
+            return acquired;
+        }
+        
+        void release() {
+            slots.release();
+        }
+        
+        int inFlight() {
+            return maxInFlight - slots.availablePermits();
+        }
+        
+        /**
+         * Change the limit; shrinking below the current in-flight count
+         * drives the available permits negative until enough calls finish
+         */
+        synchronized void resize(int newMaxInFlight, Duration newMaxWait) {
+            int delta = newMaxInFlight - maxInFlight;
+            if (delta > 0) {
+                slots.release(delta);
+            } else if (delta < 0) {
+                slots.reducePermits(-delta);
+            }
+            maxInFlight = newMaxInFlight;
+            maxWait = newMaxWait;
+        }
+    }
+    
+    private static class ResizableSemaphore extends Semaphore {
+        
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+        
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+    
+    /**
+     * Slots held for one upstream call; closing releases them
+     */
+    public static class Lease implements AutoCloseable {
+        
+        static final Lease NONE = new Lease(null, null);
+        
+        private final Compartment provider;
+        private final Compartment model;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        private Lease(Compartment provider, Compartment model) {
+            this.provider = provider;
+            this.model = model;
+        }
+        
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (model != null) {
+                model.release();
+            }
+            if (provider != null) {
+                provider.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Role;
+import io.github.girisenji.ai.aura.service.cache.ContentHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fits conversations into each model's context window before dispatch
+ *
+ * Prompts are measured with the model family's real tokenizer (o200k for
+ * the GPT-4o and o-series models, cl100k as the approximation for the
+ * rest) against the configured window, less room for the completion.
+ * A request that is too long keeps its system messages and latest turns
+ * and either drops the oldest turns or replaces them with a summary
+ * written by an ECO model. Summaries cover whole blocks of turns, so the
+ * next turn of the same session finds its summary in the cache instead
+ * of paying for a new one.
+ *
+ * A model that cannot hold even the kept messages is skipped, and when no
+ * model in the chain can, the configured overflow model is tried last.
+ */
+@Component
+public class ContextWindowManager {
+    
+    private static final Logger log = LoggerFactory.getLogger(ContextWindowManager.class);
+    
+    // Per-message framing tokens and the tokens that prime the reply (OpenAI's chat format)
+    private static final int MESSAGE_OVERHEAD = 4;
+    private static final int REPLY_PRIMING = 3;
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+    private static final String SUMMARY_INSTRUCTIONS =
+        "Summarize the conversation below for an assistant that will continue it. Keep facts, decisions, "
+        + "names, numbers and open questions; drop pleasantries. Answer with the summary only.";
+    
+    private final AuraConfigHolder config;
+    private final MeterRegistry meterRegistry;
+    private final EncodingRegistry encodings = Encodings.newLazyEncodingRegistry();
+    private final Cache<Long, String> summaries;
+    
+    public ContextWindowManager(AuraConfigHolder config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.summaries = Caffeine.newBuilder()
+            .maximumSize(config.properties().getContextWindow().getSummaryCacheSize())
+            .build();
+    }
+    
+    /**
+     * The models to try, with the overflow model appended when none of them can hold the request
+     */
+    public List<String> candidates(AuraRequest request, List<String> models) {
+        AuraProperties.ContextWindow settings = config.properties().getContextWindow();
+        String overflow = settings.getOverflowModel();
+        if (!settings.isEnabled() || overflow == null || overflow.isBlank() || models.contains(overflow)) {
+            return models;
+        }
+        for (String model : models) {
+            if (minimumTokens(request, model, settings) <= budget(request, model, settings)) {
+                return models;
+            }
+        }
+        log.info("No model in {} can hold the request, adding overflow model {}", models, overflow);
+        List<String> extended = new ArrayList<>(models);
+        extended.add(overflow);
+        return extended;
+    }
+    
+    /**
+     * The request to send to a model: unchanged if it fits, trimmed or summarised if not
+     *
+     * @param summarizer writes a summary for the given request, or returns null;
+     *     with no summarizer, old turns are always dropped
+     * @return null if the model cannot hold the system messages and latest turns
+     */
+    public AuraRequest fit(AuraRequest request, String model, Function<AuraRequest, String> summarizer) {
+        AuraProperties.ContextWindow settings = config.properties().getContextWindow();
+        if (!settings.isEnabled()) {
+            return request;
+        }
+        
+        Encoding encoding = encoding(model);
+        List<Message> messages = request.messages();
+        int[] tokens = new int[messages.size()];
+        int total = REPLY_PRIMING;
+        for (int i = 0; i < messages.size(); i++) {
+            tokens[i] = count(encoding, messages.get(i));
+            total += tokens[i];
+        }
+        int budget = budget(request, model, settings);
+        if (total <= budget) {
+            return request;
+        }
+        
+        // Turns that may be dropped: every non-system message except the latest few
+        int required = REPLY_PRIMING;
+        List<Integer> turns = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i).roleType() == Role.SYSTEM) {
+                required += tokens[i];
+            } else {
+                turns.add(i);
+            }
+        }
+        int droppable = Math.max(0, turns.size() - settings.getKeepLastMessages());
+        for (int t = droppable; t < turns.size(); t++) {
+            required += tokens[turns.get(t)];
+        }
+        if (required > budget) {
+            log.info("Request of {} tokens cannot fit {} (window budget {}), skipping it", total, model, budget);
+            counter(model, "skipped").increment();
+            return null;
+        }
+        
+        if (settings.getPolicy() == AuraProperties.ContextWindow.Policy.SUMMARIZE && summarizer != null) {
+            AuraRequest summarized = summarize(request, model, encoding, tokens, turns, droppable, required,
+                budget, settings, summarizer);
+            if (summarized != null) {
+                counter(model, "summarized").increment();
+                return summarized;
+            }
+        }
+        
+        int dropped = dropCount(tokens, turns, droppable, required, budget);
+        log.info("Dropping the {} oldest of {} messages to fit {} ({} tokens, budget {})",
+            dropped, messages.size(), model, total, budget);
+        counter(model, "truncated").increment();
+        return withMessages(request, keep(messages, turns, dropped, null));
+    }
+    
+    /**
+     * Token count of a message as the chat APIs bill it
+     */
+    int count(Encoding encoding, Message message) {
+        int tokens = MESSAGE_OVERHEAD;
+        if (message.content() != null) {
+            tokens += encoding.countTokens(message.content());
+        }
+        if (message.name() != null) {
+            tokens += encoding.countTokens(message.name());
+        }
+        return tokens;
+    }
+    
+    /**
+     * Context window of a model: the longest configured prefix of its name, or the default
+     */
+    int window(String model, AuraProperties.ContextWindow settings) {
+        int window = settings.getDefaultWindow();
+        int matched = -1;
+        for (Map.Entry<String, Integer> entry : settings.getWindows().entrySet()) {
+            if (model.startsWith(entry.getKey()) && entry.getKey().length() > matched) {
+                window = entry.getValue();
+                matched = entry.getKey().length();
+            }
+        }
+        return window;
+    }
+    
+    private int budget(AuraRequest request, String model, AuraProperties.ContextWindow settings) {
+        int reserve = request.maxTokens() != null ? request.maxTokens() : settings.getReserveTokens();
+        return window(model, settings) - reserve;
+    }
+    
+    private int minimumTokens(AuraRequest request, String model, AuraProperties.ContextWindow settings) {
+        Encoding encoding = encoding(model);
+        List<Message> messages = request.messages();
+        int required = REPLY_PRIMING;
+        int kept = 0;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            if (message.roleType() == Role.SYSTEM) {
+                required += count(encoding, message);
+            } else if (kept < settings.getKeepLastMessages()) {
+                required += count(encoding, message);
+                kept++;
+            }
+        }
+        return required;
+    }
+    
+    private Encoding encoding(String model) {
+        boolean o200k = model.startsWith("gpt-4o") || model.startsWith("gpt-4.1") || model.matches("o\\d.*");
+        return encodings.getEncoding(o200k ? EncodingType.O200K_BASE : EncodingType.CL100K_BASE);
+    }
+    
+    /**
+     * Fewest oldest turns to drop so that the rest fits the budget
+     */
+    private int dropCount(int[] tokens, List<Integer> turns, int droppable, int required, int budget) {
+        // Add back the newest droppable turns while they fit
+        int used = required;
+        int kept = 0;
+        for (int t = droppable - 1; t >= 0; t--) {
+            if (used + tokens[turns.get(t)] > budget) {
+                break;
+            }
+            used += tokens[turns.get(t)];
+            kept++;
+        }
+        return droppable - kept;
+    }
+    
+    private AuraRequest summarize(AuraRequest request, String model, Encoding encoding, int[] tokens,
+            List<Integer> turns, int droppable, int required, int budget,
+            AuraProperties.ContextWindow settings, Function<AuraRequest, String> summarizer) {
+        int summaryBudget = settings.getSummaryMaxTokens() + MESSAGE_OVERHEAD
+            + encoding.countTokens(SUMMARY_PREFIX);
+        if (required + summaryBudget > budget) {
+            return null;
+        }
+        // Round up to whole blocks so consecutive turns of a session share the same summarised prefix
+        int dropped = dropCount(tokens, turns, droppable, required + summaryBudget, budget);
+        int block = Math.max(1, settings.getSummaryBlock());
+        dropped = Math.min(droppable, (dropped + block - 1) / block * block);
+        
+        List<Message> messages = request.messages();
+        StringBuilder transcript = new StringBuilder();
+        long hash = ContentHash.SEED;
+        for (int t = 0; t < dropped; t++) {
+            Message message = messages.get(turns.get(t));
+            transcript.append(message.role()).append(": ").append(message.content()).append("\n\n");
+            hash = ContentHash.update(hash, message.role());
+            hash = ContentHash.update(hash, message.content());
+        }
+        
+        String summary;
+        try {
+            summary = summaries.get(hash, key -> summarizer.apply(summaryRequest(transcript.toString(), settings)));
+        } catch (RuntimeException e) {
+            log.warn("Summarising {} messages failed: {}", dropped, e.getMessage());
+            return null;
+        }
+        if (summary == null || summary.isBlank()) {
+            return null;
+        }
+        
+        Message summaryMessage = new Message("system", SUMMARY_PREFIX + summary, null);
+        List<Message> kept = keep(messages, turns, dropped, summaryMessage);
+        int total = REPLY_PRIMING;
+        for (Message message : kept) {
+            total += count(encoding, message);
+        }
+        if (total > budget) {
+            log.info("Summary for {} did not leave enough room, dropping turns instead", model);
+            return null;
+        }
+        log.info("Replaced the {} oldest of {} messages with a summary to fit {}", dropped, messages.size(), model);
+        return withMessages(request, kept);
+    }
+    
+    /**
+     * Request asking an ECO model for a summary, capped to what fits the default window
+     */
+    private AuraRequest summaryRequest(String transcript, AuraProperties.ContextWindow settings) {
+        Encoding encoding = encodings.getEncoding(EncodingType.CL100K_BASE);
+        int limit = settings.getDefaultWindow() - settings.getSummaryMaxTokens() - 256;
+        EncodingResult encoded = encoding.encode(transcript, Math.max(1, limit));
+        String text = encoded.isTruncated() ? encoding.decode(encoded.getTokens()) : transcript;
+        return new AuraRequest(null,
+            List.of(new Message("system", SUMMARY_INSTRUCTIONS, null), new Message("user", text, null)),
+            false, 0.0, settings.getSummaryMaxTokens(), null, null, null, null, null, null);
+    }
+    
+    /**
+     * Messages in their original order without the first dropped turns, with the summary in their place
+     */
+    private static List<Message> keep(List<Message> messages, List<Integer> turns, int dropped, Message summary) {
+        List<Message> kept = new ArrayList<>(messages.size() - dropped + 1);
+        int firstKept = dropped < turns.size() ? turns.get(dropped) : messages.size();
+        for (int i = 0; i < messages.size(); i++) {
+            if (summary != null && dropped > 0 && i == turns.get(0)) {
+                kept.add(summary);
+            }
+            if (i >= firstKept || messages.get(i).roleType() == Role.SYSTEM) {
+                kept.add(messages.get(i));
+            }
+        }
+        return kept;
+    }
+    
+    private static AuraRequest withMessages(AuraRequest request, List<Message> messages) {
+        return new AuraRequest(request.model(), messages, request.stream(), request.temperature(),
+            request.maxTokens(), request.topP(), request.frequencyPenalty(), request.presencePenalty(),
+            request.stop(), request.user(), request.metadata());
+    }
+    
+    private Counter counter(String model, String outcome) {
+        return Counter.builder("aura.context.fitted")
+            .description("Requests changed to fit a model's context window")
+            .tag("model", model)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
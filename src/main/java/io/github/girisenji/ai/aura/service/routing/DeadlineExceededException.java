@@ -0,0 +1,11 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+/**
+ * Thrown when a request's deadline passes before it could be answered
+ */
+public class DeadlineExceededException extends RuntimeException {
+    
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
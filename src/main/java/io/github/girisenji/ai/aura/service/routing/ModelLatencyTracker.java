@@ -0,0 +1,121 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Live per-model latency statistics
+ * 
+ * Keeps a sliding window of the most recent call latencies per model so the
+ * routing policy can compare p95 latency against tenant SLOs, and publishes
+ * the same samples to Micrometer for dashboards.
+ */
+@Component
+public class ModelLatencyTracker {
+    
+    private final AuraProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    
+    public ModelLatencyTracker(AuraProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Record the latency of a successful upstream call
+     */
+    public void record(String model, Duration latency) {
+        Window window = window(model);
+        window.add(latency.toNanos());
+        window.timer.record(latency);
+    }
+    
+    /**
+     * 95th percentile latency over the recent window, if any samples exist
+     */
+    public Optional<Duration> p95(String model) {
+        Window window = windows.get(model);
+        return window != null ? window.percentile(0.95).map(Duration::ofNanos) : Optional.empty();
+    }
+    
+    /**
+     * Recent samples per model in nanoseconds, oldest first
+     */
+    public Map<String, long[]> samples() {
+        Map<String, long[]> samples = new HashMap<>();
+        windows.forEach((model, window) -> samples.put(model, window.samples()));
+        return samples;
+    }
+    
+    /**
+     * Seed a model's window with earlier samples, e.g. from a snapshot taken before a restart
+     *
+     * Restored samples feed p95 but are not re-published to Micrometer.
+     */
+    public void restore(String model, long[] nanos) {
+        Window window = window(model);
+        for (long sample : nanos) {
+            window.add(sample);
+        }
+    }
+    
+    private Window window(String model) {
+        return windows.computeIfAbsent(model, m -> new Window(
+            properties.getRouting().getLatencyWindow(),
+            Timer.builder("aura.model.latency")
+                .description("Upstream completion latency per model")
+                .tag("model", m)
+                .register(meterRegistry)));
+    }
+    
+    /**
+     * Fixed-size ring buffer of latency samples in nanoseconds
+     */
+    private static final class Window {
+        private final long[] samples;
+        private final Timer timer;
+        private int next;
+        private int count;
+        
+        Window(int size, Timer timer) {
+            this.samples = new long[Math.max(1, size)];
+            this.timer = timer;
+        }
+        
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+        
+        synchronized long[] samples() {
+            long[] ordered = new long[count];
+            int start = (next - count + samples.length) % samples.length;
+            for (int i = 0; i < count; i++) {
+                ordered[i] = samples[(start + i) % samples.length];
+            }
+            return ordered;
+        }
+        
+        synchronized Optional<Long> percentile(double quantile) {
+            if (count == 0) {
+                return Optional.empty();
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return Optional.of(sorted[Math.max(0, index)]);
+        }
+    }
+}
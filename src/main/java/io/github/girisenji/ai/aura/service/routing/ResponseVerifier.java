@@ -0,0 +1,107 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Choice;
+
+/**
+ * Lightweight confidence scoring for cascade routing
+ * 
+ * Rule-based checks that catch the typical failure modes of small models:
+ * empty or truncated answers, refusals and hedging, missing code when code
+ * was asked for, and degenerate repetition. Scores range from 0 (reject)
+ * to 1 (no concerns).
+ */
+@Component
+public class ResponseVerifier {
+    
+    private static final List<String> LOW_CONFIDENCE_PHRASES = List.of(
+        "i'm not sure",
+        "i am not sure",
+        "i don't know",
+        "i do not know",
+        "i cannot",
+        "i can't help",
+        "i'm unable",
+        "i am unable",
+        "as an ai",
+        "i don't have enough information"
+    );
+    
+    private static final List<String> CODE_REQUEST_KEYWORDS = List.of(
+        "code", "implement", "function", "class", "script", "sql", "regex"
+    );
+    
+    /**
+     * Score a candidate answer for the given request
+     */
+    public double score(AuraRequest request, AuraResponse response) {
+        if (response.choices() == null || response.choices().isEmpty()) {
+            return 0.0;
+        }
+        Choice choice = response.choices().get(0);
+        String answer = choice.message() != null ? choice.message().content() : null;
+        if (answer == null || answer.isBlank()) {
+            return 0.0;
+        }
+        
+        // Not lowercased: the prompt can be hundreds of KB and is only searched for a few keywords
+        String prompt = request.getLastUserMessage();
+        String lowerAnswer = answer.toLowerCase(Locale.ROOT);
+        double score = 1.0;
+        
+        if ("length".equals(choice.finishReason())) {
+            score -= 0.4;
+        }
+        if (LOW_CONFIDENCE_PHRASES.stream().anyMatch(lowerAnswer::contains)) {
+            score -= 0.5;
+        }
+        if (CODE_REQUEST_KEYWORDS.stream().anyMatch(keyword -> containsIgnoreCase(prompt, keyword))
+                && !answer.contains("```")) {
+            score -= 0.4;
+        }
+        if (prompt.length() > 300 && answer.length() < 80) {
+            score -= 0.3;
+        }
+        if (isRepetitive(answer)) {
+            score -= 0.3;
+        }
+        
+        return Math.max(0.0, score);
+    }
+    
+    /**
+     * Detect answers that loop on the same lines
+     */
+    private boolean isRepetitive(String answer) {
+        String[] lines = answer.split("\n");
+        if (lines.length < 6) {
+            return false;
+        }
+        Set<String> distinct = new HashSet<>();
+        int nonBlank = 0;
+        for (String line : lines) {
+            if (!line.isBlank()) {
+                distinct.add(line.strip());
+                nonBlank++;
+            }
+        }
+        return nonBlank > 0 && distinct.size() < nonBlank / 2;
+    }
+    
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        for (int i = 0; i + keyword.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
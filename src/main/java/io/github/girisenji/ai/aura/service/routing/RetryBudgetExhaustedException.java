@@ -0,0 +1,12 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+/**
+ * Thrown when a request's calls have failed and the shared retry budget
+ * has no token left for another attempt or fallback
+ */
+public class RetryBudgetExhaustedException extends RuntimeException {
+    
+    public RetryBudgetExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.service.provider.ProviderHttpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The gateway's single retry policy for upstream calls
+ *
+ * Provider clients make one attempt each and report failures here to be
+ * classified: transient ones are worth another try on the same model after
+ * a backoff, model failures are worth a different model, and request
+ * failures, which the gateway raised itself while validating the
+ * request, would fail anywhere and go back to the client. Every call a
+ * request makes after its first failure, whether a retry or a fallback,
+ * spends a token from a budget shared by all requests and refilled by
+ * live traffic, so an upstream outage cannot multiply the load it is
+ * already failing under.
+ */
+@Component
+public class RetryPolicy {
+    
+    /** Budget tokens are kept in thousandths so fractional deposits need no lock */
+    private static final long UNIT = 1000;
+    
+    /**
+     * What a failed call says about the next one
+     */
+    public enum Failure {
+        /**
+         * Timeouts, throttling and server errors: the same model may answer shortly
+         */
+        TRANSIENT,
+        
+        /**
+         * The model or its provider cannot serve this request, including a
+         * provider rejecting it with a 4xx another vendor may accept: try
+         * another model
+         */
+        MODEL,
+        
+        /**
+         * The gateway found the request invalid before any provider saw it,
+         * so every model would fail it
+         */
+        REQUEST
+    }
+    
+    private final AuraConfigHolder config;
+    private final AtomicLong tokens;
+    private final Counter retries;
+    private final Counter exhausted;
+    
+    public RetryPolicy(AuraConfigHolder config, MeterRegistry meterRegistry) {
+        this.config = config;
+        // Start full so the first failures after startup can be retried
+        this.tokens = new AtomicLong(config.properties().getRetry().getBudgetCapacity() * UNIT);
+        this.retries = Counter.builder("aura.retry.attempts")
+            .description("Upstream calls made after a failure, retries and fallbacks alike")
+            .register(meterRegistry);
+        this.exhausted = Counter.builder("aura.retry.budget.exhausted")
+            .description("Retries refused because the retry budget was spent")
+            .register(meterRegistry);
+        Gauge.builder("aura.retry.budget.tokens", tokens, t -> (double) t.get() / UNIT)
+            .description("Retry budget tokens available")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Credit the budget for a request entering the router
+     */
+    public void recordRequest() {
+        AuraProperties.Retry retry = config.properties().getRetry();
+        long deposit = Math.round(retry.getBudgetRatio() * UNIT);
+        long capacity = retry.getBudgetCapacity() * UNIT;
+        tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+    
+    /**
+     * Take a token for an upstream call that follows a failure
+     *
+     * @return false if the budget is spent and the call should not be made
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < UNIT) {
+                exhausted.increment();
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - UNIT));
+        retries.increment();
+        return true;
+    }
+    
+    /**
+     * Classify a failed upstream call by its HTTP status or, without one, its cause
+     */
+    public Failure classify(Throwable error) {
+        // Only the gateway's own validation is certainly the client's fault
+        if (error instanceof IllegalArgumentException) {
+            return Failure.REQUEST;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProviderHttpException http) {
+                return classify(http.getStatusCode());
+            }
+            // Timeouts and dropped connections, including HttpTimeoutException
+            if (cause instanceof IOException || cause instanceof UncheckedIOException
+                    || cause instanceof TimeoutException) {
+                return Failure.TRANSIENT;
+            }
+        }
+        return Failure.MODEL;
+    }
+    
+    static Failure classify(int statusCode) {
+        return switch (statusCode) {
+            case 408, 409, 425, 429 -> Failure.TRANSIENT;
+            default -> statusCode >= 500 ? Failure.TRANSIENT : Failure.MODEL;
+        };
+    }
+    
+    /**
+     * How long to wait before calling the same model again after its
+     * attempt-th transient failure, or empty to fail over instead
+     *
+     * The delay is drawn uniformly up to an exponentially growing cap (full
+     * jitter, so clients that failed together do not retry together) and
+     * is never shorter than the provider's Retry-After. A delay beyond
+     * max-backoff or the request's remaining deadline is not worth waiting.
+     */
+    public Optional<Duration> backoff(Throwable error, int attempt, RequestContext context) {
+        AuraProperties.Retry retry = config.properties().getRetry();
+        if (attempt >= retry.getMaxAttemptsPerModel() || classify(error) != Failure.TRANSIENT) {
+            return Optional.empty();
+        }
+        
+        long maxNanos = retry.getMaxBackoff().toNanos();
+        long ceiling = Math.min(maxNanos, retry.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        Duration delay = Duration.ofNanos(ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0);
+        
+        Optional<Duration> retryAfter = retryAfter(error);
+        if (retryAfter.isPresent() && retryAfter.get().compareTo(delay) > 0) {
+            delay = retryAfter.get();
+        }
+        if (delay.toNanos() > maxNanos) {
+            return Optional.empty();
+        }
+        Optional<Duration> remaining = context.remaining();
+        if (remaining.isPresent() && delay.compareTo(remaining.get()) >= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(delay);
+    }
+    
+    private static Optional<Duration> retryAfter(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProviderHttpException http) {
+                return http.getRetryAfter();
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+
+/**
+ * Cost- and latency-aware ordering of candidate models
+ * 
+ * Without an SLO the classified tier's chain is used as configured. When the
+ * tenant (or the request metadata) declares an SLO, every model from the
+ * classified tier down to the tenant's minimum acceptable tier is considered,
+ * and the cheapest models whose live p95 latency and blended price meet the
+ * SLO are tried first. Models of the classified tier that miss the SLO stay
+ * at the end of the chain as fallbacks.
+ */
+@Component
+public class RoutingPolicy {
+    
+    private static final Logger log = LoggerFactory.getLogger(RoutingPolicy.class);
+    
+    static final String SLO_MAX_P95_MS = "slo_max_p95_ms";
+    static final String SLO_MAX_COST_PER_1K = "slo_max_cost_per_1k_tokens";
+    static final String SLO_MIN_TIER = "slo_min_tier";
+    
+    private final AuraConfigHolder config;
+    private final ModelLatencyTracker latencyTracker;
+    
+    public RoutingPolicy(AuraConfigHolder config, ModelLatencyTracker latencyTracker) {
+        this.config = config;
+        this.latencyTracker = latencyTracker;
+    }
+    
+    /**
+     * Effective SLO for a request; null fields are unconstrained
+     */
+    public record Slo(Duration maxP95Latency, Double maxCostPer1kTokens, RoutingTier minTier) {
+        static final Slo NONE = new Slo(null, null, null);
+        
+        boolean isEmpty() {
+            return maxP95Latency == null && maxCostPer1kTokens == null && minTier == null;
+        }
+    }
+    
+    /**
+     * Order the models to try for a request
+     */
+    public List<String> order(AuraRequest request, RoutingTier tier, RequestContext context,
+            Map<RoutingTier, List<String>> modelChains) {
+        Slo slo = resolveSlo(request, context);
+        if (slo.isEmpty()) {
+            return modelChains.get(tier);
+        }
+        
+        // Candidate models: classified tier first, then each tier down to the accepted minimum
+        RoutingTier floor = slo.minTier() != null && slo.minTier().compareTo(tier) < 0 ? slo.minTier() : tier;
+        Set<String> candidates = new LinkedHashSet<>();
+        for (int ordinal = tier.ordinal(); ordinal >= floor.ordinal(); ordinal--) {
+            candidates.addAll(modelChains.get(RoutingTier.values()[ordinal]));
+        }
+        
+        int promptTokens = estimatePromptTokens(request.messages());
+        int completionTokens = request.maxTokens() != null
+            ? request.maxTokens()
+            : config.properties().getRouting().getDefaultCompletionTokens();
+        
+        List<String> compliant = new ArrayList<>();
+        for (String model : candidates) {
+            if (meetsSlo(model, slo, promptTokens, completionTokens)) {
+                compliant.add(model);
+            }
+        }
+        compliant.sort(Comparator.comparingDouble(model ->
+            blendedCostPer1k(model, promptTokens, completionTokens).orElse(Double.MAX_VALUE)));
+        
+        List<String> ordered = new ArrayList<>(compliant);
+        for (String model : modelChains.get(tier)) {
+            if (!ordered.contains(model)) {
+                ordered.add(model);
+            }
+        }
+        
+        log.debug("SLO {} for tenant {} ordered {} models as {}", slo, context.tenant(), tier, ordered);
+        return ordered;
+    }
+    
+    /**
+     * Merge the tenant's configured SLO with per-request metadata overrides
+     */
+    Slo resolveSlo(AuraRequest request, RequestContext context) {
+        AuraProperties.Tenant tenant = config.properties().getTenants().get(context.tenant());
+        Duration maxLatency = null;
+        Double maxCost = null;
+        RoutingTier minTier = null;
+        if (tenant != null) {
+            maxLatency = tenant.getSlo().getMaxP95Latency();
+            maxCost = tenant.getSlo().getMaxCostPer1kTokens();
+            minTier = tenant.getSlo().getMinTier();
+        }
+        
+        Map<String, Object> metadata = request.metadata();
+        if (metadata != null) {
+            try {
+                if (metadata.get(SLO_MAX_P95_MS) != null) {
+                    maxLatency = Duration.ofMillis(Long.parseLong(metadata.get(SLO_MAX_P95_MS).toString()));
+                }
+                if (metadata.get(SLO_MAX_COST_PER_1K) != null) {
+                    maxCost = Double.parseDouble(metadata.get(SLO_MAX_COST_PER_1K).toString());
+                }
+                if (metadata.get(SLO_MIN_TIER) != null) {
+                    minTier = RoutingTier.valueOf(metadata.get(SLO_MIN_TIER).toString().toUpperCase());
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid SLO metadata: " + e.getMessage(), e);
+            }
+        }
+        
+        if (maxLatency == null && maxCost == null && minTier == null) {
+            return Slo.NONE;
+        }
+        return new Slo(maxLatency, maxCost, minTier);
+    }
+    
+    private boolean meetsSlo(String model, Slo slo, int promptTokens, int completionTokens) {
+        if (slo.maxP95Latency() != null) {
+            // Models without samples yet are given the benefit of the doubt
+            Optional<Duration> p95 = latencyTracker.p95(model);
+            if (p95.isPresent() && p95.get().compareTo(slo.maxP95Latency()) > 0) {
+                return false;
+            }
+        }
+        if (slo.maxCostPer1kTokens() != null) {
+            Optional<Double> cost = blendedCostPer1k(model, promptTokens, completionTokens);
+            if (cost.isEmpty() || cost.get() > slo.maxCostPer1kTokens()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Price per 1k tokens weighted by this request's prompt/completion mix
+     */
+    Optional<Double> blendedCostPer1k(String model, int promptTokens, int completionTokens) {
+        AuraProperties.Routing.ModelPrice price = config.properties().getRouting().getPricing().get(model);
+        if (price == null) {
+            return Optional.empty();
+        }
+        int total = Math.max(1, promptTokens + completionTokens);
+        return Optional.of((promptTokens * price.getInputPer1k() + completionTokens * price.getOutputPer1k()) / total);
+    }
+    
+    private int estimatePromptTokens(List<Message> messages) {
+        // Rough approximation: 1 token ≈ 4 characters
+        return messages.stream().mapToInt(m -> m.content().length() / 4).sum();
+    }
+}
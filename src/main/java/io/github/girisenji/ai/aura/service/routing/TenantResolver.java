@@ -0,0 +1,111 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.PriorityClass;
+import io.github.girisenji.ai.aura.model.RequestContext;
+
+/**
+ * Maps the caller's API key to a configured tenant
+ */
+@Component
+public class TenantResolver {
+    
+    public static final String PRIORITY_HEADER = "X-Aura-Priority";
+    public static final String TIMEOUT_HEADER = "X-Aura-Timeout-Ms";
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final AuraConfigHolder config;
+    private volatile Map<String, String> tenantsByApiKey;
+    
+    public TenantResolver(AuraConfigHolder config) {
+        this.config = config;
+        this.tenantsByApiKey = indexApiKeys(config.properties());
+        config.subscribe(snapshot -> tenantsByApiKey = indexApiKeys(snapshot.properties()));
+    }
+    
+    private static Map<String, String> indexApiKeys(AuraProperties properties) {
+        Map<String, String> index = new HashMap<>();
+        properties.getTenants().forEach((name, tenant) ->
+            tenant.getApiKeys().forEach(key -> index.put(key, name)));
+        return index;
+    }
+    
+    /**
+     * Build the request context from an Authorization header (may be null)
+     */
+    public RequestContext resolve(String authorization) {
+        return resolve(authorization, null);
+    }
+    
+    /**
+     * Build the request context, honouring an optional priority header
+     *
+     * The header may only lower a request's class below the tenant's
+     * configured priority, so callers cannot promote themselves to
+     * interactive scheduling.
+     */
+    public RequestContext resolve(String authorization, String priorityHeader) {
+        return resolve(authorization, priorityHeader, null);
+    }
+    
+    /**
+     * Build the request context, honouring optional priority and timeout headers
+     *
+     * The timeout is the client's total budget in milliseconds from now,
+     * capped at aura.deadline.max; it becomes the request's deadline.
+     */
+    public RequestContext resolve(String authorization, String priorityHeader, String timeoutHeader) {
+        String tenant = null;
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            String apiKey = authorization.substring(BEARER_PREFIX.length()).trim();
+            tenant = tenantsByApiKey.get(apiKey);
+        }
+        
+        AuraProperties.Tenant tenantConfig = tenant != null ? config.properties().getTenants().get(tenant) : null;
+        PriorityClass priority = tenantConfig != null ? tenantConfig.getPriority() : PriorityClass.STANDARD;
+        if (priorityHeader != null && !priorityHeader.isBlank()) {
+            PriorityClass requested = parsePriority(priorityHeader);
+            if (requested.compareTo(priority) > 0) {
+                priority = requested;
+            }
+        }
+        
+        Instant deadline = null;
+        if (timeoutHeader != null && !timeoutHeader.isBlank()) {
+            Duration budget = parseTimeout(timeoutHeader);
+            Duration max = config.properties().getDeadline().getMax();
+            deadline = Instant.now().plus(max != null && budget.compareTo(max) > 0 ? max : budget);
+        }
+        return new RequestContext(tenant, priority, deadline);
+    }
+    
+    private static PriorityClass parsePriority(String value) {
+        try {
+            return PriorityClass.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + PRIORITY_HEADER + " value: " + value);
+        }
+    }
+    
+    private static Duration parseTimeout(String value) {
+        try {
+            long millis = Long.parseLong(value.trim());
+            if (millis > 0) {
+                return Duration.ofMillis(millis);
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(TIMEOUT_HEADER + " must be a positive number of milliseconds: " + value);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.girisenji.ai.aura.service.scheduling;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+
+/**
+ * Cheap estimate of how many tokens a completion will generate
+ *
+ * Starts from the tenant's recent average for the tier (or a tier prior
+ * until enough completions have been seen), scales it by cues in the last
+ * user message, lets rewrite-style tasks grow with the text they rewrite,
+ * and caps the result at max_tokens. The estimate only has to rank
+ * requests for the scheduler, not be exact.
+ */
+@Component
+public class OutputLengthPredictor {
+    
+    private static final double HISTORY_ALPHA = 0.2;
+    private static final int MIN_HISTORY = 8;
+    private static final int MAX_HISTORY_KEYS = 10_000;
+    
+    private static final String[] LONG_CUES = {
+        "write", "explain", "essay", "article", "implement", "code", "step by step", "in detail", "generate"
+    };
+    private static final String[] SHORT_CUES = {
+        "yes or no", "one word", "classify", "true or false", "which one", "briefly", "short answer", "label"
+    };
+    private static final String[] REWRITE_CUES = {
+        "translate", "rewrite", "rephrase", "refactor", "proofread", "convert", "fix"
+    };
+    
+    private final AuraConfigHolder config;
+    private final Map<String, History> history = new ConcurrentHashMap<>();
+    
+    public OutputLengthPredictor(AuraConfigHolder config) {
+        this.config = config;
+    }
+    
+    /**
+     * Running average of completion lengths for one tenant and tier
+     */
+    private static final class History {
+        private double average;
+        private int samples;
+        
+        synchronized void add(int tokens) {
+            average = samples == 0 ? tokens : average + HISTORY_ALPHA * (tokens - average);
+            samples++;
+        }
+        
+        synchronized double estimate(double prior) {
+            return samples >= MIN_HISTORY ? average : prior;
+        }
+    }
+    
+    /**
+     * Predicted completion tokens, at least 1
+     */
+    public int predict(AuraRequest request, RoutingTier tier, RequestContext context) {
+        double prior = config.properties().getRouting().getDefaultCompletionTokens() * tierFactor(tier);
+        History past = history.get(key(context, tier));
+        double estimate = past != null ? past.estimate(prior) : prior;
+        
+        String prompt = request.getLastUserMessage();
+        // Cues are short, so a lowercased prefix is enough and keeps long prompts cheap
+        String head = (prompt.length() > 512 ? prompt.substring(0, 512) : prompt).toLowerCase(Locale.ROOT);
+        if (containsAny(head, REWRITE_CUES)) {
+            // Output is roughly as long as the text being rewritten (≈ 4 characters per token)
+            estimate = Math.max(estimate, prompt.length() / 4.0);
+        } else if (containsAny(head, SHORT_CUES)) {
+            estimate *= 0.25;
+        } else if (containsAny(head, LONG_CUES)) {
+            estimate *= 2;
+        }
+        
+        if (request.maxTokens() != null && request.maxTokens() > 0) {
+            estimate = Math.min(estimate, request.maxTokens());
+        }
+        return (int) Math.max(1, Math.round(estimate));
+    }
+    
+    /**
+     * Learn from a finished completion
+     */
+    public void record(RequestContext context, RoutingTier tier, int completionTokens) {
+        if (completionTokens <= 0) {
+            return;
+        }
+        if (history.size() > MAX_HISTORY_KEYS) {
+            history.clear();
+        }
+        history.computeIfAbsent(key(context, tier), k -> new History()).add(completionTokens);
+    }
+    
+    private static String key(RequestContext context, RoutingTier tier) {
+        return context.tenant() + "/" + tier;
+    }
+    
+    private static double tierFactor(RoutingTier tier) {
+        return switch (tier) {
+            case ECO -> 0.5;
+            case BALANCED -> 1.0;
+            case PREMIUM -> 2.0;
+        };
+    }
+    
+    private static boolean containsAny(String text, String[] cues) {
+        for (String cue : cues) {
+            if (text.contains(cue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,337 @@
+package io.github.girisenji.ai.aura.service.scheduling;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.PriorityClass;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.service.routing.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control in front of the model router
+ *
+ * At most {@code max-concurrency} requests run at once. Requests beyond
+ * that wait in a start-time fair queue: every (priority class, tenant)
+ * flow gets a share of dispatch slots proportional to its class weight
+ * times its tenant weight, so a bulk backlog can never starve interactive
+ * traffic and one noisy tenant can never starve its neighbours. Each class
+ * has a bounded queue and a queue-time SLO; requests that would not be
+ * dispatched within the SLO are rejected up front rather than left to
+ * time out after holding a connection open.
+ *
+ * Within those shares, shorter jobs go first. Each request carries an
+ * output-length prediction, and its place in the queue is its flow's
+ * start tag plus its predicted size relative to an ordinary request, so a
+ * short request overtakes longer ones queued before it. Aging comes from
+ * virtual time: later arrivals get later start tags, so a long request is
+ * passed by at most about max-cost requests of its own flow. The
+ * predicted tokens can also be reserved against an in-flight budget.
+ */
+@Component
+public class RequestScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(RequestScheduler.class);
+    
+    private static final int FLOW_PRUNE_THRESHOLD = 4096;
+    private static final double SERVICE_TIME_ALPHA = 0.1;
+    
+    private final AuraConfigHolder config;
+    private final MeterRegistry meterRegistry;
+    
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+        Comparator.comparingDouble(Entry::rank).thenComparingLong(Entry::sequence));
+    private final Map<String, Double> flowFinishTags = new HashMap<>();
+    private final Map<PriorityClass, Integer> queuedByClass = new EnumMap<>(PriorityClass.class);
+    private final Map<PriorityClass, Timer> queueWaitTimers = new EnumMap<>(PriorityClass.class);
+    
+    private int inFlight;
+    private long reservedTokens;
+    private double virtualTime;
+    private long sequence;
+    private double avgServiceNanos = TimeUnit.SECONDS.toNanos(1);
+    
+    public RequestScheduler(AuraConfigHolder config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        for (PriorityClass priority : PriorityClass.values()) {
+            queuedByClass.put(priority, 0);
+            Gauge.builder("aura.scheduler.queue.depth", this, s -> s.queued(priority))
+                .tag("priority", priority.name())
+                .register(meterRegistry);
+            queueWaitTimers.put(priority, Timer.builder("aura.scheduler.queue.wait")
+                .tag("priority", priority.name())
+                .register(meterRegistry));
+        }
+        Gauge.builder("aura.scheduler.in_flight", this, RequestScheduler::inFlight)
+            .register(meterRegistry);
+        Gauge.builder("aura.scheduler.reserved_tokens", this, RequestScheduler::reservedTokens)
+            .description("Predicted completion tokens of dispatched requests")
+            .register(meterRegistry);
+        // A raised concurrency limit admits queued requests straight away
+        config.subscribe(snapshot -> dispatchQueued(snapshot.properties().getScheduler().getMaxConcurrency()));
+    }
+    
+    /**
+     * Run work once the caller's flow is granted a dispatch slot
+     */
+    public <T> T execute(RequestContext context, Supplier<T> work) {
+        return execute(context, 0, work);
+    }
+    
+    /**
+     * Run work of a predicted output length once it is granted a dispatch slot
+     */
+    public <T> T execute(RequestContext context, int predictedTokens, Supplier<T> work) {
+        try (Permit permit = acquire(context, predictedTokens)) {
+            return work.get();
+        }
+    }
+    
+    /**
+     * Wait for a dispatch slot for a request of ordinary size
+     */
+    public Permit acquire(RequestContext context) {
+        return acquire(context, 0);
+    }
+    
+    /**
+     * Wait for a dispatch slot; the returned permit must be closed when the request finishes
+     *
+     * @param predictedTokens predicted completion tokens, or 0 if unknown
+     * @throws SchedulerRejectedException if the request is shed
+     * @throws DeadlineExceededException if the request's deadline passes before a slot frees up
+     */
+    public Permit acquire(RequestContext context, int predictedTokens) {
+        AuraProperties.Scheduler settings = config.properties().getScheduler();
+        if (!settings.isEnabled()) {
+            return Permit.NOOP;
+        }
+        
+        AuraProperties.Scheduler.Sjf sjf = settings.getSjf();
+        long tokens = predictedTokens > 0 ? predictedTokens : sjf.getReferenceTokens();
+        double cost = sjf.isEnabled()
+            ? Math.clamp((double) tokens / Math.max(1, sjf.getReferenceTokens()), 1 / sjf.getMaxCost(), sjf.getMaxCost())
+            : 1.0;
+        
+        PriorityClass priority = context.priority();
+        AuraProperties.Scheduler.PriorityClassConfig classConfig = classConfig(priority);
+        Duration maxQueueTime = classConfig.getMaxQueueTime();
+        // Never wait past the request's deadline: a late slot is wasted upstream spend
+        Duration remaining = context.remaining().orElse(null);
+        boolean deadlineBound = remaining != null && remaining.compareTo(maxQueueTime) < 0;
+        Duration maxWait = deadlineBound ? remaining : maxQueueTime;
+        long enqueuedAt = System.nanoTime();
+        Entry entry;
+        
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < settings.getMaxConcurrency() && withinTokenBudget(tokens)) {
+                inFlight++;
+                reservedTokens += tokens;
+                queueWaitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return new Permit(this, tokens);
+            }
+            if (queued(priority) >= classConfig.getMaxQueue()) {
+                throw reject(priority, "queue_full", maxQueueTime);
+            }
+            
+            entry = enqueue(context, classConfig, cost, tokens);
+            long expectedWait = expectedWaitNanos(entry, settings.getMaxConcurrency());
+            if (expectedWait > maxWait.toNanos()) {
+                dequeue(entry);
+                if (deadlineBound) {
+                    throw missedDeadline(priority, "Request would miss its deadline in the queue");
+                }
+                throw reject(priority, "queue_time_slo", Duration.ofNanos(expectedWait));
+            }
+        }
+        
+        boolean granted;
+        try {
+            granted = entry.granted().await(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        }
+        if (!granted) {
+            synchronized (this) {
+                if (entry.granted().getCount() > 0) {
+                    dequeue(entry);
+                    if (deadlineBound) {
+                        throw missedDeadline(priority, "Deadline passed while queued");
+                    }
+                    throw reject(priority, "queue_timeout", maxQueueTime);
+                }
+            }
+        }
+        
+        queueWaitTimers.get(priority).record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        return new Permit(this, tokens);
+    }
+    
+    private Entry enqueue(RequestContext context, AuraProperties.Scheduler.PriorityClassConfig classConfig,
+            double cost, long tokens) {
+        String flow = context.priority() + "/" + context.tenant();
+        double weight = Math.max(1, classConfig.getWeight()) * (double) tenantWeight(context.tenant());
+        double startTag = Math.max(virtualTime, flowFinishTags.getOrDefault(flow, 0.0));
+        // The flow advances by one request; the size only decides the order within the shares
+        flowFinishTags.put(flow, startTag + 1.0 / weight);
+        
+        Entry entry = new Entry(context.priority(), startTag, startTag + cost / weight, tokens, sequence++,
+            new CountDownLatch(1));
+        queue.add(entry);
+        queuedByClass.merge(context.priority(), 1, Integer::sum);
+        return entry;
+    }
+    
+    private void dequeue(Entry entry) {
+        if (queue.remove(entry)) {
+            queuedByClass.merge(entry.priority(), -1, Integer::sum);
+        }
+    }
+    
+    /**
+     * Entries ahead of this one, drained maxConcurrency at a time at the average service time
+     */
+    private long expectedWaitNanos(Entry entry, int maxConcurrency) {
+        int ahead = 0;
+        for (Entry other : queue) {
+            if (other.rank() < entry.rank()
+                    || (other.rank() == entry.rank() && other.sequence() < entry.sequence())) {
+                ahead++;
+            }
+        }
+        return (long) ((ahead + 1) * avgServiceNanos / Math.max(1, maxConcurrency));
+    }
+    
+    private synchronized void release(long serviceNanos, long tokens) {
+        inFlight--;
+        reservedTokens -= tokens;
+        avgServiceNanos += SERVICE_TIME_ALPHA * (serviceNanos - avgServiceNanos);
+        dispatchQueued(config.properties().getScheduler().getMaxConcurrency());
+        
+        if (flowFinishTags.size() > FLOW_PRUNE_THRESHOLD) {
+            flowFinishTags.values().removeIf(tag -> tag <= virtualTime);
+        }
+    }
+    
+    /**
+     * Grant queued entries in queue order while there is spare concurrency and token budget
+     */
+    private synchronized void dispatchQueued(int maxConcurrency) {
+        // The head waits for budget rather than being skipped, so large requests cannot starve
+        while (inFlight < maxConcurrency && !queue.isEmpty() && withinTokenBudget(queue.peek().tokens())) {
+            Entry next = queue.poll();
+            queuedByClass.merge(next.priority(), -1, Integer::sum);
+            virtualTime = Math.max(virtualTime, next.startTag());
+            inFlight++;
+            reservedTokens += next.tokens();
+            next.granted().countDown();
+        }
+    }
+    
+    /**
+     * Whether a reservation fits the in-flight token budget; an idle gateway admits any size
+     */
+    private boolean withinTokenBudget(long tokens) {
+        long limit = config.properties().getScheduler().getSjf().getMaxInflightTokens();
+        return limit <= 0 || reservedTokens == 0 || reservedTokens + tokens <= limit;
+    }
+    
+    private SchedulerRejectedException reject(PriorityClass priority, String reason, Duration retryAfter) {
+        Counter.builder("aura.scheduler.rejected")
+            .tag("priority", priority.name())
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        log.warn("Shedding {} request: {}", priority, reason);
+        return new SchedulerRejectedException(
+            "Gateway is overloaded (" + reason + "), retry later", priority, retryAfter);
+    }
+    
+    private DeadlineExceededException missedDeadline(PriorityClass priority, String message) {
+        Counter.builder("aura.scheduler.rejected")
+            .tag("priority", priority.name())
+            .tag("reason", "deadline")
+            .register(meterRegistry)
+            .increment();
+        log.warn("Dropping {} request: {}", priority, message);
+        return new DeadlineExceededException(message);
+    }
+    
+    private AuraProperties.Scheduler.PriorityClassConfig classConfig(PriorityClass priority) {
+        AuraProperties.Scheduler.PriorityClassConfig classConfig = config.properties().getScheduler().getClasses().get(priority);
+        if (classConfig == null) {
+            throw new IllegalStateException("No scheduler configuration for priority class " + priority);
+        }
+        return classConfig;
+    }
+    
+    private int tenantWeight(String tenant) {
+        AuraProperties.Tenant tenantConfig = config.properties().getTenants().get(tenant);
+        return tenantConfig != null ? Math.max(1, tenantConfig.getWeight()) : 1;
+    }
+    
+    synchronized int queued(PriorityClass priority) {
+        return queuedByClass.get(priority);
+    }
+    
+    synchronized int inFlight() {
+        return inFlight;
+    }
+    
+    synchronized long reservedTokens() {
+        return reservedTokens;
+    }
+    
+    private record Entry(
+        PriorityClass priority,
+        double startTag,
+        double rank,
+        long tokens,
+        long sequence,
+        CountDownLatch granted
+    ) {}
+    
+    /**
+     * A granted dispatch slot; closing it admits the next queued request
+     */
+    public static class Permit implements AutoCloseable {
+        
+        static final Permit NOOP = new Permit(null, 0);
+        
+        private final RequestScheduler scheduler;
+        private final long tokens;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        Permit(RequestScheduler scheduler, long tokens) {
+            this.scheduler = scheduler;
+            this.tokens = tokens;
+        }
+        
+        @Override
+        public void close() {
+            if (scheduler != null && closed.compareAndSet(false, true)) {
+                scheduler.release(System.nanoTime() - startedAt, tokens);
+            }
+        }
+    }
+}
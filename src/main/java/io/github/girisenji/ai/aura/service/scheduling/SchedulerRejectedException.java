@@ -0,0 +1,31 @@
+package io.github.girisenji.ai.aura.service.scheduling;
+
+import java.time.Duration;
+
+import io.github.girisenji.ai.aura.model.PriorityClass;
+
+/**
+ * Thrown when the scheduler sheds a request instead of queueing it
+ */
+public class SchedulerRejectedException extends RuntimeException {
+    
+    private final PriorityClass priority;
+    private final Duration retryAfter;
+    
+    public SchedulerRejectedException(String message, PriorityClass priority, Duration retryAfter) {
+        super(message);
+        this.priority = priority;
+        this.retryAfter = retryAfter;
+    }
+    
+    public PriorityClass getPriority() {
+        return priority;
+    }
+    
+    /**
+     * Suggested client back-off, rounded up to whole seconds
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.girisenji.ai.aura.service.startup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.AuraClassifier;
+import io.github.girisenji.ai.aura.service.embedding.LocalEmbeddingModel;
+import io.github.girisenji.ai.aura.service.provider.LLMProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Background warm-up of the classifier, embedding model and provider clients
+ *
+ * Heavy initialisation is kept off the context refresh so the server
+ * starts listening early. Warm-up runs on virtual threads once the context
+ * has started, and this indicator (part of the readiness group) reports
+ * OUT_OF_SERVICE until every task has finished, so traffic is only routed
+ * to an instance that will not pay first-request costs. A task that fails
+ * is logged and does not hold readiness back.
+ */
+@Component("warmup")
+public class StartupWarmup implements HealthIndicator {
+    
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    
+    private final AuraClassifier classifier;
+    private final List<LLMProvider> providers;
+    private final LocalEmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final Timer warmupTimer;
+    
+    private volatile CompletableFuture<Void> warmup;
+    
+    public StartupWarmup(
+            AuraClassifier classifier,
+            List<LLMProvider> providers,
+            LocalEmbeddingModel embeddingModel,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.classifier = classifier;
+        this.providers = providers;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.warmupTimer = Timer.builder("aura.startup.warmup")
+            .description("Time from context start until background warm-up finished")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        start();
+    }
+    
+    /**
+     * Start warm-up if it is not already running
+     */
+    public synchronized CompletableFuture<Void> start() {
+        if (warmup != null) {
+            return warmup;
+        }
+        
+        long startedAt = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(task("classifier", this::warmClassifier, executor));
+        tasks.add(task("embeddings", embeddingModel::initialize, executor));
+        for (LLMProvider provider : providers) {
+            tasks.add(task(provider.name(), provider::warmUp, executor));
+        }
+        
+        warmup = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, error) -> {
+                executor.shutdown();
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+                warmupTimer.record(elapsed);
+                log.info("Warm-up finished in {} ms", elapsed.toMillis());
+            });
+        return warmup;
+    }
+    
+    public boolean isWarm() {
+        CompletableFuture<Void> current = warmup;
+        return current != null && current.isDone();
+    }
+    
+    @Override
+    public Health health() {
+        return isWarm()
+            ? Health.up().build()
+            : Health.outOfService().withDetail("reason", "warming up").build();
+    }
+    
+    private CompletableFuture<Void> task(String name, Runnable work, ExecutorService executor) {
+        return CompletableFuture.runAsync(work, executor)
+            .exceptionally(e -> {
+                log.error("Warm-up of {} failed", name, e);
+                return null;
+            });
+    }
+    
+    /**
+     * Load the model, then run the classification and JSON paths once so
+     * the first real request does not pay for class loading
+     */
+    private void warmClassifier() {
+        classifier.initialize();
+        AuraRequest request = new AuraRequest("warmup",
+            List.of(new Message("user", "Explain how to implement a warm-up pass", null)),
+            false, null, null, null, null, null, null, null, null);
+        classifier.classify(request);
+        try {
+            objectMapper.writeValueAsString(AuraResponse.create("warmup", "ok", new Usage(1, 1)));
+        } catch (Exception e) {
+            log.debug("JSON warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+/**
+ * One chunk of a streamed completion with its position in the stream
+ */
+public record StreamEvent(String streamId, long sequence, String data) {
+    
+    /**
+     * SSE event id ("streamId:sequence"), or null for streams that cannot be resumed
+     */
+    public String id() {
+        return streamId != null ? streamId + ":" + sequence : null;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * A streamed completion that outlives the client connection that started it
+ *
+ * The upstream is subscribed once and its chunks are kept in a bounded
+ * replay buffer. Clients attach with the last sequence number they saw
+ * and receive the buffered chunks after it followed by the live tail.
+ *
+ * The upstream is only asked for as many chunks as the buffer holds past
+ * the slowest attached client (or, with none attached, past where the
+ * last one left off), so a slow or absent client holds back generation
+ * instead of being buffered for and can always resume where it stopped.
+ */
+class StreamSession {
+    
+    private final String id;
+    private final String tenant;
+    private final int capacity;
+    private final Sinks.Many<StreamEvent> events;
+    private final AtomicLong lastSequence = new AtomicLong();
+    // Last sequence delivered to each attached client
+    private final Set<AtomicLong> positions = ConcurrentHashMap.newKeySet();
+    
+    private BaseSubscriber<String> upstream;
+    private long acknowledged;
+    private long requested;
+    private int clients;
+    private volatile boolean terminated;
+    
+    StreamSession(String id, String tenant, int capacity) {
+        this.id = id;
+        this.tenant = tenant;
+        this.capacity = capacity;
+        this.events = Sinks.many().replay().limit(capacity);
+    }
+    
+    String id() {
+        return id;
+    }
+    
+    String tenant() {
+        return tenant;
+    }
+    
+    boolean isTerminated() {
+        return terminated;
+    }
+    
+    /**
+     * Subscribe to the upstream, reading ahead of the clients by up to the buffer capacity
+     */
+    void start(Flux<String> source, Runnable onTerminate) {
+        upstream = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                demand();
+            }
+            
+            @Override
+            protected void hookOnNext(String chunk) {
+                events.tryEmitNext(new StreamEvent(id, lastSequence.incrementAndGet(), chunk));
+            }
+            
+            @Override
+            protected void hookOnError(Throwable error) {
+                events.tryEmitError(error);
+            }
+            
+            @Override
+            protected void hookOnComplete() {
+                events.tryEmitComplete();
+            }
+        };
+        source
+            .doFinally(signal -> {
+                terminated = true;
+                onTerminate.run();
+            })
+            .subscribe(upstream);
+    }
+    
+    /**
+     * Request upstream chunks until the buffer is full relative to the slowest client
+     */
+    private synchronized void demand() {
+        if (!positions.isEmpty()) {
+            acknowledged = positions.stream().mapToLong(AtomicLong::get).min().getAsLong();
+        }
+        long more = acknowledged + capacity - requested;
+        if (more > 0 && upstream != null) {
+            requested += more;
+            upstream.request(more);
+        }
+    }
+    
+    /**
+     * Whether every chunk after the given sequence is still buffered
+     */
+    boolean canResumeAfter(long sequence) {
+        long oldestBuffered = Math.max(1, lastSequence.get() - capacity + 1);
+        return sequence + 1 >= oldestBuffered && sequence <= lastSequence.get();
+    }
+    
+    /**
+     * Chunks after the given sequence, then the live tail
+     */
+    Flux<StreamEvent> attach(long afterSequence, Runnable onAttach, Runnable onDetach) {
+        AtomicLong position = new AtomicLong(afterSequence);
+        return events.asFlux()
+            .filter(event -> event.sequence() > afterSequence)
+            .doOnSubscribe(s -> {
+                positions.add(position);
+                onAttach.run();
+            })
+            .doOnNext(event -> {
+                position.set(event.sequence());
+                demand();
+            })
+            .doFinally(signal -> {
+                positions.remove(position);
+                onDetach.run();
+            });
+    }
+    
+    synchronized int clientAttached() {
+        return ++clients;
+    }
+    
+    synchronized int clientDetached() {
+        return --clients;
+    }
+    
+    /**
+     * Stop the upstream generation (nobody resumed within the grace period)
+     */
+    void cancel() {
+        if (upstream != null) {
+            upstream.dispose();
+        }
+        events.tryEmitError(new IllegalStateException("Stream " + id + " expired"));
+    }
+}
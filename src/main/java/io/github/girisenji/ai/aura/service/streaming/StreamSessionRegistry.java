@@ -0,0 +1,153 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+
+/**
+ * Resumable streams keyed by stream id
+ *
+ * A stream whose last client disconnects is kept for a grace period,
+ * generating until its replay buffer is full, so that a reconnecting
+ * client (Last-Event-ID) gets the missed chunks and the live tail instead
+ * of a second, fully billed completion.
+ * If nobody reattaches in time the upstream call is cancelled. Finished
+ * streams stay resumable for a short TTL.
+ */
+@Component
+public class StreamSessionRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(StreamSessionRegistry.class);
+    
+    private final AuraProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, StreamSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> pendingExpiry = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("aura-stream-sessions").factory());
+    
+    public StreamSessionRegistry(AuraProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("aura.stream.sessions", sessions, Map::size)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Start streaming the upstream and return the first client's view of it
+     */
+    public Flux<StreamEvent> open(RequestContext context, Flux<String> upstream) {
+        AuraProperties.Streaming.Resume config = properties.getStreaming().getResume();
+        if (!config.isEnabled()) {
+            // No session: the client subscription is the upstream subscription
+            return upstream.index().map(indexed -> new StreamEvent(null, indexed.getT1() + 1, indexed.getT2()));
+        }
+        
+        StreamSession session = new StreamSession(
+            "strm_" + UUID.randomUUID().toString().replace("-", ""), context.tenant(), config.getBufferSize());
+        sessions.put(session.id(), session);
+        
+        // Start eagerly; the replay buffer fills while the client subscribes
+        session.start(upstream, () -> scheduleExpiry(session, config.getTtl().toMillis()));
+        return attach(session, 0);
+    }
+    
+    /**
+     * Resume from an SSE event id ("streamId:sequence") or a bare stream id
+     *
+     * @return empty if the stream is unknown, belongs to another tenant, or the
+     *         requested position has already left the buffer
+     */
+    public Optional<Flux<StreamEvent>> resume(String lastEventId, RequestContext context) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return Optional.empty();
+        }
+        
+        int separator = lastEventId.lastIndexOf(':');
+        String streamId = separator > 0 ? lastEventId.substring(0, separator) : lastEventId.trim();
+        long sequence;
+        try {
+            sequence = separator > 0 ? Long.parseLong(lastEventId.substring(separator + 1).trim()) : 0;
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        
+        StreamSession session = sessions.get(streamId);
+        if (session == null || !session.tenant().equals(context.tenant()) || !session.canResumeAfter(sequence)) {
+            resumeCounter("unavailable").increment();
+            return Optional.empty();
+        }
+        
+        log.info("Resuming stream {} after event {}", streamId, sequence);
+        resumeCounter("resumed").increment();
+        return Optional.of(attach(session, sequence));
+    }
+    
+    private Flux<StreamEvent> attach(StreamSession session, long afterSequence) {
+        return session.attach(afterSequence,
+            () -> {
+                session.clientAttached();
+                // A reconnect within the grace period keeps the generation alive
+                if (!session.isTerminated()) {
+                    ScheduledFuture<?> expiry = pendingExpiry.remove(session.id());
+                    if (expiry != null) {
+                        expiry.cancel(false);
+                    }
+                }
+            },
+            () -> {
+                if (session.clientDetached() == 0 && !session.isTerminated()) {
+                    log.debug("Last client left stream {}, keeping it for {}", session.id(),
+                        properties.getStreaming().getResume().getGrace());
+                    scheduleExpiry(session, properties.getStreaming().getResume().getGrace().toMillis());
+                }
+            });
+    }
+    
+    private void scheduleExpiry(StreamSession session, long delayMillis) {
+        ScheduledFuture<?> expiry = timer.schedule(() -> expire(session), delayMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = pendingExpiry.put(session.id(), expiry);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+    
+    private void expire(StreamSession session) {
+        pendingExpiry.remove(session.id());
+        sessions.remove(session.id());
+        if (!session.isTerminated()) {
+            log.info("No client resumed stream {}, cancelling upstream", session.id());
+            session.cancel();
+        }
+    }
+    
+    private Counter resumeCounter(String outcome) {
+        return Counter.builder("aura.stream.resumes")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        sessions.values().forEach(StreamSession::cancel);
+        sessions.clear();
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records token usage of streamed completions, including abandoned ones
+ *
+ * Upstream usage is only reported in the final chunk, which never arrives
+ * when the client disconnects and the upstream call is cancelled. Until
+ * then completion tokens are estimated from the content actually sent.
+ */
+@Component
+public class StreamUsageRecorder {
+    
+    private static final Logger log = LoggerFactory.getLogger(StreamUsageRecorder.class);
+    
+    public static final String COMPLETED = "completed";
+    public static final String CANCELLED = "cancelled";
+    public static final String ERROR = "error";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry;
+    
+    public StreamUsageRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Start tracking one stream
+     */
+    public Tracker start(AuraRequest request) {
+        int promptChars = request.messages().stream().mapToInt(m -> m.content().length()).sum();
+        return new Tracker(promptChars);
+    }
+    
+    /**
+     * Usage of a single stream; observe() is called from one thread at a time
+     */
+    public class Tracker {
+        
+        private final int promptChars;
+        private String model = "unknown";
+        private int contentChars;
+        private int chunks;
+        private JsonNode reportedUsage;
+        private boolean finished;
+        private int completionTokens;
+        
+        private Tracker(int promptChars) {
+            this.promptChars = promptChars;
+        }
+        
+        /**
+         * Account for one chunk sent to the client
+         */
+        public void observe(String chunk) {
+            chunks++;
+            try {
+                JsonNode node = objectMapper.readTree(chunk);
+                if (node.hasNonNull("model")) {
+                    model = node.get("model").asText();
+                }
+                String content = node.path("choices").path(0).path("delta").path("content").asText("");
+                contentChars += content.length();
+                if (node.path("usage").has("completion_tokens")) {
+                    reportedUsage = node.get("usage");
+                }
+            } catch (Exception e) {
+                log.debug("Unparseable stream chunk: {}", e.getMessage());
+            }
+        }
+        
+        /**
+         * Record the stream's usage once, tagged with how it ended
+         */
+        public synchronized void finish(String outcome) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            
+            // Rough approximation: 1 token ≈ 4 characters
+            int promptTokens = reportedUsage != null ? reportedUsage.path("prompt_tokens").asInt() : promptChars / 4;
+            completionTokens = reportedUsage != null
+                ? reportedUsage.path("completion_tokens").asInt()
+                : contentChars / 4;
+            
+            counter("aura.stream.prompt_tokens", outcome).increment(promptTokens);
+            counter("aura.stream.completion_tokens", outcome).increment(completionTokens);
+            counter("aura.stream.outcomes", outcome).increment();
+            
+            if (!COMPLETED.equals(outcome)) {
+                log.info("Stream on {} {} after {} chunks (~{} prompt, ~{} completion tokens)",
+                    model, outcome, chunks, promptTokens, completionTokens);
+            }
+        }
+        
+        /**
+         * Completion tokens as recorded by {@link #finish(String)}, or 0 before then
+         */
+        public synchronized int completionTokens() {
+            return completionTokens;
+        }
+        
+        private Counter counter(String name, String outcome) {
+            return Counter.builder(name)
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.girisenji.ai.aura;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.github.girisenji.ai.aura.service.startup.StartupWarmup;
+
+/**
+ * Time to ready and time to warm for a full gateway boot
+ *
+ * Starts the application in-process on a random port, reports how long the
+ * context took to start and how long until background warm-up flipped
+ * readiness, and fails if startup exceeds {@code aura.benchmark.startup-budget-ms}
+ * (default 30,000). Run with {@code mvn test -Pbenchmark}; set
+ * {@code -Dspring.aot.enabled=true} after {@code -Pstartup} to measure the
+ * AOT-processed context.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final long BUDGET_MS = Long.getLong("aura.benchmark.startup-budget-ms", 30_000);
+
+    @Test
+    void measureStartup() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = SpringApplication.run(AuraApplication.class,
+                "--server.port=0", "--aura.config-reload.file=")) {
+            Duration started = Duration.ofNanos(System.nanoTime() - start);
+
+            context.getBean(StartupWarmup.class).start().get(BUDGET_MS, TimeUnit.MILLISECONDS);
+            Duration warm = Duration.ofNanos(System.nanoTime() - start);
+
+            System.out.printf("Context started: %,d ms%n", started.toMillis());
+            System.out.printf("Ready (warm):    %,d ms%n", warm.toMillis());
+            assertTrue(warm.toMillis() <= BUDGET_MS, "Startup took " + warm.toMillis() + " ms");
+        }
+    }
+}
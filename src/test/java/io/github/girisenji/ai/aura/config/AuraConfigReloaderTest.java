@@ -0,0 +1,77 @@
+package io.github.girisenji.ai.aura.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import io.github.girisenji.ai.aura.model.RoutingTier;
+
+class AuraConfigReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private AuraConfigHolder holder;
+    private AuraConfigReloader reloader;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("aura-overrides.yml");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("application", Map.of(
+            "aura.routing.default-completion-tokens", "512",
+            "aura.cascade.enabled", "true")));
+
+        AuraProperties startup = new AuraProperties();
+        startup.getConfigReload().setFile(file.toString());
+        holder = new AuraConfigHolder(startup);
+        reloader = new AuraConfigReloader(environment, holder);
+    }
+
+    @Test
+    void testReload_FileOverlaysApplicationConfig() throws Exception {
+        Files.writeString(file, """
+            aura:
+              cascade:
+                enabled: false
+              routing:
+                chains:
+                  PREMIUM: [claude-3-5-sonnet-20241022, gpt-4o]
+            """);
+
+        AuraConfigHolder.Snapshot snapshot = reloader.reload();
+
+        assertEquals(2, snapshot.version());
+        assertSame(snapshot, holder.current());
+        AuraProperties properties = snapshot.properties();
+        assertEquals(List.of("claude-3-5-sonnet-20241022", "gpt-4o"),
+            properties.getRouting().getChains().get(RoutingTier.PREMIUM));
+        assertEquals(false, properties.getCascade().isEnabled());
+        // Keys absent from the file keep their application values
+        assertEquals(512, properties.getRouting().getDefaultCompletionTokens());
+    }
+
+    @Test
+    void testReload_InvalidFileKeepsCurrentSnapshot() throws Exception {
+        AuraConfigHolder.Snapshot before = holder.current();
+        Files.writeString(file, """
+            aura:
+              routing:
+                default-completion-tokens: lots
+            """);
+
+        assertThrows(IllegalStateException.class, reloader::reload);
+        assertSame(before, holder.current());
+    }
+}
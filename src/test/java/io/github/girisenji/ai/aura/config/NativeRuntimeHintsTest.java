@@ -0,0 +1,37 @@
+package io.github.girisenji.ai.aura.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Usage;
+
+class NativeRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testModelRecordsAndNestedTypesAreBindable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuraRequest.class)
+            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Message.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Usage.PromptTokensDetails.class).test(hints));
+    }
+
+    @Test
+    void testNestedPropertiesSectionsAreBindable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuraProperties.Bulkhead.Limit.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuraProperties.ConfigReload.class).test(hints));
+    }
+}
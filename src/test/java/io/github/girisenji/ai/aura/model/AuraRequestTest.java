@@ -0,0 +1,38 @@
+package io.github.girisenji.ai.aura.model;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class AuraRequestTest {
+
+    @Test
+    void testRolesAreValidatedByExactName() {
+        assertEquals(Role.ASSISTANT, new Message("assistant", "hi", null).roleType());
+        assertThrows(IllegalArgumentException.class, () -> new Message("robot", "hi", null));
+        assertThrows(IllegalArgumentException.class, () -> new Message("User", "hi", null));
+    }
+
+    @Test
+    void testConversationTextJoinsContentsWithSpaces() {
+        AuraRequest request = request(List.of(
+            new Message("system", "", null),
+            new Message("user", "first", null),
+            new Message("assistant", "second ", null),
+            new Message("user", "third", null)));
+
+        assertEquals("first second  third", request.getConversationText());
+        assertEquals("third", request.getLastUserMessage());
+    }
+
+    @Test
+    void testLastUserMessageIsEmptyWithoutUserTurns() {
+        assertEquals("", request(List.of(new Message("system", "rules", null))).getLastUserMessage());
+    }
+
+    private static AuraRequest request(List<Message> messages) {
+        return new AuraRequest("gpt-4o", messages, false, null, null, null, null, null, null, null, null);
+    }
+}
@@ -6,18 +6,26 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
 import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.Message;
 import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.service.embedding.LocalEmbeddingModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class AuraClassifierTest {
 
     private AuraClassifier classifier;
     private AuraProperties properties;
+    private LocalEmbeddingModel embeddingModel;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -26,7 +34,9 @@ class AuraClassifierTest {
         classifierConfig.setModelPath("models/classifier.onnx");
         when(properties.getClassifier()).thenReturn(classifierConfig);
         
-        classifier = new AuraClassifier(properties);
+        embeddingModel = mock(LocalEmbeddingModel.class);
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new AuraClassifier(new AuraConfigHolder(properties), embeddingModel, meterRegistry);
     }
 
     @Test
@@ -85,4 +95,56 @@ class AuraClassifierTest {
         RoutingTier tier = classifier.classify(request);
         assertTrue(tier == RoutingTier.BALANCED || tier == RoutingTier.PREMIUM);
     }
+
+    @Test
+    void testConfidentHeuristic_SkipsModel() {
+        AuraClassifier.Estimate hello = classifier.classifyHeuristic("Thanks!");
+        assertEquals(RoutingTier.ECO, hello.tier());
+        assertEquals(1.0, hello.confidence());
+
+        classifier.classify(request("Thanks!"));
+        assertEquals(1.0, stage("heuristic"));
+        verify(embeddingModel, times(0)).embed(anyList());
+    }
+
+    @Test
+    void testUncertainPrompt_AskedModelOnceThenCached() {
+        // Toy embedding: ECO examples and anything about France on one axis, everything else on the other
+        when(embeddingModel.isAvailable()).thenReturn(true);
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                .map(text -> text.matches(".*(France|Spanish|synonym|Tokyo).*")
+                    ? new float[] {1, 0} : new float[] {0, 1})
+                .toList();
+        });
+        classifier.initialize();
+
+        // A single premium keyword is not enough to be sure
+        String prompt = "Which zip code does the Eiffel Tower in France have?";
+        assertEquals(RoutingTier.PREMIUM, classifier.classifyHeuristic(prompt).tier());
+
+        assertEquals(RoutingTier.ECO, classifier.classify(request(prompt)));
+        assertEquals(RoutingTier.ECO, classifier.classify(request(prompt)));
+        assertEquals(1.0, stage("model"));
+        assertEquals(1.0, stage("cache"));
+        verify(embeddingModel, times(1)).embed(List.of(prompt));
+    }
+
+    @Test
+    void testUncertainPromptWithoutModel_UsesHeuristic() {
+        classifier.initialize();
+
+        assertEquals(RoutingTier.PREMIUM, classifier.classify(request("Which zip code is this?")));
+        assertEquals(1.0, stage("unavailable"));
+    }
+
+    private AuraRequest request(String prompt) {
+        return new AuraRequest("gpt-4", List.of(new Message("user", prompt, null)),
+            false, null, null, null, null, null, null, null, null);
+    }
+
+    private double stage(String stage) {
+        return meterRegistry.get("aura.classifier.stage").tag("stage", stage).counter().count();
+    }
 }
@@ -1,9 +1,14 @@
 package io.github.girisenji.ai.aura.service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +19,22 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
 import io.github.girisenji.ai.aura.model.AuraRequest;
 import io.github.girisenji.ai.aura.model.AuraResponse;
 import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
 import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.service.cache.ResponseCodec;
+import io.github.girisenji.ai.aura.service.cache.TwoLevelCache;
+import io.github.girisenji.ai.aura.service.scheduling.OutputLengthPredictor;
+import io.github.girisenji.ai.aura.service.scheduling.RequestScheduler;
+import io.github.girisenji.ai.aura.service.streaming.StreamEvent;
+import io.github.girisenji.ai.aura.service.streaming.StreamSessionRegistry;
+import io.github.girisenji.ai.aura.service.streaming.StreamUsageRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
 
 @ExtendWith(MockitoExtension.class)
 class ChatServiceTest {
@@ -28,11 +45,19 @@ class ChatServiceTest {
     @Mock
     private DynamicModelRouter router;
 
+    private AuraProperties properties;
     private ChatService chatService;
 
     @BeforeEach
     void setUp() {
-        chatService = new ChatService(classifier, router);
+        properties = new AuraProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuraConfigHolder config = new AuraConfigHolder(properties);
+        RequestScheduler scheduler = new RequestScheduler(config, meterRegistry);
+        chatService = new ChatService(classifier, router, scheduler, new OutputLengthPredictor(config), config,
+            new StreamUsageRecorder(meterRegistry), new StreamSessionRegistry(properties, meterRegistry),
+            new TwoLevelCache<>("completions", properties.getResponseCache(), new ResponseCodec(), null, meterRegistry),
+            meterRegistry);
     }
 
     @Test
@@ -56,7 +81,7 @@ class ChatServiceTest {
             null,
             null
         );
-        when(router.route(any(AuraRequest.class), any(RoutingTier.class))).thenReturn(mockResponse);
+        when(router.route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class))).thenReturn(mockResponse);
 
         // Act
         AuraResponse response = chatService.chatCompletion(request);
@@ -65,7 +90,7 @@ class ChatServiceTest {
         assertNotNull(response);
         assertEquals("chatcmpl-123", response.id());
         verify(classifier, times(1)).classify(any(AuraRequest.class));
-        verify(router, times(1)).route(any(AuraRequest.class), any(RoutingTier.class));
+        verify(router, times(1)).route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class));
     }
 
     @Test
@@ -80,7 +105,7 @@ class ChatServiceTest {
         );
 
         when(classifier.classify(any(AuraRequest.class))).thenReturn(RoutingTier.PREMIUM);
-        when(router.route(any(AuraRequest.class), any(RoutingTier.class))).thenReturn(
+        when(router.route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class))).thenReturn(
             new AuraResponse("id", "chat.completion", 0L, "gpt-4", List.of(), null, null)
         );
 
@@ -91,4 +116,39 @@ class ChatServiceTest {
         assertNotNull(response);
         verify(classifier).classify(any(AuraRequest.class));
     }
+
+    @Test
+    void testChatCompletion_DeterministicRequestIsServedFromCache() {
+        AuraRequest request = new AuraRequest(
+            "gpt-4",
+            List.of(new Message("user", "What is 2 + 2?", null)),
+            false,
+            0.0, null, null, null, null, null, null, null
+        );
+
+        when(classifier.classify(any(AuraRequest.class))).thenReturn(RoutingTier.ECO);
+        when(router.route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class))).thenReturn(
+            new AuraResponse("cached", "chat.completion", 0L, "gpt-4o-mini", List.of(), null, null)
+        );
+
+        chatService.chatCompletion(request);
+        AuraResponse response = chatService.chatCompletion(request);
+
+        assertEquals("cached", response.id());
+        verify(router, times(1)).route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class));
+    }
+
+    @Test
+    void testServerSentEvents_TimeoutBoundsTheWholeStream() {
+        properties.getStreaming().setTimeout(Duration.ofMillis(200));
+        // A steady trickle of events would never trip a per-event idle timeout
+        Flux<StreamEvent> events = Flux.interval(Duration.ofMillis(20))
+            .map(i -> new StreamEvent(null, i + 1, "chunk"));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> chatService.toServerSentEvents(events).blockLast(Duration.ofSeconds(5)));
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().startsWith("Stream did not complete"));
+    }
 }
@@ -0,0 +1,385 @@
+package io.github.girisenji.ai.aura.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.provider.AnthropicProvider;
+import io.github.girisenji.ai.aura.service.provider.OpenAIProvider;
+import io.github.girisenji.ai.aura.service.provider.ProviderHttpException;
+import io.github.girisenji.ai.aura.service.routing.BulkheadFullException;
+import io.github.girisenji.ai.aura.service.routing.Bulkheads;
+import io.github.girisenji.ai.aura.service.routing.ContextWindowManager;
+import io.github.girisenji.ai.aura.service.routing.DeadlineExceededException;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+import io.github.girisenji.ai.aura.service.routing.ResponseVerifier;
+import io.github.girisenji.ai.aura.service.routing.RetryBudgetExhaustedException;
+import io.github.girisenji.ai.aura.service.routing.RetryPolicy;
+import io.github.girisenji.ai.aura.service.routing.RoutingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class DynamicModelRouterTest {
+
+    private AuraProperties properties;
+    private AuraConfigHolder config;
+    private OpenAIProvider openAIProvider;
+    private Bulkheads bulkheads;
+    private DynamicModelRouter router;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        properties.getCascade().setEnabled(true);
+
+        openAIProvider = mock(OpenAIProvider.class);
+        when(openAIProvider.name()).thenReturn("openai");
+        when(openAIProvider.isEnabled()).thenReturn(true);
+        when(openAIProvider.supportsModel(anyString())).thenAnswer(inv -> inv.<String>getArgument(0).startsWith("gpt-"));
+        AnthropicProvider anthropicProvider = mock(AnthropicProvider.class);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        config = new AuraConfigHolder(properties);
+        ModelLatencyTracker latencyTracker = new ModelLatencyTracker(properties, meterRegistry);
+        bulkheads = new Bulkheads(config, meterRegistry);
+        router = new DynamicModelRouter(
+            config,
+            openAIProvider,
+            anthropicProvider,
+            new RoutingPolicy(config, latencyTracker),
+            latencyTracker,
+            new ResponseVerifier(),
+            bulkheads,
+            new ContextWindowManager(config, meterRegistry),
+            new RetryPolicy(config, meterRegistry),
+            meterRegistry);
+        router.initialize();
+    }
+
+    @Test
+    void testCascade_ConfidentEcoAnswerAccepted() {
+        answer("gpt-3.5-turbo", "Paris is the capital of France.");
+
+        AuraResponse response = router.route(request("What is the capital of France?"), RoutingTier.PREMIUM);
+
+        assertEquals("gpt-3.5-turbo", response.model());
+        verify(openAIProvider, never()).generate(any(AuraRequest.class), eq("gpt-4o"));
+    }
+
+    @Test
+    void testCascade_LowConfidenceEscalatesToClassifiedTier() {
+        answer("gpt-3.5-turbo", "I'm not sure about that.");
+        answer("gpt-4o-mini", "I don't know.");
+        answer("gpt-4o", "Paris is the capital of France.");
+
+        AuraResponse response = router.route(request("What is the capital of France?"), RoutingTier.PREMIUM);
+
+        assertEquals("gpt-4o", response.model());
+    }
+
+    @Test
+    void testCascade_SpeculativePremiumUsedWhenCheapAnswerRejected() {
+        properties.getCascade().setSpeculative(true);
+        properties.getCascade().setSpeculativeDelay(Duration.ZERO);
+        answer("gpt-3.5-turbo", "");
+        answer("gpt-4o-mini", "");
+        answer("gpt-4o", "Paris is the capital of France.");
+
+        AuraResponse response = router.route(request("What is the capital of France?"), RoutingTier.PREMIUM);
+
+        assertEquals("gpt-4o", response.model());
+    }
+
+    @Test
+    void testBulkhead_FullModelOverflowsToNextChainMember() throws Exception {
+        properties.getCascade().setEnabled(false);
+        properties.getBulkhead().getModels().put("gpt-4o", new AuraProperties.Bulkhead.Limit(1, Duration.ZERO));
+        answer("gpt-4o", "from gpt-4o");
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+
+        try (Bulkheads.Lease held = bulkheads.tryAcquire("openai", "gpt-4o").orElseThrow()) {
+            AuraResponse response = router.route(request("Explain bulkheads"), RoutingTier.PREMIUM);
+            assertEquals("gpt-4-turbo", response.model());
+        }
+
+        AuraResponse response = router.route(request("Explain bulkheads"), RoutingTier.PREMIUM);
+        assertEquals("gpt-4o", response.model());
+    }
+
+    @Test
+    void testBulkhead_SaturatedProviderIsRejected() throws Exception {
+        properties.getCascade().setEnabled(false);
+        properties.getBulkhead().getProviders().put("openai", new AuraProperties.Bulkhead.Limit(1, Duration.ZERO));
+
+        try (Bulkheads.Lease held = bulkheads.tryAcquire("openai", "gpt-4o").orElseThrow()) {
+            assertThrows(BulkheadFullException.class,
+                () -> router.route(request("Explain bulkheads"), RoutingTier.PREMIUM));
+        }
+    }
+
+    @Test
+    void testReload_NewChainAppliesToLaterRequests() {
+        properties.getCascade().setEnabled(false);
+        answer("gpt-4o", "from gpt-4o");
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+        assertEquals("gpt-4o", router.route(request("Explain reloads"), RoutingTier.PREMIUM).model());
+
+        AuraProperties reloaded = new AuraProperties();
+        reloaded.getRouting().getChains().put(RoutingTier.PREMIUM, List.of("gpt-4-turbo", "gpt-4o"));
+        config.publish(reloaded, "test");
+
+        assertEquals("gpt-4-turbo", router.route(request("Explain reloads"), RoutingTier.PREMIUM).model());
+    }
+
+    @Test
+    void testReload_BulkheadResizedInPlace() throws Exception {
+        properties.getCascade().setEnabled(false);
+        properties.getBulkhead().getModels().put("gpt-4o", new AuraProperties.Bulkhead.Limit(1, Duration.ZERO));
+
+        try (Bulkheads.Lease held = bulkheads.tryAcquire("openai", "gpt-4o").orElseThrow()) {
+            AuraProperties reloaded = new AuraProperties();
+            reloaded.getBulkhead().getModels().put("gpt-4o", new AuraProperties.Bulkhead.Limit(2, Duration.ZERO));
+            config.publish(reloaded, "test");
+
+            // The held lease still counts against the raised limit
+            Bulkheads.Lease second = bulkheads.tryAcquire("openai", "gpt-4o").orElseThrow();
+            assertTrue(bulkheads.tryAcquire("openai", "gpt-4o").isEmpty());
+            second.close();
+        }
+    }
+
+    @Test
+    void testStream_FailsOverBeforeFirstChunk() {
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o")))
+            .thenReturn(Flux.error(new IllegalStateException("upstream down")));
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4-turbo")))
+            .thenReturn(Flux.just("a", "b"));
+
+        List<String> chunks = router.stream(request("Explain streams"), RoutingTier.PREMIUM, RequestContext.anonymous())
+            .collectList()
+            .block();
+
+        assertEquals(List.of("a", "b"), chunks);
+    }
+
+    @Test
+    void testStream_AttemptRunsOffTheSubscribingThread() {
+        AtomicBoolean onVirtualThread = new AtomicBoolean();
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o"))).thenAnswer(invocation -> {
+            onVirtualThread.set(Thread.currentThread().isVirtual());
+            return Flux.just("a");
+        });
+
+        router.stream(request("Explain streams"), RoutingTier.PREMIUM, RequestContext.anonymous())
+            .blockLast(Duration.ofSeconds(5));
+
+        assertTrue(onVirtualThread.get());
+    }
+
+    @Test
+    void testStream_NoFailoverAfterOutputStarted() {
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o")))
+            .thenReturn(Flux.concat(Flux.just("a"), Flux.error(new IllegalStateException("connection reset"))));
+
+        List<String> received = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> router
+            .stream(request("Explain streams"), RoutingTier.PREMIUM, RequestContext.anonymous())
+            .doOnNext(received::add)
+            .blockLast());
+
+        assertEquals(List.of("a"), received);
+        verify(openAIProvider, never()).stream(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testStream_InterruptCancelsUpstream() throws Exception {
+        CountDownLatch subscribed = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o")))
+            .thenReturn(Flux.<String>never()
+                .doOnSubscribe(s -> subscribed.countDown())
+                .doOnCancel(cancelled::countDown));
+
+        Thread consumer = Thread.ofVirtual().start(() -> {
+            try {
+                router.routeStreaming(request("Explain streams"), RoutingTier.PREMIUM, RequestContext.anonymous(),
+                    chunk -> { });
+            } catch (RuntimeException expected) {
+                // Interrupted while waiting for the next chunk
+            }
+        });
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+
+        consumer.interrupt();
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        consumer.join();
+    }
+
+    @Test
+    void testDeadline_SlowModelCutOffWithoutFallback() {
+        properties.getCascade().setEnabled(false);
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o"))).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return AuraResponse.create("gpt-4o", "too late", new Usage(10, 10));
+        });
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+        RequestContext context = RequestContext.anonymous().withDeadline(Instant.now().plusMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+            () -> router.route(request("Explain deadlines"), RoutingTier.PREMIUM, context));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+        verify(openAIProvider, never()).generate(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testDeadline_FallbackRunsWithinRemainingBudget() {
+        properties.getCascade().setEnabled(false);
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o")))
+            .thenThrow(new IllegalStateException("upstream down"));
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+        RequestContext context = RequestContext.anonymous().withDeadline(Instant.now().plusSeconds(5));
+
+        AuraResponse response = router.route(request("Explain deadlines"), RoutingTier.PREMIUM, context);
+
+        assertEquals("gpt-4-turbo", response.model());
+    }
+
+    @Test
+    void testDeadline_StreamWithoutFirstChunkInTimeFails() {
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o"))).thenReturn(Flux.never());
+        RequestContext context = RequestContext.anonymous().withDeadline(Instant.now().plusMillis(200));
+
+        assertThrows(DeadlineExceededException.class, () -> router
+            .stream(request("Explain deadlines"), RoutingTier.PREMIUM, context)
+            .blockLast(Duration.ofSeconds(5)));
+        verify(openAIProvider, never()).stream(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testRetry_TransientFailureRetriedOnSameModel() {
+        properties.getCascade().setEnabled(false);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o")))
+            .thenThrow(new ProviderHttpException(503, "overloaded"))
+            .thenReturn(AuraResponse.create("gpt-4o", "from gpt-4o", new Usage(10, 10)));
+
+        AuraResponse response = router.route(request("Explain retries"), RoutingTier.PREMIUM);
+
+        assertEquals("gpt-4o", response.model());
+        verify(openAIProvider, times(2)).generate(any(AuraRequest.class), eq("gpt-4o"));
+        verify(openAIProvider, never()).generate(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testRetry_StreamRetriedOffTheTimerThread() {
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        AtomicBoolean retriedOnVirtualThread = new AtomicBoolean();
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o")))
+            .thenReturn(Flux.error(new ProviderHttpException(503, "overloaded")))
+            .thenReturn(Flux.defer(() -> {
+                retriedOnVirtualThread.set(Thread.currentThread().isVirtual());
+                return Flux.just("a");
+            }));
+
+        List<String> chunks = router.stream(request("Explain retries"), RoutingTier.PREMIUM, RequestContext.anonymous())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("a"), chunks);
+        assertTrue(retriedOnVirtualThread.get());
+        verify(openAIProvider, never()).stream(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testRetry_ProviderRejectionFailsOverWithoutRetry() {
+        properties.getCascade().setEnabled(false);
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o")))
+            .thenThrow(new ProviderHttpException(400, "unsupported parameter"));
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+
+        AuraResponse response = router.route(request("Explain retries"), RoutingTier.PREMIUM);
+
+        assertEquals("gpt-4-turbo", response.model());
+        verify(openAIProvider, times(1)).generate(any(AuraRequest.class), eq("gpt-4o"));
+    }
+
+    @Test
+    void testRetry_InvalidRequestNotFailedOver() {
+        properties.getCascade().setEnabled(false);
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o")))
+            .thenThrow(new IllegalArgumentException("Invalid role: bot"));
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> router.route(request("Explain retries"), RoutingTier.PREMIUM));
+        verify(openAIProvider, never()).generate(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testRetry_SpentBudgetStopsFallbacks() {
+        properties.getCascade().setEnabled(false);
+        properties.getRetry().setBudgetCapacity(0);
+        when(openAIProvider.generate(any(AuraRequest.class), eq("gpt-4o")))
+            .thenThrow(new IllegalStateException("upstream down"));
+        answer("gpt-4-turbo", "from gpt-4-turbo");
+
+        assertThrows(RetryBudgetExhaustedException.class,
+            () -> router.route(request("Explain retries"), RoutingTier.PREMIUM));
+        verify(openAIProvider, never()).generate(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    @Test
+    void testRetry_SpentBudgetFailsStream() {
+        properties.getRetry().setBudgetCapacity(0);
+        when(openAIProvider.stream(any(AuraRequest.class), eq("gpt-4o")))
+            .thenReturn(Flux.error(new IllegalStateException("upstream down")));
+
+        assertThrows(RetryBudgetExhaustedException.class, () -> router
+            .stream(request("Explain retries"), RoutingTier.PREMIUM, RequestContext.anonymous())
+            .blockLast(Duration.ofSeconds(5)));
+        verify(openAIProvider, never()).stream(any(AuraRequest.class), eq("gpt-4-turbo"));
+    }
+
+    private void answer(String model, String content) {
+        when(openAIProvider.generate(any(AuraRequest.class), eq(model)))
+            .thenReturn(AuraResponse.create(model, content, new Usage(10, 10)));
+    }
+
+    private AuraRequest request(String prompt) {
+        return new AuraRequest(
+            "gpt-4",
+            List.of(new Message("user", prompt, null)),
+            false, null, null, null, null, null, null, null, null
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.girisenji.ai.aura.service;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import org.junit.jupiter.api.Test;
+
+class KeywordAutomatonTest {
+
+    private final KeywordAutomaton automaton = new KeywordAutomaton(
+        Map.of("he", 0, "she", 0, "hers", 1, "his", 1), 2);
+
+    @Test
+    void testCountsOverlappingMatchesCaseInsensitively() {
+        // "uSHErs" contains she, he and hers
+        assertArrayEquals(new int[] {2, 1}, automaton.count("uSHErs"));
+    }
+
+    @Test
+    void testNonAsciiResetsMatching() {
+        assertArrayEquals(new int[] {0, 0}, automaton.count("hé"));
+        assertArrayEquals(new int[] {1, 1}, automaton.count("café his he"));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.girisenji.ai.aura.service.batch;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.AuraClassifier;
+import io.github.girisenji.ai.aura.service.DynamicModelRouter;
+import io.github.girisenji.ai.aura.service.scheduling.RequestScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchServiceTest {
+
+    @TempDir
+    Path outputDir;
+
+    private AuraProperties properties;
+    private AuraClassifier classifier;
+    private DynamicModelRouter router;
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        properties.getBatch().setOutputDir(outputDir.toString());
+
+        classifier = mock(AuraClassifier.class);
+        when(classifier.classify(any(AuraRequest.class))).thenReturn(RoutingTier.ECO);
+
+        router = mock(DynamicModelRouter.class);
+        when(router.primaryProvider(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class)))
+            .thenReturn("openai");
+        when(router.route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class)))
+            .thenReturn(AuraResponse.create("gpt-3.5-turbo", "ok", new Usage(5, 5)));
+
+        batchService = newBatchService();
+    }
+
+    @Test
+    void testBatch_FailedLineReturnsItsTokens() throws Exception {
+        // Room for one reservation at a time; a leaked one would stall the next line for seconds
+        properties.getBatch().setTokensPerMinute(100);
+        batchService = newBatchService();
+        when(router.route(any(AuraRequest.class), any(RoutingTier.class), any(RequestContext.class)))
+            .thenThrow(new IllegalStateException("upstream down"))
+            .thenReturn(AuraResponse.create("gpt-3.5-turbo", "ok", new Usage(5, 5)));
+        String jsonl = """
+            {"custom_id": "first", "body": {"messages": [{"role": "user", "content": "Hi"}], "max_tokens": 60}}
+            {"custom_id": "second", "body": {"messages": [{"role": "user", "content": "Hi"}], "max_tokens": 60}}
+            """;
+
+        BatchJob job = batchService.submit(
+            new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), RequestContext.anonymous());
+        awaitFinished(job);
+
+        assertEquals(BatchJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.toStatus().requestCounts().completed());
+        assertEquals(1, job.toStatus().requestCounts().failed());
+    }
+
+    @Test
+    void testBatch_WritesOneResultPerLine() throws Exception {
+        String jsonl = """
+            {"custom_id": "a", "method": "POST", "url": "/v1/chat/completions", "body": {"messages": [{"role": "user", "content": "Hi"}]}}
+            {"messages": [{"role": "user", "content": "Hello"}]}
+            {"custom_id": "broken", "body": {"messages": [{"role": "robot", "content": "Beep"}]}}
+            """;
+
+        BatchJob job = batchService.submit(
+            new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), RequestContext.anonymous());
+        awaitFinished(job);
+
+        assertEquals(BatchJob.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.toStatus().requestCounts().total());
+        assertEquals(2, job.toStatus().requestCounts().completed());
+        assertEquals(1, job.toStatus().requestCounts().failed());
+
+        List<String> output = Files.readAllLines(job.getOutputFile());
+        assertEquals(3, output.size());
+        assertTrue(output.stream().anyMatch(line -> line.contains("\"custom_id\":\"a\"")));
+        assertTrue(output.stream().anyMatch(line -> line.contains("\"custom_id\":\"request-2\"")));
+    }
+
+    @Test
+    void testBatch_ExpiresAfterRetention() throws Exception {
+        properties.getBatch().setRetention(Duration.ofMillis(50));
+        String jsonl = """
+            {"messages": [{"role": "user", "content": "Hi"}]}
+            """;
+
+        BatchJob job = batchService.submit(
+            new ByteArrayInputStream(jsonl.getBytes(StandardCharsets.UTF_8)), RequestContext.anonymous());
+        awaitFinished(job);
+        for (int i = 0; i < 200 && batchService.find(job.getId()).isPresent(); i++) {
+            Thread.sleep(25);
+        }
+
+        assertTrue(batchService.find(job.getId()).isEmpty());
+        assertFalse(Files.exists(job.getInputFile()));
+        assertFalse(Files.exists(job.getOutputFile()));
+    }
+
+    private BatchService newBatchService() {
+        RequestScheduler scheduler = new RequestScheduler(new AuraConfigHolder(properties), new SimpleMeterRegistry());
+        return new BatchService(properties, classifier, router, scheduler, new ObjectMapper());
+    }
+
+    private void awaitFinished(BatchJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getStatus() != BatchJob.Status.COMPLETED; i++) {
+            Thread.sleep(25);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecordsAreReadBackLazilyAndOnlyOnce() throws IOException {
+        Path file = dir.resolve("snapshot.seg");
+        try (CacheSnapshot.Writer out = CacheSnapshot.create(file)) {
+            out.append("completions", "a", bytes("first"));
+            out.append("completions", "b", bytes("second"));
+            out.append("latency", "a", bytes("other section"));
+            out.commit();
+        }
+
+        CacheSnapshot snapshot = CacheSnapshot.open(file);
+
+        assertEquals(2, snapshot.size("completions"));
+        assertArrayEquals(bytes("first"), snapshot.take("completions", "a"));
+        assertNull(snapshot.take("completions", "a"));
+        assertArrayEquals(bytes("other section"), snapshot.take("latency", "a"));
+    }
+
+    @Test
+    void testCorruptRecordIsDroppedAndTornTailIgnored() throws IOException {
+        Path file = dir.resolve("snapshot.seg");
+        try (CacheSnapshot.Writer out = CacheSnapshot.create(file)) {
+            out.append("completions", "a", bytes("intact"));
+            out.append("completions", "b", bytes("flipped"));
+            out.commit();
+        }
+        byte[] contents = Files.readAllBytes(file);
+        contents[contents.length - 1] ^= 1;
+        byte[] torn = new byte[contents.length + 6];
+        System.arraycopy(contents, 0, torn, 0, contents.length);
+        Files.write(file, torn);
+
+        CacheSnapshot snapshot = CacheSnapshot.open(file);
+
+        assertArrayEquals(bytes("intact"), snapshot.take("completions", "a"));
+        assertNull(snapshot.take("completions", "b"));
+    }
+
+    @Test
+    void testRestartServesCachedEntriesAndLatencyHistory() throws IOException {
+        AuraProperties properties = new AuraProperties();
+        properties.getSnapshot().setFile(dir.resolve("snapshot.seg").toString());
+        properties.getResponseCache().setEarlyExpirationBeta(0.0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        TwoLevelCache<AuraResponse> before = completionCache(properties);
+        ModelLatencyTracker trackerBefore = new ModelLatencyTracker(properties, meterRegistry);
+        before.get("k", () -> AuraResponse.create("gpt-4o", "remembered", new Usage(1, 1)), r -> true);
+        trackerBefore.record("gpt-4o", Duration.ofMillis(120));
+        new CacheSnapshotter(properties, List.of(before), trackerBefore).write();
+
+        TwoLevelCache<AuraResponse> after = completionCache(properties);
+        ModelLatencyTracker trackerAfter = new ModelLatencyTracker(properties, new SimpleMeterRegistry());
+        new CacheSnapshotter(properties, List.of(after), trackerAfter).restore();
+        AtomicInteger loads = new AtomicInteger();
+        AuraResponse response = after.get("k", () -> {
+            loads.incrementAndGet();
+            return AuraResponse.create("gpt-4o", "recomputed", new Usage(1, 1));
+        }, r -> true);
+
+        assertEquals("remembered", response.choices().get(0).message().content());
+        assertEquals(0, loads.get());
+        assertEquals(Duration.ofMillis(120), trackerAfter.p95("gpt-4o").orElseThrow());
+        assertTrue(Files.list(dir).allMatch(path -> path.getFileName().toString().equals("snapshot.seg")));
+    }
+
+    private static TwoLevelCache<AuraResponse> completionCache(AuraProperties properties) {
+        return new TwoLevelCache<>("completions", properties.getResponseCache(), new ResponseCodec(), null,
+            new SimpleMeterRegistry());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
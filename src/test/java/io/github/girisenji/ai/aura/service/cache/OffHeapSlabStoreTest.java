@@ -0,0 +1,87 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OffHeapSlabStoreTest {
+
+    // One 1 KiB slab: four 256-byte slots
+    private final OffHeapSlabStore store = new OffHeapSlabStore("test", 1024, 1024, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void testReadReturnsStoredBytesAsReadOnlyView() {
+        assertTrue(store.put("a", bytes("hello")));
+
+        ByteBuffer[] view = new ByteBuffer[1];
+        assertEquals("hello", store.read("a", buffer -> {
+            view[0] = buffer;
+            return string(buffer);
+        }));
+        assertTrue(view[0].isDirect() && view[0].isReadOnly());
+        assertNull(store.read("missing", OffHeapSlabStoreTest::string));
+    }
+
+    @Test
+    void testReplaceAndRemoveFreeTheirSlots() {
+        store.put("a", bytes("one"));
+        store.put("a", bytes("two"));
+        store.remove("a");
+        for (int i = 0; i < 4; i++) {
+            store.put("k" + i, bytes("v" + i));
+        }
+
+        assertEquals(4, store.size());
+        assertEquals("v0", store.read("k0", OffHeapSlabStoreTest::string));
+        assertEquals(1024, store.allocatedBytes());
+    }
+
+    @Test
+    void testClockEvictsAnEntryThatWasNotReadRecently() {
+        for (int i = 0; i < 4; i++) {
+            store.put("k" + i, bytes("v" + i));
+        }
+        // First sweep clears every bit; k1 is read again before the second one
+        store.put("k4", bytes("v4"));
+        store.read("k1", OffHeapSlabStoreTest::string);
+        store.put("k5", bytes("v5"));
+
+        assertEquals(4, store.size());
+        assertNull(store.read("k0", OffHeapSlabStoreTest::string));
+        assertNotNull(store.read("k1", OffHeapSlabStoreTest::string));
+        assertNotNull(store.read("k5", OffHeapSlabStoreTest::string));
+    }
+
+    @Test
+    void testValuesWithoutRoomAreRejected() {
+        assertFalse(store.put("big", new byte[512 * 1024]));
+        // The 512-byte class would need a second slab, which the budget does not allow
+        store.put("small", bytes("x"));
+        assertFalse(store.put("medium", new byte[300]));
+        assertNull(store.read("medium", OffHeapSlabStoreTest::string));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.service.cache.PromptCacheAdvisor.CacheHint;
+
+class PromptCacheAdvisorTest {
+
+    private static final String LONG_SYSTEM_PROMPT = "You are a meticulous support agent. ".repeat(200);
+
+    private PromptCacheAdvisor advisor;
+
+    @BeforeEach
+    void setUp() {
+        AuraProperties properties = new AuraProperties();
+        properties.getPromptCache().setMinPrefixTokens(1024);
+        properties.getPromptCache().setMinOccurrences(2);
+        advisor = new PromptCacheAdvisor(new AuraConfigHolder(properties));
+    }
+
+    @Test
+    void testRepeatedLongSystemPrompt_MarkedAfterSecondSighting() {
+        List<Message> first = List.of(
+            new Message("system", LONG_SYSTEM_PROMPT, null),
+            new Message("user", "Where is my order?", null));
+        List<Message> second = List.of(
+            new Message("system", LONG_SYSTEM_PROMPT, null),
+            new Message("user", "How do I reset my password?", null));
+
+        assertFalse(advisor.advise(first).breakpoint());
+
+        CacheHint hint = advisor.advise(second);
+        assertTrue(hint.breakpoint());
+        assertEquals(1, hint.prefixMessages());
+    }
+
+    @Test
+    void testShortSystemPrompt_NeverMarked() {
+        List<Message> messages = List.of(
+            new Message("system", "Be brief.", null),
+            new Message("user", "Hello", null));
+
+        advisor.advise(messages);
+        assertFalse(advisor.advise(messages).breakpoint());
+    }
+
+    @Test
+    void testNoSystemPrompt_NoBreakpoint() {
+        List<Message> messages = List.of(new Message("user", LONG_SYSTEM_PROMPT, null));
+
+        advisor.advise(messages);
+        assertEquals(0, advisor.advise(messages).prefixMessages());
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Choice;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Usage;
+
+class ResponseCodecTest {
+
+    private final ResponseCodec codec = new ResponseCodec();
+
+    @Test
+    void testRoundTripWithNullsAndRepeatedStrings() {
+        AuraResponse original = new AuraResponse("chatcmpl-1", "chat.completion", 1700000000L, "my-custom-model",
+            List.of(
+                new Choice(0, new Message("assistant", "first", null), "stop", null),
+                new Choice(1, new Message("assistant", "my-custom-model", "bot"), null, null),
+                Choice.streaming(2, new Message("assistant", "", null), "length")),
+            new Usage(12, 3, 15, null), "fp_1");
+
+        assertEquals(original, codec.decode(codec.encode(original)));
+    }
+
+    @Test
+    void testEncodingIsMuchSmallerThanJson() throws Exception {
+        AuraResponse response = AuraResponse.create("gpt-4o-mini", "Four.", new Usage(20, 2));
+        ObjectMapper json = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        int binary = codec.encode(response).length;
+        int text = json.writeValueAsBytes(response).length;
+
+        assertTrue(binary * 4 < text, binary + " bytes binary vs " + text + " bytes JSON");
+    }
+
+    @Test
+    void testDecodesInPlaceFromDirectBufferSlice() {
+        byte[] encoded = codec.encode(AuraResponse.create("gpt-4o", "héllo ✓", new Usage(1, 1)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.length + 7);
+        direct.position(7);
+        direct.put(encoded);
+        direct.position(7);
+
+        assertEquals("héllo ✓", codec.decode(direct).choices().get(0).message().content());
+    }
+
+    @Test
+    void testRejectsOtherVersionsAndTruncatedEntries() {
+        byte[] encoded = codec.encode(AuraResponse.create("gpt-4o", "hello", new Usage(1, 1)));
+        byte[] otherVersion = encoded.clone();
+        otherVersion[0] = (byte) (ResponseCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(otherVersion));
+        assertThrows(IllegalArgumentException.class,
+            () -> codec.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 3)));
+    }
+
+    @Test
+    void testVectorRoundTrip() {
+        VectorCodec vectors = new VectorCodec();
+        float[] vector = {0.25f, -1.5f, Float.MIN_VALUE, 3.0e7f};
+
+        byte[] encoded = vectors.encode(vector);
+
+        assertArrayEquals(vector, vectors.decode(encoded));
+        assertEquals(2 + vector.length * Float.BYTES, encoded.length);
+    }
+}
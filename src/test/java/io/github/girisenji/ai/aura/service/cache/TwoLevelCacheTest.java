@@ -0,0 +1,214 @@
+package io.github.girisenji.ai.aura.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Choice;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoLevelCacheTest {
+
+    private AuraProperties.ResponseCache config;
+    private InMemoryTier shared;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuraProperties().getResponseCache();
+        // No early refresh, so hits are deterministic
+        config.setEarlyExpirationBeta(0.0);
+        shared = new InMemoryTier();
+    }
+
+    @Test
+    void testValueWrittenByOneReplicaIsReadFromL2ByAnother() {
+        TwoLevelCache<AuraResponse> first = cache();
+        TwoLevelCache<AuraResponse> second = cache();
+        AtomicInteger loads = new AtomicInteger();
+
+        first.get("k", () -> response("a", loads.incrementAndGet()), r -> true);
+        AuraResponse fromSecond = second.get("k", () -> response("b", loads.incrementAndGet()), r -> true);
+
+        assertEquals("a", fromSecond.id());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRewriteInvalidatesOtherReplicasL1() {
+        TwoLevelCache<AuraResponse> first = cache();
+        TwoLevelCache<AuraResponse> second = cache();
+        second.get("k", () -> response("old", 1), r -> true);
+
+        first.invalidate("k");
+        first.get("k", () -> response("new", 2), r -> true);
+
+        assertEquals("new", second.get("k", () -> response("unexpected", 3), r -> true).id());
+    }
+
+    @Test
+    void testRejectedValueIsNotCached() {
+        TwoLevelCache<AuraResponse> cache = cache();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("k", () -> response("x", loads.incrementAndGet()), r -> false);
+        cache.get("k", () -> response("x", loads.incrementAndGet()), r -> false);
+
+        assertEquals(2, loads.get());
+        assertNull(shared.values.get("completions:k"));
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        TwoLevelCache<AuraResponse> cache = cache();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<AuraResponse>> results = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return response("shared", 1);
+                }, r -> true)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<AuraResponse> result : results) {
+                assertEquals("shared", result.get(5, TimeUnit.SECONDS).id());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEarlyRefreshOutlivesTheOriginalExpiry() throws Exception {
+        config.setTtl(Duration.ofSeconds(1));
+        // A slow first load and a large beta make an early refresh all but certain well before expiry
+        config.setEarlyExpirationBeta(1000.0);
+        AtomicInteger loads = new AtomicInteger();
+        TwoLevelCache<AuraResponse> cache = new TwoLevelCache<>("completions", config, new ResponseCodec(), null,
+            new SimpleMeterRegistry());
+
+        long start = System.currentTimeMillis();
+        cache.get("k", () -> {
+            sleep(100);
+            return response("slow", loads.incrementAndGet());
+        }, r -> true);
+        Thread.sleep(400);
+        // The refresh is instant, so the refreshed entry is not itself refreshed early
+        for (int i = 0; i < 50 && loads.get() < 2; i++) {
+            cache.get("k", () -> response("fast", loads.incrementAndGet()), r -> true);
+        }
+        assertEquals(2, loads.get());
+
+        Thread.sleep(Math.max(0, start + 1300 - System.currentTimeMillis()));
+        AuraResponse hit = cache.get("k", () -> response("reloaded", loads.incrementAndGet()), r -> true);
+
+        assertEquals("fast", hit.id());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testOffHeapL1ServesHitsWithoutReloading() {
+        config.getOffHeap().setEnabled(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        try (TwoLevelCache<AuraResponse> cache = new TwoLevelCache<>("completions", config, new ResponseCodec(),
+                null, new SimpleMeterRegistry())) {
+            cache.get("k", () -> response("a", loads.incrementAndGet()), r -> true);
+            AuraResponse hit = cache.get("k", () -> response("b", loads.incrementAndGet()), r -> true);
+
+            assertEquals("a", hit.id());
+            assertEquals("answer 1", hit.choices().get(0).message().content());
+            assertEquals(1, loads.get());
+        }
+    }
+
+    @Test
+    void testCodecRoundTrip() {
+        ResponseCodec codec = new ResponseCodec();
+        AuraResponse original = new AuraResponse("id-1", "chat.completion", 1700000000L, "gpt-4o",
+            List.of(new Choice(0, new Message("assistant", "héllo ✓", null), "stop", null)),
+            new Usage(12, 3, 15, new Usage.PromptTokensDetails(8, 0)), null);
+
+        assertEquals(original, codec.decode(codec.encode(original)));
+    }
+
+    private TwoLevelCache<AuraResponse> cache() {
+        return new TwoLevelCache<>("completions", config, new ResponseCodec(), shared, new SimpleMeterRegistry());
+    }
+
+    private static AuraResponse response(String id, int version) {
+        return new AuraResponse(id, "chat.completion", 0L, "gpt-4o",
+            List.of(new Choice(0, new Message("assistant", "answer " + version, null), "stop")),
+            new Usage(1, 1), null);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Shared tier that delivers invalidations synchronously to every replica
+     */
+    private static class InMemoryTier implements RemoteCacheTier {
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public byte[] get(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void set(String key, byte[] value, Duration ttl) {
+            values.put(key, value);
+        }
+
+        @Override
+        public void delete(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void publishInvalidation(String message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void onInvalidation(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+    }
+}
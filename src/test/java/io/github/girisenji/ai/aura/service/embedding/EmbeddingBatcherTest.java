@@ -0,0 +1,85 @@
+package io.github.girisenji.ai.aura.service.embedding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmbeddingBatcherTest {
+
+    @Test
+    void testConcurrentCallersShareOneBatch() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher("test", texts -> {
+            batchSizes.add(texts.size());
+            return texts.stream().map(text -> new float[] { text.length() }).toList();
+        }, 32, Duration.ofMillis(200), new SimpleMeterRegistry())) {
+            List<CompletableFuture<float[]>> results = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                results.add(batcher.submit("x".repeat(i)));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i + 1, results.get(i).join()[0]);
+            }
+            assertEquals(List.of(10), batchSizes);
+        }
+    }
+
+    @Test
+    void testFullBatchIsDispatchedWithoutWaiting() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher("test", texts -> {
+            batchSizes.add(texts.size());
+            return texts.stream().map(text -> new float[0]).toList();
+        }, 4, Duration.ofMinutes(1), new SimpleMeterRegistry())) {
+            List<CompletableFuture<float[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(batcher.submit("text"));
+            }
+
+            results.forEach(CompletableFuture::join);
+            assertEquals(List.of(4, 4), batchSizes);
+        }
+    }
+
+    @Test
+    void testEachOutputSizeGetsItsOwnModelCall() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher("test", (dimensions, texts) -> {
+            calls.add(dimensions + ":" + texts.size());
+            return texts.stream().map(text -> new float[dimensions]).toList();
+        }, 32, Duration.ofMillis(200), new SimpleMeterRegistry())) {
+            CompletableFuture<float[]> small = batcher.submit("a", 2);
+            CompletableFuture<float[]> large = batcher.submit("b", 4);
+            CompletableFuture<float[]> smallAgain = batcher.submit("c", 2);
+
+            assertEquals(2, small.join().length);
+            assertEquals(4, large.join().length);
+            assertEquals(2, smallAgain.join().length);
+            assertEquals(List.of("2:2", "4:1"), calls);
+        }
+    }
+
+    @Test
+    void testModelFailureFailsEveryCallerInTheBatch() {
+        try (EmbeddingBatcher batcher = new EmbeddingBatcher("test", texts -> {
+            throw new IllegalStateException("model down");
+        }, 8, Duration.ofMillis(50), new SimpleMeterRegistry())) {
+            CompletableFuture<float[]> first = batcher.submit("a");
+            CompletableFuture<float[]> second = batcher.submit("b");
+
+            CompletionException error = assertThrows(CompletionException.class, first::join);
+            assertEquals("model down", error.getCause().getMessage());
+            assertThrows(CompletionException.class, second::join);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.girisenji.ai.aura.service.embedding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.EmbeddingRequest;
+import io.github.girisenji.ai.aura.model.EmbeddingResponse;
+import io.github.girisenji.ai.aura.service.cache.TwoLevelCache;
+import io.github.girisenji.ai.aura.service.cache.VectorCodec;
+import io.github.girisenji.ai.aura.service.provider.OpenAIProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmbeddingServiceTest {
+
+    private LocalEmbeddingModel localModel;
+    private OpenAIProvider openai;
+    private EmbeddingService service;
+
+    @BeforeEach
+    void setUp() {
+        AuraProperties properties = new AuraProperties();
+        properties.getEmbeddings().getCache().setEarlyExpirationBeta(0.0);
+        localModel = mock(LocalEmbeddingModel.class);
+        openai = mock(OpenAIProvider.class);
+        when(localModel.isAvailable()).thenReturn(true);
+        when(localModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> new float[] { text.length(), 1.0f }).toList();
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TwoLevelCache<float[]> cache = new TwoLevelCache<>("embeddings", properties.getEmbeddings().getCache(),
+            new VectorCodec(), null, meterRegistry);
+        service = new EmbeddingService(properties, localModel, openai, cache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testDefaultModelIsServedLocally() {
+        EmbeddingResponse response = service.embed(request(null, null, null, "hello", "hi"));
+
+        assertEquals("all-MiniLM-L6-v2", response.model());
+        assertEquals(2, response.data().size());
+        assertArrayEquals(new float[] { 5, 1 }, (float[]) response.data().get(0).embedding());
+        assertEquals(1, response.data().get(1).index());
+        verify(openai, never()).embed(anyList(), any(), any());
+    }
+
+    @Test
+    void testRepeatedInputsAreServedFromCache() {
+        service.embed(request(null, null, null, "hello"));
+        service.embed(request(null, null, null, "hello"));
+
+        verify(localModel, times(1)).embed(anyList());
+    }
+
+    @Test
+    void testOtherDimensionsGoUpstream() {
+        when(openai.embed(anyList(), eq("text-embedding-3-small"), eq(256)))
+            .thenReturn(List.of(new float[256]));
+
+        EmbeddingResponse response = service.embed(request(null, 256, null, "hello"));
+
+        assertEquals("text-embedding-3-small", response.model());
+        verify(localModel, never()).embed(anyList());
+    }
+
+    @Test
+    void testMissingLocalModelFallsBackUpstreamAtTheSameSize() {
+        when(localModel.isAvailable()).thenReturn(false);
+        when(openai.embed(anyList(), eq("text-embedding-3-small"), eq(384)))
+            .thenReturn(List.of(new float[384]));
+
+        EmbeddingResponse response = service.embed(request(null, null, null, "hello"));
+
+        assertEquals("text-embedding-3-small", response.model());
+    }
+
+    @Test
+    void testBase64EncodingIsLittleEndianFloat32() {
+        EmbeddingResponse response = service.embed(request(null, null, EmbeddingRequest.BASE64, "abc"));
+
+        ByteBuffer bytes = ByteBuffer.wrap(Base64.getDecoder().decode((String) response.data().get(0).embedding()))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(3.0f, bytes.getFloat());
+        assertEquals(1.0f, bytes.getFloat());
+    }
+
+    @Test
+    void testEmptyInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.embed(request(null, null, null, "")));
+    }
+
+    @Test
+    void testUnknownModelAndOversizedDimensionsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.embed(request("made-up-model", null, null, "hello")));
+        assertThrows(IllegalArgumentException.class, () -> service.embed(request(null, 100_000, null, "hello")));
+        verify(openai, never()).embed(anyList(), any(), any());
+    }
+
+    private EmbeddingRequest request(String model, Integer dimensions, String encodingFormat, String... input) {
+        return new EmbeddingRequest(model, List.of(input), encodingFormat, dimensions, null);
+    }
+}
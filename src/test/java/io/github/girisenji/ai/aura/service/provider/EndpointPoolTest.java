@@ -0,0 +1,133 @@
+package io.github.girisenji.ai.aura.service.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class EndpointPoolTest {
+
+    @Test
+    void testNoEndpoints_ProviderKeyAlone() {
+        EndpointPool<Object> pool = pool("sk-main", List.of());
+
+        assertEquals(1, pool.members().size());
+        assertEquals("sk-main", pool.members().get(0).apiKey());
+        assertTrue(pool("${OPENAI_API_KEY}", List.of()).isEmpty());
+    }
+
+    @Test
+    void testEndpoints_InheritProviderSettingsAndSkipUnsetKeys() {
+        AuraProperties.Endpoint regional = endpoint("eu", null);
+        regional.setBaseUrl("https://eu.example.com/v1");
+
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), regional, endpoint("b", "${KEY_B}")));
+
+        assertEquals(2, pool.members().size());
+        assertEquals("https://api.example.com/v1", pool.members().get(0).baseUrl());
+        assertEquals("sk-main", pool.members().get(1).apiKey());
+        assertEquals("https://eu.example.com/v1", pool.members().get(1).baseUrl());
+    }
+
+    @Test
+    void testCall_LeastOutstandingMemberChosen() {
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), endpoint("b", "sk-b")));
+
+        // The outer call is still in flight when the inner one picks a member
+        List<String> used = pool.call(outer -> pool.call(inner -> List.of(outer.name(), inner.name())));
+
+        assertNotEquals(used.get(0), used.get(1));
+    }
+
+    @Test
+    void testCall_ThrottledMemberFailsOverAndSitsOut() {
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), endpoint("b", "sk-b")));
+        AtomicInteger callsToA = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            String answered = pool.call(member -> {
+                if (member.name().equals("a")) {
+                    callsToA.incrementAndGet();
+                    throw new ProviderHttpException(429, "rate limit reached");
+                }
+                return member.name();
+            });
+            assertEquals("b", answered);
+        }
+        assertEquals(1, callsToA.get());
+    }
+
+    @Test
+    void testCall_EveryMemberThrottledReportsThrottling() {
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), endpoint("b", "sk-b")));
+        List<String> tried = new ArrayList<>();
+
+        ProviderHttpException e = assertThrows(ProviderHttpException.class, () -> pool.call(member -> {
+            tried.add(member.name());
+            throw new ProviderHttpException(429, "rate limit reached");
+        }));
+
+        assertEquals(429, e.getStatusCode());
+        assertEquals(2, tried.size());
+    }
+
+    @Test
+    void testCall_ServerErrorsPassedOnThenMemberBenched() {
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), endpoint("b", "sk-b")));
+        List<String> used = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            try {
+                pool.call(member -> {
+                    used.add(member.name());
+                    if (member.name().equals("a")) {
+                        throw new ProviderHttpException(503, "unavailable");
+                    }
+                    return member.name();
+                });
+            } catch (ProviderHttpException e) {
+                assertEquals(503, e.getStatusCode());
+            }
+        }
+
+        // Three failures in a row bench a, and each failure was the caller's to handle
+        assertEquals(3, used.stream().filter("a"::equals).count());
+        assertEquals(10, used.size());
+    }
+
+    @Test
+    void testStream_ThrottledBeforeFirstChunkFailsOver() {
+        EndpointPool<Object> pool = pool("sk-main", List.of(endpoint("a", "sk-a"), endpoint("b", "sk-b")));
+
+        for (int i = 0; i < 2; i++) {
+            List<String> chunks = pool.stream(member -> member.name().equals("a")
+                    ? Flux.error(new ProviderHttpException(429, "rate limit reached"))
+                    : Flux.just("x", "y"))
+                .collectList()
+                .block();
+            assertEquals(List.of("x", "y"), chunks);
+        }
+        assertTrue(pool.members().stream().allMatch(member -> member.outstanding() == 0));
+    }
+
+    private static EndpointPool<Object> pool(String apiKey, List<AuraProperties.Endpoint> endpoints) {
+        return new EndpointPool<>("openai", apiKey, "https://api.example.com/v1", endpoints,
+            new AuraProperties.EndpointHealth(), new SimpleMeterRegistry(), Object::new);
+    }
+
+    private static AuraProperties.Endpoint endpoint(String name, String apiKey) {
+        AuraProperties.Endpoint endpoint = new AuraProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setApiKey(apiKey);
+        return endpoint;
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ContextWindowManagerTest {
+    
+    private AuraProperties properties;
+    private ContextWindowManager manager;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        AuraProperties.ContextWindow settings = properties.getContextWindow();
+        settings.getWindows().put("small", 300);
+        settings.getWindows().put("large", 100_000);
+        settings.setReserveTokens(50);
+        settings.setSummaryBlock(4);
+        settings.setSummaryMaxTokens(20);
+        manager = new ContextWindowManager(new AuraConfigHolder(properties), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void testRequestThatFitsIsUnchanged() {
+        AuraRequest request = conversation(10);
+        
+        assertSame(request, manager.fit(request, "large", null));
+    }
+    
+    @Test
+    void testTruncateKeepsSystemAndLatestTurns() {
+        AuraRequest request = conversation(10);
+        
+        AuraRequest fitted = manager.fit(request, "small", null);
+        
+        List<Message> messages = fitted.messages();
+        assertTrue(messages.size() < request.messages().size());
+        assertEquals("system", messages.get(0).role());
+        assertEquals(last(request), last(fitted));
+        assertSame(fitted, manager.fit(fitted, "small", null));
+    }
+    
+    @Test
+    void testModelThatCannotHoldLatestTurnsIsSkipped() {
+        properties.getContextWindow().setKeepLastMessages(8);
+        
+        assertNull(manager.fit(conversation(10), "small", null));
+    }
+    
+    @Test
+    void testSummaryReplacesOldestTurnsAndIsReusedByNextTurn() {
+        properties.getContextWindow().setPolicy(AuraProperties.ContextWindow.Policy.SUMMARIZE);
+        AtomicInteger summaries = new AtomicInteger();
+        
+        AuraRequest first = manager.fit(conversation(10), "small", summary -> {
+            summaries.incrementAndGet();
+            return "they discussed turns";
+        });
+        AuraRequest second = manager.fit(conversation(11), "small", summary -> {
+            summaries.incrementAndGet();
+            return "they discussed turns";
+        });
+        
+        assertEquals("system", first.messages().get(1).role());
+        assertTrue(first.messages().get(1).content().endsWith("they discussed turns"));
+        assertEquals(last(conversation(11)), last(second));
+        assertEquals(1, summaries.get());
+    }
+    
+    @Test
+    void testFailedSummaryFallsBackToTruncation() {
+        properties.getContextWindow().setPolicy(AuraProperties.ContextWindow.Policy.SUMMARIZE);
+        
+        AuraRequest fitted = manager.fit(conversation(10), "small", summary -> null);
+        
+        assertTrue(fitted.messages().stream().noneMatch(m -> m.content().startsWith("Summary")));
+    }
+    
+    @Test
+    void testOverflowModelAddedOnlyWhenNoCandidateCanHoldRequest() {
+        properties.getContextWindow().setOverflowModel("large");
+        properties.getContextWindow().setKeepLastMessages(8);
+        
+        assertEquals(List.of("small", "large"), manager.candidates(conversation(10), List.of("small")));
+        properties.getContextWindow().setKeepLastMessages(2);
+        assertEquals(List.of("small"), manager.candidates(conversation(10), List.of("small")));
+    }
+    
+    /**
+     * System prompt followed by alternating turns of roughly 40 tokens each
+     */
+    private AuraRequest conversation(int turns) {
+        List<Message> messages = new ArrayList<>();
+        messages.add(new Message("system", "You are a helpful assistant.", null));
+        for (int i = 0; i < turns; i++) {
+            String role = i % 2 == 0 ? "user" : "assistant";
+            messages.add(new Message(role, "turn " + i + " " + "lorem ipsum ".repeat(18), null));
+        }
+        return new AuraRequest("small", messages, false, null, null, null, null, null, null, null, null);
+    }
+    
+    private static String last(AuraRequest request) {
+        return request.messages().get(request.messages().size() - 1).content();
+    }
+}
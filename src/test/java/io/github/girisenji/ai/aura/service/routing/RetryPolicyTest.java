@@ -0,0 +1,92 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.service.provider.ProviderHttpException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RetryPolicyTest {
+    
+    private AuraProperties properties;
+    private RetryPolicy policy;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        properties.getRetry().setBudgetCapacity(2);
+        properties.getRetry().setBudgetRatio(0.5);
+        policy = new RetryPolicy(new AuraConfigHolder(properties), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void testClassify_StatusAndCause() {
+        assertEquals(RetryPolicy.Failure.TRANSIENT, policy.classify(new ProviderHttpException(429, "slow down")));
+        assertEquals(RetryPolicy.Failure.TRANSIENT, policy.classify(new ProviderHttpException(503, "overloaded")));
+        assertEquals(RetryPolicy.Failure.MODEL, policy.classify(new ProviderHttpException(400, "bad")));
+        assertEquals(RetryPolicy.Failure.REQUEST, policy.classify(new IllegalArgumentException("Invalid role: bot")));
+        assertEquals(RetryPolicy.Failure.MODEL, policy.classify(new ProviderHttpException(404, "no such model")));
+        assertEquals(RetryPolicy.Failure.TRANSIENT,
+            policy.classify(new RuntimeException("wrapped", new IOException("connection reset"))));
+        assertEquals(RetryPolicy.Failure.MODEL, policy.classify(new IllegalStateException("provider disabled")));
+    }
+    
+    @Test
+    void testBudget_RefilledOnlyByTraffic() {
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+        
+        policy.recordRequest();
+        assertFalse(policy.tryAcquire());
+        policy.recordRequest();
+        assertTrue(policy.tryAcquire());
+        
+        // Capacity caps what a quiet period can save up
+        for (int i = 0; i < 100; i++) {
+            policy.recordRequest();
+        }
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+    }
+    
+    @Test
+    void testBackoff_JitteredAndCapped() {
+        ProviderHttpException throttled = new ProviderHttpException(503, "overloaded");
+        properties.getRetry().setMaxAttemptsPerModel(3);
+        
+        for (int i = 0; i < 50; i++) {
+            Duration first = policy.backoff(throttled, 1, RequestContext.anonymous()).orElseThrow();
+            Duration second = policy.backoff(throttled, 2, RequestContext.anonymous()).orElseThrow();
+            assertTrue(first.compareTo(properties.getRetry().getInitialBackoff()) <= 0);
+            assertTrue(second.compareTo(properties.getRetry().getInitialBackoff().multipliedBy(2)) <= 0);
+        }
+        assertEquals(Optional.empty(), policy.backoff(throttled, 3, RequestContext.anonymous()));
+        assertEquals(Optional.empty(), policy.backoff(new ProviderHttpException(404, "gone"), 1,
+            RequestContext.anonymous()));
+    }
+    
+    @Test
+    void testBackoff_HonoursRetryAfterUnlessTooLong() {
+        ProviderHttpException shortWait = new ProviderHttpException(429, "slow down", Duration.ofSeconds(1), null);
+        ProviderHttpException longWait = new ProviderHttpException(429, "slow down", Duration.ofSeconds(30), null);
+        
+        assertEquals(Optional.of(Duration.ofSeconds(1)), policy.backoff(shortWait, 1, RequestContext.anonymous()));
+        assertEquals(Optional.empty(), policy.backoff(longWait, 1, RequestContext.anonymous()));
+        
+        RequestContext hurried = RequestContext.anonymous().withDeadline(Instant.now().plusMillis(500));
+        assertEquals(Optional.empty(), policy.backoff(shortWait, 1, hurried));
+    }
+}
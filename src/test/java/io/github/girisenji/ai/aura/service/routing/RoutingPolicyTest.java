@@ -0,0 +1,90 @@
+package io.github.girisenji.ai.aura.service.routing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RoutingPolicyTest {
+    
+    private static final Map<RoutingTier, List<String>> CHAINS = Map.of(
+        RoutingTier.PREMIUM, List.of("gpt-4o", "claude-3-5-sonnet-20241022"),
+        RoutingTier.BALANCED, List.of("gpt-4o-mini", "claude-3-sonnet-20240229"),
+        RoutingTier.ECO, List.of("gpt-3.5-turbo"));
+    
+    private AuraProperties properties;
+    private ModelLatencyTracker latencyTracker;
+    private RoutingPolicy policy;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        price("gpt-4o", 0.0025, 0.01);
+        price("claude-3-5-sonnet-20241022", 0.003, 0.015);
+        price("gpt-4o-mini", 0.00015, 0.0006);
+        price("claude-3-sonnet-20240229", 0.003, 0.015);
+        price("gpt-3.5-turbo", 0.0005, 0.0015);
+        
+        latencyTracker = new ModelLatencyTracker(properties, new SimpleMeterRegistry());
+        policy = new RoutingPolicy(new AuraConfigHolder(properties), latencyTracker);
+    }
+    
+    @Test
+    void testNoSlo_UsesConfiguredChain() {
+        List<String> order = policy.order(request(null), RoutingTier.PREMIUM, RequestContext.anonymous(), CHAINS);
+        assertEquals(CHAINS.get(RoutingTier.PREMIUM), order);
+    }
+    
+    @Test
+    void testTenantAcceptingBalanced_CheapestCompliantModelFirst() {
+        AuraProperties.Tenant tenant = new AuraProperties.Tenant();
+        tenant.getSlo().setMinTier(RoutingTier.BALANCED);
+        tenant.getSlo().setMaxP95Latency(Duration.ofSeconds(5));
+        properties.getTenants().put("search", tenant);
+        
+        List<String> order = policy.order(request(null), RoutingTier.PREMIUM, new RequestContext("search"), CHAINS);
+        
+        assertEquals("gpt-4o-mini", order.get(0));
+        assertEquals(List.of("gpt-4o-mini", "gpt-4o", "claude-3-5-sonnet-20241022", "claude-3-sonnet-20240229"), order);
+    }
+    
+    @Test
+    void testSlowModel_DemotedBehindCompliantModels() {
+        for (int i = 0; i < 20; i++) {
+            latencyTracker.record("gpt-4o-mini", Duration.ofSeconds(9));
+        }
+        
+        List<String> order = policy.order(
+            request(Map.of("slo_max_p95_ms", 5000, "slo_min_tier", "balanced")),
+            RoutingTier.PREMIUM, RequestContext.anonymous(), CHAINS);
+        
+        assertEquals("gpt-4o", order.get(0));
+        assertEquals(false, order.contains("gpt-4o-mini"));
+    }
+    
+    private void price(String model, double input, double output) {
+        AuraProperties.Routing.ModelPrice price = new AuraProperties.Routing.ModelPrice();
+        price.setInputPer1k(input);
+        price.setOutputPer1k(output);
+        properties.getRouting().getPricing().put(model, price);
+    }
+    
+    private AuraRequest request(Map<String, Object> metadata) {
+        return new AuraRequest(
+            "gpt-4",
+            List.of(new Message("user", "Summarize the attached design document", null)),
+            false, null, null, null, null, null, null, null, metadata
+        );
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.girisenji.ai.aura.service.scheduling;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+
+class OutputLengthPredictorTest {
+
+    private OutputLengthPredictor predictor;
+
+    @BeforeEach
+    void setUp() {
+        predictor = new OutputLengthPredictor(new AuraConfigHolder(new AuraProperties()));
+    }
+
+    @Test
+    void testCuesAndTierOrderPredictions() {
+        RequestContext context = RequestContext.anonymous();
+
+        int shortAnswer = predictor.predict(request("Yes or no: is 7 prime?", null), RoutingTier.ECO, context);
+        int essay = predictor.predict(request("Write an essay on fault tolerance", null), RoutingTier.PREMIUM, context);
+
+        assertTrue(shortAnswer < essay);
+    }
+
+    @Test
+    void testMaxTokensCapsPrediction() {
+        int predicted = predictor.predict(request("Explain consensus in detail", 50), RoutingTier.PREMIUM,
+            RequestContext.anonymous());
+
+        assertEquals(50, predicted);
+    }
+
+    @Test
+    void testTenantHistoryReplacesPriorOnceSeenOften() {
+        RequestContext tenant = new RequestContext("acme");
+        for (int i = 0; i < 10; i++) {
+            predictor.record(tenant, RoutingTier.BALANCED, 40);
+        }
+
+        assertEquals(40, predictor.predict(request("Hello there", null), RoutingTier.BALANCED, tenant));
+        assertEquals(256, predictor.predict(request("Hello there", null), RoutingTier.BALANCED,
+            RequestContext.anonymous()));
+    }
+
+    private static AuraRequest request(String prompt, Integer maxTokens) {
+        return new AuraRequest(null, List.of(new Message("user", prompt, null)), false, null, maxTokens,
+            null, null, null, null, null, null);
+    }
+}
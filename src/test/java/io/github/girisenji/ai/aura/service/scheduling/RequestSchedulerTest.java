@@ -0,0 +1,169 @@
+package io.github.girisenji.ai.aura.service.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.PriorityClass;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.service.routing.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestSchedulerTest {
+
+    private AuraProperties properties;
+    private RequestScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        properties.getScheduler().setMaxConcurrency(1);
+        scheduler = new RequestScheduler(new AuraConfigHolder(properties), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testInteractiveOvertakesQueuedBulkWork() throws Exception {
+        List<PriorityClass> order = new CopyOnWriteArrayList<>();
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        Thread bulk = Thread.ofVirtual().start(() -> runRecording(PriorityClass.BULK, order));
+        awaitQueued(PriorityClass.BULK);
+        Thread interactive = Thread.ofVirtual().start(() -> runRecording(PriorityClass.INTERACTIVE, order));
+        awaitQueued(PriorityClass.INTERACTIVE);
+
+        held.close();
+        bulk.join();
+        interactive.join();
+
+        assertEquals(List.of(PriorityClass.INTERACTIVE, PriorityClass.BULK), order);
+    }
+
+    @Test
+    void testShedsWhenClassQueueIsFull() throws Exception {
+        properties.getScheduler().getClasses().get(PriorityClass.BULK).setMaxQueue(1);
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        Thread queued = Thread.ofVirtual().start(() -> runRecording(PriorityClass.BULK, new CopyOnWriteArrayList<>()));
+        awaitQueued(PriorityClass.BULK);
+
+        SchedulerRejectedException e = assertThrows(SchedulerRejectedException.class,
+            () -> scheduler.acquire(new RequestContext("b", PriorityClass.BULK)));
+        assertEquals(PriorityClass.BULK, e.getPriority());
+
+        held.close();
+        queued.join();
+    }
+
+    @Test
+    void testShedsEarlyWhenQueueTimeSloCannotBeMet() {
+        properties.getScheduler().getClasses().get(PriorityClass.INTERACTIVE).setMaxQueueTime(Duration.ofMillis(10));
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        // Default service-time estimate is one second, far beyond the 10ms SLO
+        assertThrows(SchedulerRejectedException.class,
+            () -> scheduler.acquire(new RequestContext("b", PriorityClass.INTERACTIVE)));
+        assertEquals(0, scheduler.queued(PriorityClass.INTERACTIVE));
+        held.close();
+    }
+
+    @Test
+    void testDropsRequestThatWouldMissItsDeadlineInTheQueue() {
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        // Default service-time estimate is one second, beyond the 50ms the client has left
+        RequestContext context = new RequestContext("b", PriorityClass.STANDARD, Instant.now().plusMillis(50));
+        assertThrows(DeadlineExceededException.class, () -> scheduler.acquire(context));
+        assertEquals(0, scheduler.queued(PriorityClass.STANDARD));
+        held.close();
+    }
+
+    @Test
+    void testShorterPredictedOutputOvertakesLongerWithinFlow() throws Exception {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        Thread longer = Thread.ofVirtual().start(() -> runPredicted(2048, order));
+        awaitQueued(PriorityClass.STANDARD);
+        Thread shorter = Thread.ofVirtual().start(() -> runPredicted(32, order));
+        awaitQueuedCount(PriorityClass.STANDARD, 2);
+
+        held.close();
+        longer.join();
+        shorter.join();
+
+        assertEquals(List.of(32, 2048), order);
+    }
+
+    @Test
+    void testLongRequestIsOvertakenOnlyBoundedTimes() throws Exception {
+        properties.getScheduler().getSjf().setMaxCost(4.0);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        RequestScheduler.Permit held = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD));
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(Thread.ofVirtual().start(() -> runPredicted(4096, order)));
+        awaitQueued(PriorityClass.STANDARD);
+        for (int i = 1; i <= 4; i++) {
+            threads.add(Thread.ofVirtual().start(() -> runPredicted(1, order)));
+            awaitQueuedCount(PriorityClass.STANDARD, i + 1);
+        }
+
+        held.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Later arrivals fall behind as the flow's start tag advances, so the fourth short one waits
+        assertEquals(List.of(1, 1, 1, 4096, 1), order);
+    }
+
+    @Test
+    void testTokenBudgetHoldsBackRequestsThatDoNotFit() {
+        properties.getScheduler().setMaxConcurrency(10);
+        properties.getScheduler().getSjf().setMaxInflightTokens(1000);
+        properties.getScheduler().getClasses().get(PriorityClass.STANDARD).setMaxQueueTime(Duration.ofMillis(50));
+        RequestScheduler.Permit first = scheduler.acquire(new RequestContext("a", PriorityClass.STANDARD), 800);
+
+        assertThrows(SchedulerRejectedException.class,
+            () -> scheduler.acquire(new RequestContext("b", PriorityClass.STANDARD), 400));
+        first.close();
+        scheduler.acquire(new RequestContext("b", PriorityClass.STANDARD), 400).close();
+        assertEquals(0, scheduler.reservedTokens());
+    }
+
+    private void runPredicted(int tokens, List<Integer> order) {
+        RequestContext context = new RequestContext("t", PriorityClass.STANDARD);
+        try (RequestScheduler.Permit permit = scheduler.acquire(context, tokens)) {
+            order.add(tokens);
+        }
+    }
+
+    private void awaitQueuedCount(PriorityClass priority, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && scheduler.queued(priority) < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, scheduler.queued(priority));
+    }
+
+    private void runRecording(PriorityClass priority, List<PriorityClass> order) {
+        try (RequestScheduler.Permit permit = scheduler.acquire(new RequestContext("t", priority))) {
+            order.add(priority);
+        }
+    }
+
+    private void awaitQueued(PriorityClass priority) throws InterruptedException {
+        for (int i = 0; i < 500 && scheduler.queued(priority) == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, scheduler.queued(priority));
+    }
+}
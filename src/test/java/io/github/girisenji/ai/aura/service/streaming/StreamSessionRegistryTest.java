@@ -0,0 +1,120 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class StreamSessionRegistryTest {
+
+    private static final RequestContext TENANT = new RequestContext("mobile");
+
+    private AuraProperties properties;
+    private StreamSessionRegistry registry;
+    private Sinks.Many<String> upstream;
+    private CountDownLatch upstreamCancelled;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuraProperties();
+        registry = new StreamSessionRegistry(properties, new SimpleMeterRegistry());
+        upstream = Sinks.many().unicast().onBackpressureBuffer();
+        upstreamCancelled = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void testReconnectReceivesMissedChunksAndLiveTail() {
+        Flux<StreamEvent> first = registry.open(TENANT, source());
+        upstream.tryEmitNext("a");
+        upstream.tryEmitNext("b");
+        upstream.tryEmitNext("c");
+
+        // Client sees two chunks, then its connection drops
+        List<StreamEvent> seen = first.take(2).collectList().block();
+        String lastEventId = seen.get(1).id();
+
+        Flux<StreamEvent> resumed = registry.resume(lastEventId, TENANT).orElseThrow();
+        upstream.tryEmitNext("d");
+        upstream.tryEmitComplete();
+
+        assertEquals(List.of("c", "d"), resumed.map(StreamEvent::data).collectList().block());
+        assertEquals(1, upstreamCancelled.getCount());
+    }
+
+    @Test
+    void testUpstreamReadsNoFurtherAheadThanTheBuffer() {
+        properties.getStreaming().getResume().setBufferSize(4);
+        AtomicInteger produced = new AtomicInteger();
+        Flux<String> generation = Flux.range(1, 100).map(String::valueOf).doOnNext(chunk -> produced.incrementAndGet());
+
+        Flux<StreamEvent> first = registry.open(TENANT, generation);
+        assertEquals(4, produced.get());
+
+        // Reading two chunks makes room for two more, and no more than that
+        List<StreamEvent> seen = first.take(2).collectList().block();
+        assertEquals(6, produced.get());
+
+        List<String> rest = registry.resume(seen.get(1).id(), TENANT).orElseThrow()
+            .map(StreamEvent::data)
+            .collectList()
+            .block();
+        assertEquals(98, rest.size());
+        assertEquals("3", rest.get(0));
+    }
+
+    @Test
+    void testOtherTenantsCannotResume() {
+        Flux<StreamEvent> first = registry.open(TENANT, source());
+        upstream.tryEmitNext("a");
+        String lastEventId = first.blockFirst().id();
+
+        assertTrue(registry.resume(lastEventId, TENANT).isPresent());
+        assertFalse(registry.resume(lastEventId, new RequestContext("someone-else")).isPresent());
+    }
+
+    @Test
+    void testUpstreamCancelledWhenNobodyReturnsWithinGrace() throws Exception {
+        properties.getStreaming().getResume().setGrace(Duration.ofMillis(50));
+        Flux<StreamEvent> first = registry.open(TENANT, source());
+        upstream.tryEmitNext("a");
+
+        String lastEventId = first.blockFirst().id();
+
+        assertTrue(upstreamCancelled.await(5, TimeUnit.SECONDS));
+        assertFalse(registry.resume(lastEventId, TENANT).isPresent());
+    }
+
+    @Test
+    void testDisabledResumeStreamsDirectly() {
+        properties.getStreaming().getResume().setEnabled(false);
+        Flux<StreamEvent> events = registry.open(TENANT, Flux.just("a", "b"));
+
+        List<StreamEvent> received = events.collectList().block();
+
+        assertEquals(2, received.size());
+        assertEquals(null, received.get(0).id());
+    }
+
+    private Flux<String> source() {
+        return upstream.asFlux().doOnCancel(upstreamCancelled::countDown);
+    }
+}
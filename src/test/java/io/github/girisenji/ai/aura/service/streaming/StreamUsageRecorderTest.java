@@ -0,0 +1,65 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StreamUsageRecorderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StreamUsageRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new StreamUsageRecorder(meterRegistry);
+    }
+
+    @Test
+    void testCancelledStreamRecordsEstimatedPartialUsage() {
+        StreamUsageRecorder.Tracker tracker = recorder.start(request("x".repeat(400)));
+        tracker.observe(chunk("gpt-4o", "12345678"));
+        tracker.observe(chunk("gpt-4o", "12345678"));
+
+        tracker.finish(StreamUsageRecorder.CANCELLED);
+
+        assertEquals(100, completed("aura.stream.prompt_tokens", "cancelled"));
+        assertEquals(4, completed("aura.stream.completion_tokens", "cancelled"));
+    }
+
+    @Test
+    void testCompletedStreamPrefersReportedUsage() {
+        StreamUsageRecorder.Tracker tracker = recorder.start(request("hello"));
+        tracker.observe(chunk("gpt-4o", "hi"));
+        tracker.observe("{\"model\":\"gpt-4o\",\"choices\":[],\"usage\":"
+            + "{\"prompt_tokens\":12,\"completion_tokens\":34,\"total_tokens\":46}}");
+
+        tracker.finish(StreamUsageRecorder.COMPLETED);
+        tracker.finish(StreamUsageRecorder.CANCELLED);
+
+        assertEquals(34, completed("aura.stream.completion_tokens", "completed"));
+        assertEquals(0, meterRegistry.find("aura.stream.outcomes").tag("outcome", "cancelled").counters().size());
+    }
+
+    private double completed(String name, String outcome) {
+        return meterRegistry.get(name).tag("model", "gpt-4o").tag("outcome", outcome).counter().count();
+    }
+
+    private static String chunk(String model, String content) {
+        return "{\"model\":\"" + model + "\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + content + "\"}}]}";
+    }
+
+    private static AuraRequest request(String prompt) {
+        return new AuraRequest(
+            "gpt-4",
+            List.of(new Message("user", prompt, null)),
+            true, null, null, null, null, null, null, null, null
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.girisenji.ai.aura.service.streaming;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Memory per open stream for the two streaming modes
+ *
+ * Opens {@code aura.benchmark.streams} (default 10,000) concurrent slow
+ * upstream streams and measures retained heap while all are open: once
+ * with a virtual thread per stream pulling through a bounded prefetch
+ * (EMITTER mode), once with demand-driven subscribers (REACTIVE mode).
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StreamingModeBenchmarkTest {
+
+    private static final int STREAMS = Integer.getInteger("aura.benchmark.streams", 10_000);
+    private static final int CHUNKS = 20;
+    private static final Duration CHUNK_INTERVAL = Duration.ofMillis(250);
+
+    @Test
+    void compareMemoryPerStream() throws Exception {
+        long emitter = measure(this::openEmitterStyle);
+        long reactive = measure(this::openReactiveStyle);
+
+        System.out.printf("Streams: %d%n", STREAMS);
+        System.out.printf("EMITTER  (virtual thread per stream): %,d bytes/stream%n", emitter / STREAMS);
+        System.out.printf("REACTIVE (demand-driven subscriber):  %,d bytes/stream%n", reactive / STREAMS);
+        assertTrue(emitter > 0 && reactive > 0);
+    }
+
+    private long measure(Opener opener) throws Exception {
+        long before = usedHeap();
+        CountDownLatch done = new CountDownLatch(STREAMS);
+        List<Object> handles = new ArrayList<>(STREAMS);
+        for (int i = 0; i < STREAMS; i++) {
+            handles.add(opener.open(upstream(), done));
+        }
+        // Let every stream receive its first chunks before sampling
+        Thread.sleep(CHUNK_INTERVAL.toMillis() * 2);
+        long during = usedHeap() - before;
+        assertTrue(done.await(CHUNK_INTERVAL.toMillis() * (CHUNKS + 20), TimeUnit.MILLISECONDS));
+        handles.clear();
+        return during;
+    }
+
+    private Object openEmitterStyle(Flux<String> upstream, CountDownLatch done) {
+        return Thread.ofVirtual().start(() -> {
+            try (Stream<String> chunks = upstream.toStream(8)) {
+                chunks.forEach(StreamingModeBenchmarkTest::write);
+            }
+            done.countDown();
+        });
+    }
+
+    private Object openReactiveStyle(Flux<String> upstream, CountDownLatch done) {
+        BaseSubscriber<String> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(String chunk) {
+                write(chunk);
+                request(1);
+            }
+
+            @Override
+            protected void hookFinally(SignalType type) {
+                done.countDown();
+            }
+        };
+        upstream.subscribe(subscriber);
+        return subscriber;
+    }
+
+    private static Flux<String> upstream() {
+        return Flux.interval(CHUNK_INTERVAL).take(CHUNKS).map(i -> "{\"delta\":\"token " + i + "\"}");
+    }
+
+    private static void write(String chunk) {
+        if (chunk.isEmpty()) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        Object open(Flux<String> upstream, CountDownLatch done);
+    }
+}
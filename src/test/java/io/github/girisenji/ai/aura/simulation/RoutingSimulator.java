@@ -0,0 +1,301 @@
+package io.github.girisenji.ai.aura.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.qos.logback.classic.Level;
+import io.github.girisenji.ai.aura.config.AuraConfigHolder;
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.RequestContext;
+import io.github.girisenji.ai.aura.model.RoutingTier;
+import io.github.girisenji.ai.aura.service.AuraClassifier;
+import io.github.girisenji.ai.aura.service.DynamicModelRouter;
+import io.github.girisenji.ai.aura.service.embedding.LocalEmbeddingModel;
+import io.github.girisenji.ai.aura.service.provider.AnthropicProvider;
+import io.github.girisenji.ai.aura.service.routing.Bulkheads;
+import io.github.girisenji.ai.aura.service.routing.ContextWindowManager;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+import io.github.girisenji.ai.aura.service.routing.ResponseVerifier;
+import io.github.girisenji.ai.aura.service.routing.RetryPolicy;
+import io.github.girisenji.ai.aura.service.routing.RoutingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Offline replay of captured traffic through the classifier and router
+ *
+ * Each candidate configuration gets its own AuraClassifier and
+ * DynamicModelRouter, built exactly as in the gateway, and the corpus is
+ * replayed through them on all cores against {@link SimulatedUpstream}.
+ * Every entry draws from its own seeded random source, so candidates see
+ * the same upstream luck and a run can be repeated. The report gives the
+ * tier mix, projected cost, projected p50/p95 latency and fallback rate
+ * per candidate.
+ *
+ * Corpus lines are chat completion request bodies, optionally with a
+ * recorded "completion_tokens" and a "tenant". Candidates are layered
+ * over application.yml the same way a reload file is. Speculative
+ * cascade calls are replayed sequentially, so cascade latencies are an
+ * upper bound.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=io.github.girisenji.ai.aura.simulation.RoutingSimulator \
+ *   -Dexec.args="corpus.jsonl upstream.json current candidate=candidate.yml"
+ * </pre>
+ */
+public final class RoutingSimulator {
+
+    private static final int LATENCY_HISTORY = 256;
+
+    private final Map<String, SimulatedUpstream.Profile> profiles;
+    private final long seed;
+
+    RoutingSimulator(Map<String, SimulatedUpstream.Profile> profiles, long seed) {
+        this.profiles = profiles;
+        this.seed = seed;
+    }
+
+    /**
+     * One captured request
+     *
+     * @param completionTokens tokens the recorded answer had, or null to use max_tokens or the routing default
+     */
+    record Entry(AuraRequest request, RequestContext context, Integer completionTokens) {
+    }
+
+    record Candidate(String name, AuraProperties properties) {
+    }
+
+    /**
+     * Projected outcome of a corpus under one candidate
+     *
+     * @param fallbackRate share of requests answered only after an upstream call failed
+     * @param unservedRate share of requests no model answered
+     */
+    record Report(String candidate, int requests, Map<RoutingTier, Integer> tiers, double cost,
+            double p50Ms, double p95Ms, double fallbackRate, double unservedRate) {
+
+        double tierShare(RoutingTier tier) {
+            return requests == 0 ? 0 : (double) tiers.getOrDefault(tier, 0) / requests;
+        }
+
+        static String header() {
+            return String.format("%-16s %8s %6s %9s %8s %10s %8s %8s %9s %9s",
+                "candidate", "requests", "eco", "balanced", "premium", "cost_usd", "p50_ms", "p95_ms",
+                "fallback", "unserved");
+        }
+
+        String format() {
+            return String.format("%-16s %8d %5.1f%% %8.1f%% %7.1f%% %10.4f %8.0f %8.0f %8.2f%% %8.2f%%",
+                candidate, requests, 100 * tierShare(RoutingTier.ECO), 100 * tierShare(RoutingTier.BALANCED),
+                100 * tierShare(RoutingTier.PREMIUM), cost, p50Ms, p95Ms, 100 * fallbackRate, 100 * unservedRate);
+        }
+    }
+
+    private record Outcome(RoutingTier tier, double latencyMs, double cost, boolean fellBack, boolean served) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: RoutingSimulator <corpus.jsonl> <upstream.json> [--seed=N] [name[=overlay.yml] ...]");
+            System.exit(2);
+        }
+        // Per-attempt routing logs would drown the report
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+            .setLevel(Level.WARN);
+
+        List<Entry> corpus = loadCorpus(Path.of(args[0]));
+        Map<String, SimulatedUpstream.Profile> profiles = loadProfiles(Path.of(args[1]));
+        long seed = 42;
+        List<Candidate> candidates = new ArrayList<>();
+        for (String arg : Arrays.asList(args).subList(2, args.length)) {
+            if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg : arg.substring(0, separator);
+            Path overlay = separator < 0 ? null : Path.of(arg.substring(separator + 1));
+            candidates.add(new Candidate(name, loadProperties(overlay)));
+        }
+        if (candidates.isEmpty()) {
+            candidates.add(new Candidate("current", loadProperties(null)));
+        }
+
+        RoutingSimulator simulator = new RoutingSimulator(profiles, seed);
+        System.out.println(Report.header());
+        for (Candidate candidate : candidates) {
+            System.out.println(simulator.run(corpus, candidate).format());
+        }
+    }
+
+    /**
+     * Replay the corpus under one candidate, in parallel across all cores
+     */
+    Report run(List<Entry> corpus, Candidate candidate) throws InterruptedException {
+        AuraProperties properties = candidate.properties();
+        // A speculative call sleeps for real before it starts
+        properties.getCascade().setSpeculative(false);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuraConfigHolder config = new AuraConfigHolder(properties);
+        AuraClassifier classifier = new AuraClassifier(config, new LocalEmbeddingModel(properties), meterRegistry);
+        classifier.initialize();
+        ModelLatencyTracker latencyTracker = new ModelLatencyTracker(properties, meterRegistry);
+        SimulatedUpstream upstream = new SimulatedUpstream(profiles, properties.getRouting().getPricing());
+        upstream.seed(latencyTracker, LATENCY_HISTORY, seed);
+        DynamicModelRouter router = new DynamicModelRouter(
+            config,
+            upstream.provider(),
+            mock(AnthropicProvider.class, withSettings().stubOnly()),
+            new RoutingPolicy(config, latencyTracker),
+            latencyTracker,
+            new ResponseVerifier(),
+            new Bulkheads(config, meterRegistry),
+            new ContextWindowManager(config, meterRegistry),
+            new RetryPolicy(config, meterRegistry),
+            meterRegistry);
+        router.initialize();
+
+        List<Callable<Outcome>> replays = new ArrayList<>(corpus.size());
+        for (int i = 0; i < corpus.size(); i++) {
+            Entry entry = corpus.get(i);
+            SplittableRandom random = new SplittableRandom(seed + i);
+            int completionTokens = entry.completionTokens() != null ? entry.completionTokens()
+                : entry.request().maxTokens() != null ? entry.request().maxTokens()
+                : properties.getRouting().getDefaultCompletionTokens();
+            replays.add(() -> replay(entry, classifier, router, upstream, random, completionTokens));
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(corpus.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            for (Future<Outcome> outcome : executor.invokeAll(replays)) {
+                outcomes.add(outcome.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed", e.getCause());
+        }
+        return summarize(candidate.name(), outcomes);
+    }
+
+    private static Outcome replay(Entry entry, AuraClassifier classifier, DynamicModelRouter router,
+            SimulatedUpstream upstream, SplittableRandom random, int completionTokens) {
+        SimulatedUpstream.Trace trace = upstream.begin(random, completionTokens);
+        try {
+            RoutingTier tier = classifier.classify(entry.request());
+            boolean served;
+            try {
+                AuraResponse response = router.route(entry.request(), tier, entry.context());
+                served = !DynamicModelRouter.isMock(response);
+            } catch (RuntimeException e) {
+                // Rejected the way the gateway would reject it, e.g. invalid SLO metadata
+                served = false;
+            }
+            return new Outcome(tier, trace.latencyMs(), trace.cost(), served && trace.failures() > 0, served);
+        } finally {
+            upstream.end();
+        }
+    }
+
+    private static Report summarize(String candidate, List<Outcome> outcomes) {
+        Map<RoutingTier, Integer> tiers = new EnumMap<>(RoutingTier.class);
+        double cost = 0;
+        int fellBack = 0;
+        int unserved = 0;
+        double[] latencies = new double[outcomes.size()];
+        int served = 0;
+        for (Outcome outcome : outcomes) {
+            tiers.merge(outcome.tier(), 1, Integer::sum);
+            cost += outcome.cost();
+            if (outcome.fellBack()) {
+                fellBack++;
+            }
+            if (outcome.served()) {
+                latencies[served++] = outcome.latencyMs();
+            } else {
+                unserved++;
+            }
+        }
+        double[] sorted = Arrays.copyOf(latencies, served);
+        Arrays.sort(sorted);
+        int requests = outcomes.size();
+        return new Report(candidate, requests, tiers, cost, percentile(sorted, 0.50), percentile(sorted, 0.95),
+            requests == 0 ? 0 : (double) fellBack / requests, requests == 0 ? 0 : (double) unserved / requests);
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    static List<Entry> loadCorpus(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = mapper.readTree(line);
+            entries.add(new Entry(
+                mapper.treeToValue(node, AuraRequest.class),
+                new RequestContext(node.path("tenant").asText(null)),
+                node.hasNonNull("completion_tokens") ? node.get("completion_tokens").asInt() : null));
+        }
+        return entries;
+    }
+
+    static Map<String, SimulatedUpstream.Profile> loadProfiles(Path file) throws IOException {
+        return new ObjectMapper().readValue(file.toFile(), new TypeReference<Map<String, SimulatedUpstream.Profile>>() {
+        });
+    }
+
+    /**
+     * application.yml's aura section with an optional overlay file on top
+     */
+    static AuraProperties loadProperties(Path overlay) throws IOException {
+        YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+        MutablePropertySources sources = new MutablePropertySources();
+        if (overlay != null) {
+            loader.load("candidate", new FileSystemResource(overlay)).forEach(sources::addLast);
+        }
+        loader.load("application", new ClassPathResource("application.yml")).forEach(sources::addLast);
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources),
+            new PropertySourcesPlaceholdersResolver(sources));
+        return binder.bindOrCreate("aura", AuraProperties.class);
+    }
+}
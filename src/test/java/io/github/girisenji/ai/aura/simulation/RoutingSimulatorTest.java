@@ -0,0 +1,73 @@
+package io.github.girisenji.ai.aura.simulation;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.girisenji.ai.aura.model.RoutingTier;
+
+class RoutingSimulatorTest {
+
+    private List<RoutingSimulator.Entry> corpus;
+    private Map<String, SimulatedUpstream.Profile> profiles;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        corpus = RoutingSimulator.loadCorpus(resource("corpus.jsonl"));
+        profiles = RoutingSimulator.loadProfiles(resource("upstream.json"));
+    }
+
+    @Test
+    void testReplay_ReportsEveryRequestAndIsRepeatable() throws Exception {
+        RoutingSimulator simulator = new RoutingSimulator(profiles, 7);
+
+        RoutingSimulator.Report first = simulator.run(corpus, current());
+        RoutingSimulator.Report second = simulator.run(corpus, current());
+
+        assertEquals(corpus.size(), first.requests());
+        assertEquals(corpus.size(), first.tiers().values().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(first.tiers().get(RoutingTier.ECO) > 0);
+        assertTrue(first.tiers().get(RoutingTier.PREMIUM) > 0);
+        assertTrue(first.cost() > 0);
+        assertTrue(first.p95Ms() >= first.p50Ms());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testFailingModel_ShowsAsFallbacks() throws Exception {
+        Map<String, SimulatedUpstream.Profile> failing = new HashMap<>(profiles);
+        failing.put("gpt-4o", new SimulatedUpstream.Profile(900, 2400, null, 12, 1.0, 0));
+
+        RoutingSimulator.Report report = new RoutingSimulator(failing, 7).run(corpus, current());
+
+        double premiumShare = report.tierShare(RoutingTier.PREMIUM);
+        assertEquals(premiumShare, report.fallbackRate(), 1e-9);
+        assertEquals(0.0, report.unservedRate());
+    }
+
+    @Test
+    void testCandidateOverlay_CheaperPremiumChainCostsLess() throws Exception {
+        RoutingSimulator simulator = new RoutingSimulator(profiles, 7);
+
+        RoutingSimulator.Report current = simulator.run(corpus, current());
+        RoutingSimulator.Report cheaper = simulator.run(corpus, new RoutingSimulator.Candidate("cheap-premium",
+            RoutingSimulator.loadProperties(resource("cheap-premium.yml"))));
+
+        assertEquals(current.tiers(), cheaper.tiers());
+        assertTrue(cheaper.cost() < current.cost());
+    }
+
+    private static RoutingSimulator.Candidate current() throws Exception {
+        return new RoutingSimulator.Candidate("current", RoutingSimulator.loadProperties(null));
+    }
+
+    private static Path resource(String name) throws Exception {
+        return Path.of(RoutingSimulatorTest.class.getResource("/simulation/" + name).toURI());
+    }
+}
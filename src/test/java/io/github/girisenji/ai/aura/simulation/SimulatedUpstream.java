@@ -0,0 +1,173 @@
+package io.github.girisenji.ai.aura.simulation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.github.girisenji.ai.aura.config.AuraProperties;
+import io.github.girisenji.ai.aura.model.AuraRequest;
+import io.github.girisenji.ai.aura.model.AuraResponse;
+import io.github.girisenji.ai.aura.model.Usage;
+import io.github.girisenji.ai.aura.service.provider.OpenAIProvider;
+import io.github.girisenji.ai.aura.service.routing.ModelLatencyTracker;
+
+/**
+ * Upstream models stood in for by latency, error and price tables
+ *
+ * A call draws its latency and outcome from the model's profile with the
+ * random source of the corpus entry being replayed, charges it to that
+ * entry's trace and returns at once. Models without a profile have no
+ * provider, exactly as if none were configured for them.
+ */
+final class SimulatedUpstream {
+
+    private static final String ANSWER = "Here is a complete answer to the question, with an example:\n"
+        + "```\nresult = solve(problem)\n```\nLet me know if anything needs more detail.";
+    private static final String HEDGED_ANSWER = "I'm not sure about that.";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Profile> profiles;
+    private final Map<String, AuraProperties.Routing.ModelPrice> pricing;
+
+    SimulatedUpstream(Map<String, Profile> profiles, Map<String, AuraProperties.Routing.ModelPrice> pricing) {
+        this.profiles = profiles;
+        this.pricing = pricing;
+    }
+
+    /**
+     * Latency and reliability of one model
+     *
+     * Latency is drawn from recorded samples when there are any, otherwise
+     * from a log-normal fitted to p50 and p95, plus a per-output-token
+     * cost. hedge_rate is the share of answers the cascade verifier would
+     * reject.
+     */
+    record Profile(
+        @JsonProperty("p50_ms") double p50Ms,
+        @JsonProperty("p95_ms") double p95Ms,
+        @JsonProperty("samples_ms") double[] samplesMs,
+        @JsonProperty("ms_per_output_token") double msPerOutputToken,
+        @JsonProperty("error_rate") double errorRate,
+        @JsonProperty("hedge_rate") double hedgeRate
+    ) {
+        double latencyMs(SplittableRandom random, int outputTokens) {
+            double base;
+            if (samplesMs != null && samplesMs.length > 0) {
+                base = samplesMs[random.nextInt(samplesMs.length)];
+            } else if (p50Ms > 0) {
+                // 1.645 standard deviations separate the median from the 95th percentile
+                double sigma = p95Ms > p50Ms ? Math.log(p95Ms / p50Ms) / 1.645 : 0;
+                base = p50Ms * Math.exp(sigma * random.nextGaussian());
+            } else {
+                base = 0;
+            }
+            return base + msPerOutputToken * outputTokens;
+        }
+    }
+
+    /**
+     * What replaying one corpus entry took, over every upstream call it made
+     */
+    static final class Trace {
+        private final SplittableRandom random;
+        private final int completionTokens;
+        private double latencyMs;
+        private double cost;
+        private int failures;
+
+        Trace(SplittableRandom random, int completionTokens) {
+            this.random = random;
+            this.completionTokens = completionTokens;
+        }
+
+        double latencyMs() {
+            return latencyMs;
+        }
+
+        double cost() {
+            return cost;
+        }
+
+        int failures() {
+            return failures;
+        }
+    }
+
+    /**
+     * Charge upstream calls on this thread to a new trace until {@link #end()}
+     */
+    Trace begin(SplittableRandom random, int completionTokens) {
+        Trace trace = new Trace(random, completionTokens);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Provider serving every profiled model from the tables
+     */
+    OpenAIProvider provider() {
+        OpenAIProvider provider = mock(OpenAIProvider.class, withSettings().stubOnly());
+        when(provider.name()).thenReturn("simulated");
+        when(provider.isEnabled()).thenReturn(true);
+        when(provider.supportsModel(anyString())).thenAnswer(inv -> profiles.containsKey(inv.<String>getArgument(0)));
+        when(provider.generate(any(AuraRequest.class), anyString()))
+            .thenAnswer(inv -> generate(inv.getArgument(0), inv.getArgument(1)));
+        return provider;
+    }
+
+    /**
+     * Give routing policies a latency history to work from, as a warm replica would have
+     */
+    void seed(ModelLatencyTracker latencyTracker, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        profiles.forEach((model, profile) -> {
+            long[] nanos = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                nanos[i] = Duration.ofMillis(Math.round(profile.latencyMs(random, 0))).toNanos();
+            }
+            latencyTracker.restore(model, nanos);
+        });
+    }
+
+    private AuraResponse generate(AuraRequest request, String model) {
+        Trace trace = CURRENT.get();
+        if (trace == null) {
+            throw new IllegalStateException("Upstream call outside a replayed request");
+        }
+        Profile profile = profiles.get(model);
+        // Summaries and other internal calls are capped by their own max_tokens
+        int completionTokens = request.maxTokens() != null
+            ? Math.min(request.maxTokens(), trace.completionTokens)
+            : trace.completionTokens;
+        // Rough approximation: 1 token ≈ 4 characters
+        int promptTokens = request.getConversationText().length() / 4;
+
+        if (trace.random.nextDouble() < profile.errorRate()) {
+            // Failures come back before any output is generated
+            trace.latencyMs += profile.latencyMs(trace.random, 0);
+            trace.failures++;
+            throw new IllegalStateException("Simulated upstream error from " + model);
+        }
+
+        trace.latencyMs += profile.latencyMs(trace.random, completionTokens);
+        AuraProperties.Routing.ModelPrice price = pricing.get(model);
+        if (price != null) {
+            trace.cost += (promptTokens * price.getInputPer1k() + completionTokens * price.getOutputPer1k()) / 1000;
+        }
+        String content = trace.random.nextDouble() < profile.hedgeRate() ? HEDGED_ANSWER : ANSWER;
+        return AuraResponse.create(model, content, new Usage(promptTokens, completionTokens));
+    }
+}